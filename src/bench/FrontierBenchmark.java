@@ -0,0 +1,113 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.BucketQueue;
+import main.ClosedSet;
+import main.Heuristic;
+
+/**
+ * Measures the frontier and the closed set of the search on the puzzles of
+ * a set, one operation being every puzzle of the set added and then polled
+ * or looked up. Each puzzle is keyed by its Manhattan distance, with path
+ * costs spread over a few values, found once per trial. The structures are
+ * cleared rather than created for each operation, as a Searcher reuses
+ * them, so only their own work is measured.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrontierBenchmark {
+    private BucketQueue frontier;
+    private ClosedSet   reached;
+    private int[]       pathCosts;
+    private int[]       evalFuncs;
+
+    /**
+     * Finds the keys of the puzzles and creates the structures.
+     *
+     * @param set of puzzles.
+     */
+    @Setup(Level.Trial)
+    public void prepare(PuzzleSet set) {
+        Heuristic heuristic = new Heuristic();
+
+        this.frontier  = new BucketQueue();
+        this.reached   = new ClosedSet();
+        this.pathCosts = new int[set.boards.length];
+        this.evalFuncs = new int[set.boards.length];
+
+        // For each puzzle of the set, find its keys.
+        for (int i = 0; i < set.boards.length; i++) {
+            this.pathCosts[i] = i & 7;
+            this.evalFuncs[i] = this.pathCosts[i]
+                                + heuristic.findManhattanDist(set.boards[i], set.size);
+        }
+    }
+
+    /**
+     * Adds every puzzle to the frontier and polls them all back.
+     *
+     * @param  set of puzzles.
+     * @return xor of the polled puzzles.
+     */
+    @Benchmark
+    public long addPoll(PuzzleSet set) {
+        long total = 0L;
+
+        this.frontier.clear();
+
+        // For each puzzle of the set, add it to the frontier.
+        for (int i = 0; i < set.boards.length; i++) {
+            this.frontier.add(this.evalFuncs[i], this.pathCosts[i], set.boards[i]);
+        }
+
+        // While there are puzzles left, poll the best one.
+        while (!this.frontier.isEmpty()) {
+            total ^= this.frontier.poll();
+        }
+        return total;
+    }
+
+    /**
+     * Adds every puzzle to the closed set and looks them all up.
+     *
+     * @param  set of puzzles.
+     * @return number of puzzles found.
+     */
+    @Benchmark
+    public int addContains(PuzzleSet set) {
+        int found = 0;
+
+        this.reached.clear();
+
+        // For each puzzle of the set, add it to the closed set.
+        for (long board : set.boards) {
+            this.reached.add(board);
+        }
+
+        // For each puzzle of the set, look it up.
+        for (long board : set.boards) {
+            found += this.reached.contains(board) ? 1 : 0;
+        }
+        return found;
+    }
+}
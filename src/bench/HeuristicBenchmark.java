@@ -0,0 +1,64 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.Heuristic;
+
+/**
+ * Measures the full computation of the heuristics over every puzzle of a
+ * set, one operation being the whole set. The results are summed and
+ * returned so that the computation can not be optimized away.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeuristicBenchmark {
+    private static final Heuristic HEURISTIC = new Heuristic();
+
+    /**
+     * Computes the Manhattan distance of each puzzle.
+     *
+     * @param  set of puzzles.
+     * @return sum of the heuristic values.
+     */
+    @Benchmark
+    public int findManhattanDist(PuzzleSet set) {
+        int total = 0;
+
+        // For each puzzle of the set.
+        for (long board : set.boards) {
+            total += HEURISTIC.findManhattanDist(board, set.size);
+        }
+        return total;
+    }
+
+    /**
+     * Computes the number of misplaced tiles of each puzzle.
+     *
+     * @param  set of puzzles.
+     * @return sum of the heuristic values.
+     */
+    @Benchmark
+    public int findNumberMisplaced(PuzzleSet set) {
+        int total = 0;
+
+        // For each puzzle of the set.
+        for (long board : set.boards) {
+            total += HEURISTIC.findNumberMisplaced(board, set.size);
+        }
+        return total;
+    }
+}
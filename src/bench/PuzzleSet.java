@@ -0,0 +1,63 @@
+package bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import main.PuzzleSetReader;
+
+/**
+ * This class holds the puzzles of one of the committed puzzle set files for
+ * the benchmarks, read once per trial from the data/puzzleSet folder by a
+ * PuzzleSetReader. The size of the puzzles is taken from the file name, like
+ * Controller.splitString() does. Each puzzle is kept both as a state and as
+ * its packed form.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+@State(Scope.Benchmark)
+public class PuzzleSet {
+    @Param({"puzzleSet-2-2424-50-100.txt", "puzzleSet-3-2424-80-100.txt",
+            "puzzleSet-4-2424-40-100.txt"})
+    public String file;
+
+    public int          size;
+    public main.State[] states;
+    public long[]       boards;
+
+    /**
+     * Reads the puzzles of the file.
+     *
+     * @throws IOException if the file can not be read.
+     */
+    @Setup(Level.Trial)
+    public void read() throws IOException {
+        List<main.State> read = new ArrayList<main.State>();
+
+        this.size = Integer.parseInt(this.file.split("-")[1]);
+
+        try (PuzzleSetReader reader = new PuzzleSetReader(new File("data/puzzleSet/" + this.file),
+                                                          this.size)) {
+
+            // For each puzzle of the file, keep its state.
+            while (reader.next()) {
+                read.add(reader.makeState());
+            }
+        }
+        this.states = read.toArray(new main.State[0]);
+        this.boards = new long[this.states.length];
+
+        // For each puzzle of the set, keep its packed form.
+        for (int i = 0; i < this.states.length; i++) {
+            this.boards[i] = this.states[i].getBoard();
+        }
+    }
+}
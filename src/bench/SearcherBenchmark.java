@@ -0,0 +1,85 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import main.Searcher;
+
+/**
+ * Measures Searcher.expand() on every puzzle of a set, and a complete
+ * aStarSearch() of every puzzle of a set with each heuristic, one operation
+ * being the whole set. The heuristic is a parameter of the search alone, so
+ * expand() is not repeated for each one. The expanded children and result
+ * states are handed to the Blackhole so that the work can not be optimized
+ * away.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearcherBenchmark {
+    private Searcher searcher = new Searcher();
+
+    /**
+     * Holds the heuristic type of the search.
+     *
+     * @author  Maksym Turkot
+     * @version 10/17/22
+     */
+    @State(Scope.Benchmark)
+    public static class HeuristicType {
+        @Param({"nMisplaced", "manhattanDist", "linearConflict", "walkingDist"})
+        public String name;
+    }
+
+    /**
+     * Creates the children of each puzzle.
+     *
+     * @param set   of puzzles.
+     * @param black to consume the children.
+     */
+    @Benchmark
+    public void expand(PuzzleSet set, Blackhole black) {
+
+        // For each puzzle of the set.
+        for (main.State state : set.states) {
+            this.searcher.expand(state);
+            black.consume(state.getMoveL());
+            black.consume(state.getMoveR());
+            black.consume(state.getMoveU());
+            black.consume(state.getMoveD());
+        }
+    }
+
+    /**
+     * Searches each puzzle from its initial state to the goal.
+     *
+     * @param set       of puzzles.
+     * @param heuristic type to search with.
+     * @param black     to consume the result states.
+     */
+    @Benchmark
+    public void aStarSearch(PuzzleSet set, HeuristicType heuristic, Blackhole black) {
+
+        // For each puzzle of the set.
+        for (main.State state : set.states) {
+            black.consume(this.searcher.aStarSearch(state, heuristic.name));
+        }
+    }
+}
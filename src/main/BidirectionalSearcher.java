@@ -0,0 +1,280 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * This class searches the puzzle states with front-to-end bidirectional A*.
+ * One search runs forward from the initial state towards the goal state and
+ * another runs backward from the goal state towards the initial state, each
+ * with its own NodeStore, frontier and table of cheapest generated puzzles,
+ * and each guided by the heuristic towards the far end of its search. The
+ * solve() method always expands the side with the smaller frontier.
+ * Whenever a side generates a puzzle the other side has already generated,
+ * the two paths make a solution, and the cheapest one is kept. Every
+ * solution left has to pass through a state of each frontier, so none can be
+ * cheaper than the smallest evaluation function of either frontier, nor than
+ * the smallest path costs of both frontiers plus the move joining them, and
+ * the search stops once the kept solution costs no more than that. The helper
+ * method makeSolution() joins the two halves into a chain of states.
+ *
+ * @author  Maksym Turkot
+ * @version 10/16/22
+ */
+public class BidirectionalSearcher implements Solver {
+    private static final ThreadLocal<Workspace> WORKSPACES =
+            ThreadLocal.withInitial(Workspace::new);
+
+    private Heuristic heuristicFinder;
+
+    /**
+     * Constructor method.
+     */
+    public BidirectionalSearcher() {
+        this.heuristicFinder = new Heuristic();
+    }
+
+    /**
+     * Runs both searches until the cheapest solution found so far can not be
+     * improved on.
+     *
+     * @param  initial     initial state to search.
+     * @param  heuristicTp heuristic type to use.
+     * @return the result of the search.
+     */
+    @Override
+    public SearchResult solve(State initial, String heuristicTp) {
+        long      startTime = System.nanoTime();
+        Workspace work      = WORKSPACES.get();
+        Side      forward   = work.forward;
+        Side      backward  = work.backward;
+        int       size      = initial.getSize();
+        long      start     = initial.getBoard();
+        long      goal      = Searcher.setGoal(size);
+
+        work.clear();
+
+        forward.start(start, initial.getBlank(), goal,
+                      heuristicFinder.findHeuristic(start, size, heuristicTp));
+        backward.start(goal, 0, start,
+                       heuristicFinder.findHeuristic(goal, start, size, heuristicTp));
+
+        // Check if the initial state is already the goal state.
+        if (start == goal) {
+            work.cost = 0;
+        }
+
+        // While both sides have states left to expand.
+        while (!forward.frontier.isEmpty() && !backward.frontier.isEmpty()) {
+            int bound = Math.max(Math.max(forward.frontier.peekEvalFunc(),
+                                          backward.frontier.peekEvalFunc()),
+                                 forward.findMinPathCost() + backward.findMinPathCost() + 1);
+
+            // Check if no solution left can be cheaper than the kept one.
+            if (work.cost <= bound) {
+                break;
+            }
+
+            // Expand the side with the smaller frontier.
+            if (forward.frontier.size() <= backward.frontier.size()) {
+                this.expand(work, forward, backward, size, heuristicTp);
+            } else {
+                this.expand(work, backward, forward, size, heuristicTp);
+            }
+        }
+        State solution = work.cost == Integer.MAX_VALUE ? null : this.makeSolution(work, size);
+
+        return new SearchResult(solution, work.expanded, work.generated, work.peakFrontier,
+                                System.nanoTime() - startTime);
+    }
+
+    /**
+     * Polls a state from the frontier of a side and adds its children,
+     * unless their puzzles were already generated on that side at the same
+     * or a cheaper path cost. A state is expanded again if a cheaper path
+     * to it turns up later, which an inconsistent heuristic allows. Each
+     * child is looked up on the other side, keeping the solution through it
+     * if it is the cheapest so far.
+     *
+     * @param work        workspace of the search.
+     * @param side        to expand.
+     * @param other       the opposite side.
+     * @param size        of the puzzle.
+     * @param heuristicTp heuristic type used.
+     */
+    private void expand(Workspace work, Side side, Side other, int size, String heuristicTp) {
+        int  curr  = (int) side.frontier.poll();
+        long board = side.nodes.getBoard(curr);
+
+        side.queued[side.nodes.getPathCost(curr)]--;
+
+        // Check if a cheaper path to this puzzle was added since.
+        if (side.cheapest.get(board) != curr) {
+            return;
+        }
+        work.expanded++;
+        int blank     = side.nodes.getBlank(curr);
+        int heuristic = side.nodes.getHeuristic(curr);
+        int pathCost  = side.nodes.getPathCost(curr) + 1;
+
+        // For each tile that can be moved into the empty space.
+        for (int target : Board.neighbors(size)[blank]) {
+            long child = Board.move(board, blank, target);
+            int  best  = side.cheapest.get(child);
+
+            work.generated++;
+
+            // Check if the puzzle was already added at least as cheaply.
+            if (best != CostTable.MISSING && side.nodes.getPathCost(best) <= pathCost) {
+                continue;
+            }
+            int childHeuristic;
+
+            // Check if the side searches towards the goal state.
+            if (side == work.forward) {
+                childHeuristic = heuristicFinder.updateHeuristic(child, size, heuristic,
+                                                                 target, blank, heuristicTp);
+            } else {
+                childHeuristic = heuristicFinder.findHeuristic(child, side.target, size,
+                                                               heuristicTp);
+            }
+            int index = side.nodes.add(child, target, curr, pathCost, childHeuristic);
+            int match = other.cheapest.get(child);
+
+            side.cheapest.put(child, index);
+            side.frontier.add(pathCost + childHeuristic, pathCost, index);
+            side.count(pathCost);
+            work.peakFrontier = Math.max(work.peakFrontier,
+                                         side.frontier.size() + other.frontier.size());
+
+            // Check if the other side reached the puzzle with a cheaper solution.
+            if (match != CostTable.MISSING
+                    && pathCost + other.nodes.getPathCost(match) < work.cost) {
+                work.cost         = pathCost + other.nodes.getPathCost(match);
+                work.meetForward  = side == work.forward ? index : match;
+                work.meetBackward = side == work.forward ? match : index;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the chain of states from the initial state to the meeting
+     * state on the forward side, then follows the parents of the meeting
+     * state on the backward side, which lead on to the goal state.
+     *
+     * @param  work workspace of the search.
+     * @param  size of the puzzle.
+     * @return the result state.
+     */
+    private State makeSolution(Workspace work, int size) {
+        NodeStore nodes = work.backward.nodes;
+        State     curr  = work.forward.nodes.makeState(work.meetForward, size);
+
+        // For each state after the meeting state, link it to the previous one.
+        for (int i = nodes.getParent(work.meetBackward); i >= 0; i = nodes.getParent(i)) {
+            State next = new State(nodes.getBoard(i), nodes.getBlank(i), size, curr);
+
+            next.setPathCost(curr.getPathCost() + 1);
+            next.updateEvalFunc();
+            curr = next;
+        }
+        return curr;
+    }
+
+    /**
+     * Holds the structures of one direction of the search. The cheapest
+     * table maps each generated puzzle to the index of its cheapest state.
+     *
+     * @author  Maksym Turkot
+     * @version 10/16/22
+     */
+    private static class Side {
+        private NodeStore   nodes    = new NodeStore();
+        private BucketQueue frontier = new BucketQueue();
+        private CostTable   cheapest = new CostTable();
+        private int[]       queued   = new int[64];
+        private int         minPathCost;
+        private long        target;
+
+        /**
+         * Empties the structures and adds the first state of the side.
+         *
+         * @param board     packed puzzle the side starts from.
+         * @param blank     position of its empty tile.
+         * @param target    packed puzzle the side searches towards.
+         * @param heuristic heuristic value of the first state.
+         */
+        void start(long board, int blank, long target, int heuristic) {
+            this.nodes.clear();
+            this.frontier.clear();
+            this.cheapest.clear();
+            Arrays.fill(this.queued, 0);
+            this.minPathCost = 0;
+            this.target      = target;
+
+            int root = this.nodes.add(board, blank, -1, 0, heuristic);
+
+            this.frontier.add(heuristic, 0, root);
+            this.cheapest.put(board, root);
+            this.count(0);
+        }
+
+        /**
+         * Counts a state added to the frontier by its path cost.
+         *
+         * @param pathCost of the added state.
+         */
+        void count(int pathCost) {
+
+            // Check if the counts have to grow.
+            if (pathCost >= this.queued.length) {
+                this.queued = Arrays.copyOf(this.queued, pathCost << 1);
+            }
+            this.queued[pathCost]++;
+            this.minPathCost = Math.min(this.minPathCost, pathCost);
+        }
+
+        /**
+         * Finds the smallest path cost of the states in the frontier.
+         *
+         * @return the smallest path cost.
+         */
+        int findMinPathCost() {
+
+            // Skip up to the smallest path cost with states left.
+            while (this.queued[this.minPathCost] == 0) {
+                this.minPathCost++;
+            }
+            return this.minPathCost;
+        }
+    }
+
+    /**
+     * Holds both sides of a search and the cheapest solution found, kept by
+     * each thread so that their arrays are reused by its next search.
+     *
+     * @author  Maksym Turkot
+     * @version 10/16/22
+     */
+    private static class Workspace {
+        private Side forward  = new Side();
+        private Side backward = new Side();
+        private int  cost;
+        private int  meetForward;
+        private int  meetBackward;
+        private long expanded;
+        private long generated;
+        private long peakFrontier;
+
+        /**
+         * Forgets the solution and resets the counters.
+         */
+        void clear() {
+            this.cost         = Integer.MAX_VALUE;
+            this.meetForward  = 0;
+            this.meetBackward = 0;
+            this.expanded     = 0;
+            this.generated    = 0;
+            this.peakFrontier = 0;
+        }
+    }
+}
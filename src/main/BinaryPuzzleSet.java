@@ -0,0 +1,148 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads a binary puzzle set file written by PuzzleSetWriter. The
+ * file is memory-mapped, and the puzzles are read in place from the mapping,
+ * so opening a set costs nothing per puzzle. Since every puzzle takes the
+ * same number of bytes after the header, getBoard() and getBoardHigh() find
+ * the i-th puzzle directly, which lets a set be split into shards of any
+ * range. The mapping is limited to 2 GiB, a quarter of a billion puzzles up
+ * to Board.MAX_SIZE.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class BinaryPuzzleSet {
+    private MappedByteBuffer buffer;
+    private int              size;
+    private int              seed;
+    private int              swaps;
+    private int              count;
+    private int              record;
+
+    /**
+     * Constructor method, mapping the file.
+     *
+     * @param  file to read the puzzles from.
+     * @throws IOException if the file can not be read or is not a binary
+     *                     puzzle set.
+     */
+    public BinaryPuzzleSet(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+            // Check if the file is too short to hold a header.
+            if (channel.size() < PuzzleSetWriter.HEADER) {
+                throw new IOException("Not a binary puzzle set \"" + file + "\"");
+            }
+
+            // Check if the file is too large to be mapped at once.
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary puzzle set too large \"" + file + "\"");
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        // Check if the file is a binary puzzle set.
+        if (this.buffer.getInt(0) != PuzzleSetWriter.MAGIC) {
+            throw new IOException("Not a binary puzzle set \"" + file + "\"");
+        }
+        this.size  = this.buffer.getInt(4);
+        this.seed  = this.buffer.getInt(8);
+        this.swaps = this.buffer.getInt(12);
+
+        // Check if the puzzles can be packed.
+        if (this.size < 2 || this.size > WideBoard.MAX_SIZE) {
+            throw new IOException("Unsupported puzzle size " + this.size + " in \"" + file
+                                  + "\"");
+        }
+        long count  = this.buffer.getLong(16);
+
+        this.record = PuzzleSetWriter.recordSize(this.size);
+
+        // Check if the file holds every puzzle its header counts.
+        if (PuzzleSetWriter.HEADER + count * this.record != this.buffer.capacity()) {
+            throw new IOException("Truncated binary puzzle set \"" + file + "\"");
+        }
+        this.count = (int) count;
+    }
+
+    /**
+     * Getter for the size of the puzzles.
+     *
+     * @return size of the puzzles.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Getter for the seed the puzzles were generated with.
+     *
+     * @return generator seed.
+     */
+    public int getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Getter for the number of swaps the puzzles were generated with.
+     *
+     * @return number of swaps.
+     */
+    public int getSwaps() {
+        return this.swaps;
+    }
+
+    /**
+     * Getter for the number of puzzles of the set.
+     *
+     * @return number of puzzles.
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Getter for a packed puzzle, its low half if it is larger than
+     * Board.MAX_SIZE.
+     *
+     * @param  index of the puzzle.
+     * @return packed puzzle.
+     */
+    public long getBoard(int index) {
+        return this.buffer.getLong(PuzzleSetWriter.HEADER + index * this.record
+                                   + this.record - Long.BYTES);
+    }
+
+    /**
+     * Getter for the high half of a packed puzzle.
+     *
+     * @param  index of the puzzle.
+     * @return high half of the packed puzzle, 0 if it fits into a long.
+     */
+    public long getBoardHigh(int index) {
+        return this.size <= Board.MAX_SIZE ? 0L
+               : this.buffer.getLong(PuzzleSetWriter.HEADER + index * this.record);
+    }
+
+    /**
+     * Creates the state of a puzzle.
+     *
+     * @param  index of the puzzle.
+     * @return initial state holding the puzzle.
+     */
+    public State makeState(int index) {
+
+        // Check if the index is out of range.
+        if (index < 0 || index >= this.count) {
+            throw new IndexOutOfBoundsException("Puzzle " + index + " of " + this.count);
+        }
+        return new State(this.getBoardHigh(index), this.getBoard(index), -1, this.size, null);
+    }
+}
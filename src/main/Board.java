@@ -0,0 +1,236 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * This class implements the packed representation of a puzzle. A puzzle of
+ * size up to 4 is stored in a single long, four bits per tile, with the tile
+ * at position (row * size + col) held in bits 4 * position to
+ * 4 * position + 3. Methods pack() and unpack() convert between the packed
+ * form and the puzzle array used at the edges of the program, tileAt() and
+ * findBlank() read the packed puzzle, and move() slides a tile into the empty
+ * space. The neighbors() method returns the positions a tile can be moved
+ * from for each position of the empty space, for every size up to
+ * WideBoard.MAX_SIZE, and goal() the packed goal puzzle. Both tables are
+ * derived from the size. The isReachable() method tells by parity whether
+ * a puzzle can reach the goal at all.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public final class Board {
+    public static final int MAX_SIZE  = 4;
+    public static final int MAX_MOVES = 4;
+
+    private static final int[][][] NEIGHBORS = new int[WideBoard.MAX_SIZE + 1][][];
+    private static final long[]    GOALS     = new long[MAX_SIZE + 1];
+
+    static {
+
+        // For each supported size, tabulate the possible moves.
+        for (int size = 2; size <= WideBoard.MAX_SIZE; size++) {
+            NEIGHBORS[size] = Board.findNeighbors(size);
+        }
+
+        // For each size that fits a long, pack the goal, tile i at position i.
+        for (int size = 2; size <= MAX_SIZE; size++) {
+
+            // For each tile of the puzzle.
+            for (int tile = 0; tile < size * size; tile++) {
+                GOALS[size] |= (long) tile << (tile << 2);
+            }
+        }
+    }
+
+    /**
+     * Private constructor, the class only holds static helpers.
+     */
+    private Board() {
+    }
+
+    /**
+     * Packs the puzzle array into a long.
+     *
+     * @param  puzzle to pack.
+     * @return packed puzzle.
+     */
+    public static long pack(int[][] puzzle) {
+        int  size  = puzzle.length;
+        long board = 0L;
+
+        // Check if the puzzle fits into a long.
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported puzzle size " + size);
+        }
+
+        // For each row of the puzzle.
+        for (int row = 0; row < size; row++) {
+
+            // For each column of the puzzle, store the tile.
+            for (int col = 0; col < size; col++) {
+                board |= (long) puzzle[row][col] << ((row * size + col) << 2);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Unpacks the packed puzzle into a puzzle array.
+     *
+     * @param  board packed puzzle.
+     * @param  size  of the puzzle.
+     * @return puzzle array.
+     */
+    public static int[][] unpack(long board, int size) {
+        int[][] puzzle = new int[size][size];
+
+        // For each row of the puzzle.
+        for (int row = 0; row < size; row++) {
+
+            // For each column of the puzzle, read the tile.
+            for (int col = 0; col < size; col++) {
+                puzzle[row][col] = Board.tileAt(board, row * size + col);
+            }
+        }
+        return puzzle;
+    }
+
+    /**
+     * Reads the tile at the position.
+     *
+     * @param  board packed puzzle.
+     * @param  pos   position of the tile, row * size + col.
+     * @return tile value.
+     */
+    public static int tileAt(long board, int pos) {
+        return (int) (board >>> (pos << 2)) & 0xF;
+    }
+
+    /**
+     * Finds the position of the empty tile.
+     *
+     * @param  board packed puzzle.
+     * @param  size  of the puzzle.
+     * @return position of the empty tile, or -1 if there is none.
+     */
+    public static int findBlank(long board, int size) {
+
+        // For each position of the puzzle.
+        for (int pos = 0; pos < size * size; pos++) {
+
+            // Check if empty tile was found.
+            if (Board.tileAt(board, pos) == 0) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Slides the tile at the target position into the empty space.
+     *
+     * @param  board  packed puzzle.
+     * @param  blank  position of the empty tile.
+     * @param  target position of the tile to move, adjacent to blank.
+     * @return packed puzzle after the move.
+     */
+    public static long move(long board, int blank, int target) {
+        long tile = (board >>> (target << 2)) & 0xFL;
+
+        return (board | (tile << (blank << 2))) & ~(0xFL << (target << 2));
+    }
+
+    /**
+     * Getter for the packed goal puzzle, with tile i at position i and the 
+     * empty tile in the top left corner.
+     *
+     * @param  size of the puzzle.
+     * @return packed goal puzzle.
+     */
+    public static long goal(int size) {
+
+        // Check if the puzzle fits into a long.
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported puzzle size " + size);
+        }
+        return GOALS[size];
+    }
+
+    /**
+     * Checks if a puzzle can reach the goal: every move swaps the empty tile
+     * with a neighbor, so the number of tile pairs out of order, counting
+     * the empty tile, and the distance of the empty tile from its goal
+     * position have to be both even or both odd.
+     *
+     * @param  board packed puzzle.
+     * @param  size  of the puzzle.
+     * @return true if the goal can be reached.
+     */
+    public static boolean isReachable(long board, int size) {
+        int cells      = size * size;
+        int inversions = 0;
+        int blank      = Board.findBlank(board, size);
+
+        // For each position, count the later tiles that come before its tile.
+        for (int i = 0; i < cells; i++) {
+
+            // For each later position.
+            for (int j = i + 1; j < cells; j++) {
+                inversions += Board.tileAt(board, j) < Board.tileAt(board, i) ? 1 : 0;
+            }
+        }
+        return (inversions & 1) == ((blank / size + blank % size) & 1);
+    }
+
+    /**
+     * Getter for the table of possible moves. For each position of the empty
+     * space, it lists the positions of the left, right, top, and bottom
+     * tiles that exist.
+     *
+     * @param  size of the puzzle.
+     * @return positions of the tiles that can be moved, by empty position.
+     */
+    public static int[][] neighbors(int size) {
+        return NEIGHBORS[size];
+    }
+
+    /**
+     * Tabulates the possible moves for the puzzle size.
+     *
+     * @param  size of the puzzle.
+     * @return positions of the tiles that can be moved, by empty position.
+     */
+    private static int[][] findNeighbors(int size) {
+        int[][] neighbors = new int[size * size][];
+
+        // For each position of the empty space.
+        for (int pos = 0; pos < size * size; pos++) {
+            int   row     = pos / size;
+            int   col     = pos % size;
+            int[] targets = new int[4];
+            int   count   = 0;
+
+            // Check if left tile exists.
+            if (col - 1 >= 0) {
+                targets[count++] = pos - 1;
+            }
+
+            // Check if right tile exists.
+            if (col + 1 < size) {
+                targets[count++] = pos + 1;
+            }
+
+            // Check if top tile exists.
+            if (row - 1 >= 0) {
+                targets[count++] = pos - size;
+            }
+
+            // Check if bottom tile exists.
+            if (row + 1 < size) {
+                targets[count++] = pos + size;
+            }
+            neighbors[pos] = Arrays.copyOf(targets, count);
+        }
+        return neighbors;
+    }
+}
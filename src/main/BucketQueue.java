@@ -0,0 +1,211 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * This class implements the frontier of the searching algorithms as a
+ * priority queue of buckets. Evaluation functions and path costs of puzzle
+ * states are small integers, so every pair of them gets its own bucket, a
+ * stack of long values. The add() method pushes a value to the bucket of its
+ * evaluation function and path cost, and poll() pops a value from the bucket
+ * with the smallest evaluation function, preferring the largest path cost
+ * among those, so that ties go to the states closest to the goal. Both run in
+ * constant amortized time.
+ *
+ * @author  Maksym Turkot
+ * @version 10/11/22
+ */
+public class BucketQueue {
+    private long[][][] buckets;
+    private int[][]    counts;
+    private int[]      evalFuncCounts;
+    private int[]      topPathCost;
+    private int        minEvalFunc;
+    private int        size;
+
+    /**
+     * Constructor method.
+     */
+    public BucketQueue() {
+        this.buckets        = new long[0][][];
+        this.counts         = new int[0][];
+        this.evalFuncCounts = new int[0];
+        this.topPathCost    = new int[0];
+        this.minEvalFunc    = 0;
+        this.size           = 0;
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return true if there are no values left.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Getter for the number of values in the queue.
+     *
+     * @return number of values in the queue.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Pushes a value to the bucket of its evaluation function and path cost.
+     *
+     * @param evalFunc evaluation function of the state.
+     * @param pathCost cost of the path to the state.
+     * @param value    to store for the state.
+     */
+    public void add(int evalFunc, int pathCost, long value) {
+
+        // Check if the priorities can index a bucket.
+        if (evalFunc < 0 || pathCost < 0) {
+            throw new IllegalArgumentException("Negative priority " + evalFunc + ", " + pathCost);
+        }
+
+        // Check if the buckets of the evaluation function exist.
+        if (evalFunc >= this.buckets.length) {
+            this.growEvalFunc(evalFunc);
+        }
+
+        // Check if the bucket of the path cost exists.
+        if (pathCost >= this.buckets[evalFunc].length) {
+            this.growPathCost(evalFunc, pathCost);
+        }
+        long[] bucket = this.buckets[evalFunc][pathCost];
+        int    count  = this.counts[evalFunc][pathCost];
+
+        // Check if the bucket is full.
+        if (count == bucket.length) {
+            bucket = Arrays.copyOf(bucket, Math.max(8, count << 1));
+            this.buckets[evalFunc][pathCost] = bucket;
+        }
+        bucket[count] = value;
+        this.counts[evalFunc][pathCost] = count + 1;
+        this.evalFuncCounts[evalFunc]++;
+        this.topPathCost[evalFunc] = Math.max(this.topPathCost[evalFunc], pathCost);
+
+        // Check if the value comes before the current minimum.
+        if (this.size == 0 || evalFunc < this.minEvalFunc) {
+            this.minEvalFunc = evalFunc;
+        }
+        this.size++;
+    }
+
+    /**
+     * Pops a value with the smallest evaluation function, and among those
+     * the largest path cost.
+     *
+     * @return the popped value.
+     */
+    public long poll() {
+        int evalFunc = this.peekEvalFunc();
+        int pathCost = this.topPathCost[evalFunc];
+
+        // Skip down to the largest path cost with values left.
+        while (this.counts[evalFunc][pathCost] == 0) {
+            pathCost--;
+        }
+        this.topPathCost[evalFunc] = pathCost;
+        this.evalFuncCounts[evalFunc]--;
+        this.size--;
+
+        return this.buckets[evalFunc][pathCost][--this.counts[evalFunc][pathCost]];
+    }
+
+    /**
+     * Finds the smallest evaluation function in the queue.
+     *
+     * @return the smallest evaluation function.
+     */
+    public int peekEvalFunc() {
+
+        // Check if there is anything to look at.
+        if (this.size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+
+        // Skip up to the smallest evaluation function with values left.
+        while (this.evalFuncCounts[this.minEvalFunc] == 0) {
+            this.minEvalFunc++;
+        }
+        return this.minEvalFunc;
+    }
+
+    /**
+     * Finds the largest path cost among values with the smallest evaluation
+     * function, the one poll() takes next.
+     *
+     * @return the path cost of the next value.
+     */
+    public int peekPathCost() {
+        int evalFunc = this.peekEvalFunc();
+        int pathCost = this.topPathCost[evalFunc];
+
+        // Skip down to the largest path cost with values left.
+        while (this.counts[evalFunc][pathCost] == 0) {
+            pathCost--;
+        }
+        this.topPathCost[evalFunc] = pathCost;
+        return pathCost;
+    }
+
+    /**
+     * Removes all values, keeping the allocated buckets.
+     */
+    public void clear() {
+
+        // For each evaluation function, empty its buckets.
+        for (int evalFunc = 0; evalFunc < this.counts.length; evalFunc++) {
+            Arrays.fill(this.counts[evalFunc], 0);
+        }
+        Arrays.fill(this.evalFuncCounts, 0);
+        Arrays.fill(this.topPathCost, 0);
+        this.minEvalFunc = 0;
+        this.size        = 0;
+    }
+
+    /**
+     * Adds buckets for evaluation functions up to the given one.
+     *
+     * @param evalFunc largest evaluation function to hold.
+     */
+    private void growEvalFunc(int evalFunc) {
+        int length = Math.max(evalFunc + 1, this.buckets.length << 1);
+        int old    = this.buckets.length;
+
+        this.buckets        = Arrays.copyOf(this.buckets, length);
+        this.counts         = Arrays.copyOf(this.counts, length);
+        this.evalFuncCounts = Arrays.copyOf(this.evalFuncCounts, length);
+        this.topPathCost    = Arrays.copyOf(this.topPathCost, length);
+
+        // For each new evaluation function, start without buckets.
+        for (int i = old; i < length; i++) {
+            this.buckets[i] = new long[0][];
+            this.counts[i]  = new int[0];
+        }
+    }
+
+    /**
+     * Adds buckets for path costs up to the given one.
+     *
+     * @param evalFunc evaluation function of the buckets.
+     * @param pathCost largest path cost to hold.
+     */
+    private void growPathCost(int evalFunc, int pathCost) {
+        int length = Math.max(pathCost + 1, this.buckets[evalFunc].length << 1);
+        int old    = this.buckets[evalFunc].length;
+
+        this.buckets[evalFunc] = Arrays.copyOf(this.buckets[evalFunc], length);
+        this.counts[evalFunc]  = Arrays.copyOf(this.counts[evalFunc], length);
+
+        // For each new path cost, start with an empty bucket.
+        for (int i = old; i < length; i++) {
+            this.buckets[evalFunc][i] = new long[0];
+        }
+    }
+}
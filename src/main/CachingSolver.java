@@ -0,0 +1,221 @@
+package main;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class puts a cache of solutions in front of another solver, keyed on
+ * the packed initial puzzle. The first tier is a bounded LinkedHashMap in
+ * access order, which drops the least recently used solution once it is
+ * full. The second tier is an optional SolutionFile kept on the disk, which
+ * is checked when the first tier misses and fills it on a hit. Only a puzzle
+ * missing from both is handed to the solver, and its solution is stored in
+ * both tiers. A solution is kept as the directions the empty tile moved in,
+ * 0 to 3 for left, right, up and down, and replayed from the initial state
+ * by makeSolution(). The hit, miss and eviction counts are kept for the log.
+ * Puzzles larger than Board.MAX_SIZE do not fit the key and are handed to 
+ * the solver directly, without being counted.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class CachingSolver implements Solver {
+    private Solver                      solver;
+    private SolutionFile                file;
+    private LinkedHashMap<Long, byte[]> memory;
+    private AtomicLong                  hits;
+    private AtomicLong                  fileHits;
+    private AtomicLong                  misses;
+    private AtomicLong                  evictions;
+
+    /**
+     * Constructor method.
+     *
+     * @param solver   to solve the puzzles missing from the cache.
+     * @param capacity largest number of solutions kept in memory.
+     * @param file     to keep solutions on the disk in, or null for none.
+     */
+    public CachingSolver(Solver solver, int capacity, SolutionFile file) {
+
+        // Check if the memory tier can hold a solution.
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+        }
+        this.solver    = solver;
+        this.file      = file;
+        this.hits      = new AtomicLong();
+        this.fileHits  = new AtomicLong();
+        this.misses    = new AtomicLong();
+        this.evictions = new AtomicLong();
+        this.memory    = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+
+                // Check if the tier is over its capacity.
+                if (this.size() > capacity) {
+                    CachingSolver.this.evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Getter for the number of puzzles found in memory.
+     *
+     * @return number of memory hits.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Getter for the number of puzzles found in the file after missing in
+     * memory.
+     *
+     * @return number of file hits.
+     */
+    public long getFileHits() {
+        return this.fileHits.get();
+    }
+
+    /**
+     * Getter for the number of puzzles handed to the solver.
+     *
+     * @return number of misses.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Getter for the number of solutions dropped from memory or replaced in
+     * the file.
+     *
+     * @return number of evictions.
+     */
+    public long getEvictions() {
+        return this.evictions.get() + (this.file == null ? 0 : this.file.getReplaced());
+    }
+
+    /**
+     * Returns the cached solution of the initial state, solving and caching
+     * it if neither tier holds it. A cached solution costs no expansions.
+     *
+     * @param  initial     initial state to solve.
+     * @param  heuristicTp heuristic type for the solver.
+     * @return the result of the search or lookup.
+     */
+    @Override
+    public SearchResult solve(State initial, String heuristicTp) {
+
+        // Check if the puzzle does not fit the key.
+        if (initial.getSize() > Board.MAX_SIZE) {
+            return this.solver.solve(initial, heuristicTp);
+        }
+        long   startTime  = System.nanoTime();
+        long   board      = initial.getBoard();
+        byte[] directions;
+
+        // Look the puzzle up in memory.
+        synchronized (this.memory) {
+            directions = this.memory.get(board);
+        }
+
+        // Check if the solution is in memory.
+        if (directions != null) {
+            this.hits.incrementAndGet();
+            return new SearchResult(this.makeSolution(initial, directions), 0, 0, 0,
+                                    System.nanoTime() - startTime);
+        }
+
+        // Check if the solution is in the file.
+        if (this.file != null && (directions = this.file.get(board)) != null) {
+            this.fileHits.incrementAndGet();
+
+            synchronized (this.memory) {
+                this.memory.put(board, directions);
+            }
+            return new SearchResult(this.makeSolution(initial, directions), 0, 0, 0,
+                                    System.nanoTime() - startTime);
+        }
+        SearchResult result = this.solver.solve(initial, heuristicTp);
+
+        this.misses.incrementAndGet();
+
+        // Check if there is a solution to keep.
+        if (result.isSolved()) {
+            directions = CachingSolver.findDirections(result.getPath(), initial.getSize());
+
+            synchronized (this.memory) {
+                this.memory.put(board, directions);
+            }
+
+            // Check if the solution is also kept on the disk.
+            if (this.file != null) {
+                this.file.put(board, directions);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the solutions kept on the disk out.
+     */
+    public void flush() {
+
+        // Check if there is a file to write.
+        if (this.file != null) {
+            this.file.force();
+        }
+    }
+
+    /**
+     * Finds the direction of each move of a solution from the positions of
+     * the empty tile before and after it.
+     *
+     * @param  path packed puzzles of the solution.
+     * @param  size of the puzzle.
+     * @return directions of the moves.
+     */
+    private static byte[] findDirections(long[] path, int size) {
+        byte[] directions = new byte[path.length - 1];
+
+        // For each move of the solution.
+        for (int i = 0; i < directions.length; i++) {
+            int delta = Board.findBlank(path[i + 1], size) - Board.findBlank(path[i], size);
+
+            directions[i] = (byte) (delta == -1 ? 0 : delta == 1 ? 1 : delta < 0 ? 2 : 3);
+        }
+        return directions;
+    }
+
+    /**
+     * Replays the moves of a cached solution from the initial state, linking
+     * each new state to its parent.
+     *
+     * @param  initial    initial state of the puzzle.
+     * @param  directions of the moves.
+     * @return the result state.
+     */
+    private State makeSolution(State initial, byte[] directions) {
+        int   size = initial.getSize();
+        State curr = new State(initial.getBoard(), initial.getBlank(), size, null);
+
+        // For each move, derive the next state.
+        for (byte direction : directions) {
+            int   blank  = curr.getBlank();
+            int   target = blank + (direction == 0 ? -1 : direction == 1 ? 1
+                                    : direction == 2 ? -size : size);
+            State next   = new State(Board.move(curr.getBoard(), blank, target), target,
+                                     size, curr);
+
+            next.setPathCost(curr.getPathCost() + 1);
+            next.updateEvalFunc();
+            curr = next;
+        }
+        return curr;
+    }
+}
@@ -0,0 +1,180 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * This class implements the set of reached states used by the searching
+ * algorithms. States are identified by the packed numeric encoding of their
+ * puzzle, and the set stores these long keys directly in an open-addressing
+ * table with linear probing, so no key is ever boxed. The add() method
+ * inserts a key and reports whether it was new, contains() checks for
+ * membership, and clear() empties the set while keeping its capacity. The
+ * table is doubled by the resize() helper once the number of keys exceeds
+ * the load factor.
+ *
+ * @author  Maksym Turkot
+ * @version 10/05/22
+ */
+public class ClosedSet {
+    private static final int   DEFAULT_CAPACITY    = 1024;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    private long[]  keys;
+    private boolean hasZero;
+    private int     size;
+    private int     mask;
+    private int     threshold;
+    private float   loadFactor;
+
+    /**
+     * Constructor method.
+     */
+    public ClosedSet() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor method.
+     *
+     * @param capacity   expected number of keys.
+     * @param loadFactor fraction of the table filled before it is resized.
+     */
+    public ClosedSet(int capacity, float loadFactor) {
+
+        // Check if the load factor leaves empty slots for probing.
+        if (loadFactor <= 0.0f || loadFactor >= 1.0f) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1)");
+        }
+        int tableSize = Integer.highestOneBit(Math.max(2, (int) (capacity / loadFactor)) - 1) << 1;
+
+        this.keys       = new long[tableSize];
+        this.hasZero    = false;
+        this.size       = 0;
+        this.mask       = tableSize - 1;
+        this.loadFactor = loadFactor;
+        this.threshold  = (int) (tableSize * loadFactor);
+    }
+
+    /**
+     * Getter for the number of keys in the set.
+     *
+     * @return number of keys in the set.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks if the key is present in the set.
+     *
+     * @param  key packed state to look up.
+     * @return true if the key is present.
+     */
+    public boolean contains(long key) {
+
+        // Zero marks empty slots, so it is tracked separately.
+        if (key == 0L) {
+            return this.hasZero;
+        }
+        int slot = ClosedSet.hash(key) & this.mask;
+
+        // Probe until the key or an empty slot is found.
+        while (this.keys[slot] != 0L) {
+
+            // Check if the slot holds the key.
+            if (this.keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the key to the set.
+     *
+     * @param  key packed state to add.
+     * @return true if the key was not present before.
+     */
+    public boolean add(long key) {
+
+        // Zero marks empty slots, so it is tracked separately.
+        if (key == 0L) {
+            boolean added = !this.hasZero;
+
+            this.hasZero = true;
+            this.size   += added ? 1 : 0;
+            return added;
+        }
+        int slot = ClosedSet.hash(key) & this.mask;
+
+        // Probe until the key or an empty slot is found.
+        while (this.keys[slot] != 0L) {
+
+            // Check if the slot holds the key.
+            if (this.keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.keys[slot] = key;
+
+        // Check if the table has to grow.
+        if (++this.size > this.threshold) {
+            this.resize();
+        }
+        return true;
+    }
+
+    /**
+     * Removes all keys from the set, keeping the allocated table.
+     */
+    public void clear() {
+        Arrays.fill(this.keys, 0L);
+        this.hasZero = false;
+        this.size    = 0;
+    }
+
+    /**
+     * Doubles the table and reinserts every stored key.
+     */
+    private void resize() {
+        long[] oldKeys = this.keys;
+
+        this.keys      = new long[oldKeys.length << 1];
+        this.mask      = this.keys.length - 1;
+        this.threshold = (int) (this.keys.length * this.loadFactor);
+
+        // For each occupied slot of the old table, reinsert the key.
+        for (long key : oldKeys) {
+
+            // Check if the slot is occupied.
+            if (key != 0L) {
+                int slot = ClosedSet.hash(key) & this.mask;
+
+                // Probe until an empty slot is found.
+                while (this.keys[slot] != 0L) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot] = key;
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of a packed state so that neighbouring states do not
+     * cluster in the table.
+     *
+     * @param  key packed state.
+     * @return hash of the key.
+     */
+    static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+
+        return (int) key;
+    }
+}
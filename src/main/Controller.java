@@ -1,7 +1,15 @@
 package main;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * Contains the main() method that starts the program execution, as 
@@ -15,6 +23,25 @@ import java.util.Arrays;
  * @version 10/04/2022
  */
 public class Controller {
+    private static final int      THREADS         = Runtime.getRuntime().availableProcessors();
+    private static final String   SOLVER          = System.getProperty("solver", "aStar");
+    private static final String   GENERATOR       = System.getProperty("generator", "legacy");
+    private static final boolean  BINARY_SETS     = Boolean.getBoolean("binarySets");
+    private static final int      CACHE_SIZE      = Integer.getInteger("cache", 0);
+    private static final boolean  CACHE_FILES     = Boolean.getBoolean("cacheFiles");
+    private static final int      CACHE_SLOTS     = 1 << 16;
+    private static final int      NODE_BUDGET     = Integer.getInteger("nodeBudget", 1 << 20);
+    private static final long     BYTE_BUDGET     = Long.getLong("byteBudget", 0L);
+    private static final String   EXTERNAL_DIR    = System.getProperty("externalDir", 
+                                                        System.getProperty("java.io.tmpdir"));
+    private static final int      EXTERNAL_MEMORY = Integer.getInteger("externalMemory", 1 << 20);
+    private static final String[] HEURISTICS      = {"nMisplaced", "manhattanDist", 
+                                                     "linearConflict", "walkingDist"};
+    private static final String[] HEURISTIC_NAMES = {"H1: Number Misplaced", 
+                                                     "H2: Manhattan Distance", 
+                                                     "H3: Linear Conflict", 
+                                                     "H4: Walking Distance"};
+    private static final int      WIDE_HEURISTICS = 3; // Leading ones a WideIdaSearcher runs.
 
     /**
      * Creates the reader and writer objects and calls the 
@@ -33,6 +60,8 @@ public class Controller {
 
         runSearch(reader, writer);
 
+        writer.close();
+
         System.out.println("");
     }
 
@@ -40,7 +69,11 @@ public class Controller {
      * Reads all of the puzzle configuration files stored in the 
      * project1/data/puzzleConfig directory, calls puzzleGenerator to create 
      * the random initial states, and writes these states as strings to a file 
-     * in the project1/data/puzzleSet directory.
+     * in the project1/data/puzzleSet directory. The puzzles are streamed to 
+     * a PuzzleSetWriter as they are made, in the binary format if the 
+     * "binarySets" system property is true. The "generator" system property 
+     * picks "legacy", the PuzzleGenerator the committed sets were made with, 
+     * or "parallel", the ParallelPuzzleGenerator for large sets.
      * 
      * @param reader used to read files.
      * @param writer used to write to files.
@@ -50,26 +83,40 @@ public class Controller {
 
         // Loop throug puzzleConfig files in the data/puzzleConfig dir.
         for (File puzzleConfig : puzzleConfigs.listFiles()) {
-            PuzzleGenerator puzzleGenerator;
 
             // Exclude automatically generated .DS_Store file.
             if (!puzzleConfig.getPath().contains(".DS_Store")) {
                 reader.readFile(puzzleConfig.getPath(), 0, 0);
-                puzzleGenerator = new PuzzleGenerator(reader.getPSeed());
-
-                int size   = reader.getPSize();
-                int seed   = reader.getPSeed();
-                int swaps  = reader.getPSwaps();
-                int number = reader.getPNumber();
-
-                int [][][] puzzles = new int[number][size][size];
 
-                // Generate specified number of random initial states.
-                for (int i = 0; i < number; i++) {
-                    puzzles[i] = puzzleGenerator.makePuzzle(size, swaps);
+                int    size     = reader.getPSize();
+                int    seed     = reader.getPSeed();
+                int    swaps    = reader.getPSwaps();
+                int    number   = reader.getPNumber();
+                String filename = "data/puzzleSet/puzzleSet-" + size + "-" + seed + "-" 
+                                  + swaps + "-" + number + (BINARY_SETS ? ".bin" : ".txt");
+                File   file     = writer.createFile(filename);
+
+                try (PuzzleSetWriter puzzleSet = new PuzzleSetWriter(file, size, seed, swaps, 
+                                                                     BINARY_SETS)) {
+
+                    // Check which generator makes the puzzles.
+                    if (GENERATOR.equals("parallel")) {
+                        new ParallelPuzzleGenerator(seed).generate(size, swaps, number, 
+                                                                   puzzleSet);
+                    } else if (GENERATOR.equals("legacy")) {
+                        PuzzleGenerator puzzleGenerator = new PuzzleGenerator(seed);
+
+                        // Generate specified number of random initial states.
+                        for (int i = 0; i < number; i++) {
+                            puzzleSet.add(puzzleGenerator.makePuzzle(size, swaps));
+                        }
+                    } else {
+                        throw new IllegalArgumentException("Unknown generator " + GENERATOR);
+                    }
+                } catch (IOException ioe) {
+                    throw new IllegalStateException("Error writing file \"" + filename + "\"", 
+                                                    ioe);
                 }
-
-                writer.writePuzzleFile(puzzles, size, seed, swaps, number);
             }
         }
     }
@@ -77,17 +124,28 @@ public class Controller {
     /**
      * Reads all of the puzzle set files stored in the 
      * project1/data/puzzleConfig directory, runs A* search using each 
-     * heuristic, and writes the aggregated results to the 
-     * project1/data/log.txt file.
+     * heuristic in HEURISTICS, and writes the aggregated results to the 
+     * project1/data/log.txt file. The puzzles are solved by solvePuzzles() 
+     * in a work-stealing pool with a thread per core, or a single thread 
+     * for the "hda" solver, which already spreads each search over every 
+     * core. The tasks share one solver, picked by the "solver" system 
+     * property. If the "cache" system property gives a capacity, each 
+     * heuristic gets a CachingSolver in front of the solver, also keeping 
+     * its solutions in the data/cache folder if "cacheFiles" is true, and 
+     * the cache counts of each set are logged. Puzzles larger than 
+     * Board.MAX_SIZE do not fit the packed form the other solvers use, so 
+     * their sets are always searched by a WideIdaSearcher, uncached, with 
+     * the first WIDE_HEURISTICS heuristics only, which it supports.
      * 
      * @param reader used to read files.
      * @param writer used to write to files.
      */
     private static void runSearch(Reader reader, Writer writer) {
-        File      puzzleSets = new File("data/puzzleSet");
-        Searcher  searcher   = new Searcher();
-        Validator validator  = new Validator();
-        int[][][] puzzles;
+        File                  puzzleSets = new File("data/puzzleSet");
+        ForkJoinPool          pool       = new ForkJoinPool(SOLVER.equals("hda") ? 1 : THREADS);
+        Solver                solver     = Controller.makeSolver(SOLVER);
+        Solver                wide       = new WideIdaSearcher();
+        CachingSolver[]       caches     = Controller.makeCaches(solver);
 
         // Loop throug puzzleSet files in the data/puzzleSet dir.
         for (File puzzleSet : puzzleSets.listFiles()) {
@@ -96,91 +154,283 @@ public class Controller {
             if (!puzzleSet.getPath().contains(".DS_Store")) {
                 System.out.print(puzzleSet.getName() + ": ");
 
-                int[]  info              = splitString(puzzleSet.getName());
-                int    size              = info[0];
-                int    seed              = info[1];
-                int    swaps             = info[2];
-                int    number            = info[3];
-                int    numExpandedSumH1  = 0;
-                int    numExpandedSumH2  = 0;
-                int    depthSumH1        = 0;
-                int    depthSumH2        = 0;
-                long   execTimeSumH1     = 0;
-                long   execTimeSumH2     = 0;
-                double averageExpandedH1 = 0.0;
-                double averageExpandedH2 = 0.0;
-                double averageDepthH1    = 0.0;
-                double averageDepthH2    = 0.0;
-                double avgExecTimeH1     = 0.0;
-                double avgExecTimeH2     = 0.0;
+                int[]    info           = splitString(puzzleSet.getName());
+                int      size           = info[0];
+                int      seed           = info[1];
+                int      swaps          = info[2];
+                int      number         = info[3];
+                int      count          = size > Board.MAX_SIZE ? WIDE_HEURISTICS 
+                                                                    : HEURISTICS.length;
+                long[]   depthSum       = new long[count];
+                double[] avgDepth       = new double[count];
+
+                LatencyHistogram[] expandedStats = new LatencyHistogram[count];
+                LatencyHistogram[] execTimeStats = new LatencyHistogram[count];
                 
-                reader.readFile(puzzleSet.getPath(), size, number);
-                puzzles = reader.getPuzzles();
-
-                // Solve each puzzle in the puzzleSet file using search.
-                for (int[][] puzzle : puzzles) {
-                    State initial       = new State(puzzle, null);
-                    int   numExpandedH1 = 0;
-                    int   numExpandedH2 = 0;
-                    int   depthH1       = 0;
-                    int   depthH2       = 0;
-                    long  execTimeH1    = 0;
-                    long  execTimeH2    = 0;
-                    long  startTime     = 0;
-                    long  stopTime      = 0;
-
-                    // Search using H1.
-                    startTime      = System.nanoTime();
-                    State resultH1 = searcher.aStarSearch(initial, "nMisplaced");
-                    stopTime       = System.nanoTime();
-                    execTimeH1     = stopTime - startTime;
-
-                    State originH1 = validator.testSolution(resultH1);
-                    numExpandedH1  = resultH1.getId();
-                    depthH1        = validator.getDepth();
-
-                    // Validate the solution.
-                    if (!Arrays.deepEquals(initial.getPuzzle(), originH1.getPuzzle()))
-                        System.out.println("Solution invalid.");
+                long[]   hits           = new long[count];
+                long[]   fileHits       = new long[count];
+                long[]   misses         = new long[count];
+                long[]   evictions      = new long[count];
+
+                // For each cache, remember its counts before the set.
+                for (int h = 0; caches != null && h < count; h++) {
+                    hits[h]      = -caches[h].getHits();
+                    fileHits[h]  = -caches[h].getFileHits();
+                    misses[h]    = -caches[h].getMisses();
+                    evictions[h] = -caches[h].getEvictions();
+                }
+                SearchStats.collect();
+                
+                List<State> puzzles = Controller.readPuzzles(puzzleSet, size, number);
 
-                    // Search using H2.
-                    startTime      = System.nanoTime();
-                    State resultH2 = searcher.aStarSearch(initial, "manhattanDist");
-                    stopTime       = System.nanoTime();
-                    execTimeH2     = stopTime - startTime;
+                Solver[] solvers = new Solver[count];
+
+                // For each heuristic, pick the solver its tasks share.
+                for (int h = 0; h < count; h++) {
+                    solvers[h] = size > Board.MAX_SIZE ? wide 
+                               : caches == null ? solver 
+                               : caches[h];
+                }
+                SearchResult[][] results = Controller.solvePuzzles(pool, puzzles, 
+                                                   Arrays.copyOf(HEURISTICS, count), solvers);
 
-                    State originH2 = validator.testSolution(resultH2);
-                    numExpandedH2  = resultH2.getId();
-                    depthH2        = validator.getDepth();
+                System.out.println("");
+
+                // Add to the aggregate statistics, in puzzle order.
+                for (int h = 0; h < count; h++) {
+                    expandedStats[h] = new LatencyHistogram();
+                    execTimeStats[h] = new LatencyHistogram();
+
+                    // For each puzzle of the set, counting no moves for the unsolved ones.
+                    for (int p = 0; p < puzzles.size(); p++) {
+                        expandedStats[h].record(results[h][p].getExpanded());
+                        execTimeStats[h].record(results[h][p].getElapsedTime());
+                        depthSum[h] += Math.max(results[h][p].getCost(), 0);
+                    }
+                }
+
+                // Compute average statistics.
+                for (int h = 0; h < count; h++) {
+                    avgDepth[h] = depthSum[h] / (double) puzzles.size();
+                }
+
+                writer.writeLogFile(seed, size, swaps, number, 
+                        size > Board.MAX_SIZE ? "wideIdaStar" : SOLVER, 
+                        Arrays.copyOf(HEURISTIC_NAMES, count), Arrays.copyOf(HEURISTICS, count), 
+                        avgDepth, expandedStats, execTimeStats);
+
+                // Check if the cache counts of the set have to be logged.
+                if (caches != null && size <= Board.MAX_SIZE) {
+
+                    // For each cache, find its counts during the set.
+                    for (int h = 0; h < count; h++) {
+                        hits[h]      += caches[h].getHits();
+                        fileHits[h]  += caches[h].getFileHits();
+                        misses[h]    += caches[h].getMisses();
+                        evictions[h] += caches[h].getEvictions();
+                        caches[h].flush();
+                    }
+                    writer.writeCacheLog(HEURISTIC_NAMES, hits, fileHits, misses, evictions);
+                }
+                SearchStats stats = SearchStats.collect();
 
-                    // Validate the solution.
-                    if (!Arrays.deepEquals(initial.getPuzzle(), originH2.getPuzzle()))
+                // Check if the searches of the set were instrumented.
+                if (SearchStats.COUNTERS && stats.getSearches() > 0) {
+                    writer.writeStatsLog(stats);
+                }
+            }
+        }
+        pool.shutdown();
+
+        // Check if the solver keeps worker threads of its own.
+        if (solver instanceof HdaSearcher) {
+            ((HdaSearcher) solver).close();
+        }
+    }
+
+    /**
+     * Solves each puzzle with each heuristic, every search being a separate 
+     * task of the pool. The tasks of a heuristic share its solver, and the 
+     * results are stored by heuristic and puzzle, so they do not depend on 
+     * the order in which the tasks finish. Each solution is validated, and 
+     * a "#" is printed once every heuristic is done with a puzzle.
+     * 
+     * @param  pool       to run the tasks in.
+     * @param  puzzles    initial states to solve.
+     * @param  heuristics heuristic types to solve each puzzle with.
+     * @param  solvers    solver of each heuristic.
+     * @return result of each heuristic and puzzle.
+     */
+    public static SearchResult[][] solvePuzzles(ForkJoinPool pool, List<State> puzzles, 
+                                                String[] heuristics, Solver[] solvers) {
+        SearchResult[][]     results   = new SearchResult[heuristics.length][puzzles.size()];
+        AtomicIntegerArray   remaining = new AtomicIntegerArray(puzzles.size());
+        List<Callable<Void>> tasks     = new ArrayList<Callable<Void>>();
+
+        // Create a task for each puzzle and heuristic.
+        for (int p = 0; p < puzzles.size(); p++) {
+            State initial = puzzles.get(p);
+            int   puzzle  = p;
+
+            remaining.set(p, heuristics.length);
+
+            // Search using each heuristic.
+            for (int h = 0; h < heuristics.length; h++) {
+                int heuristic = h;
+
+                tasks.add(() -> {
+                    SearchResult result = solvers[heuristic].solve(initial, 
+                                                                   heuristics[heuristic]);
+
+                    // Check if the goal was reached before validating the solution.
+                    if (!result.isSolved()) {
+                        System.out.println("Puzzle unsolved.");
+                    } else if (!initial.equals(new Validator().testSolution(result.getState()))) {
                         System.out.println("Solution invalid.");
+                    }
+                    results[heuristic][puzzle] = result;
+
+                    // Mark the puzzle solved once every heuristic is done.
+                    if (remaining.decrementAndGet(puzzle) == 0)
+                        System.out.print("#");
+                    return null;
+                });
+            }
+        }
+        Controller.runTasks(pool, tasks);
+        return results;
+    }
 
-                    System.out.print("#");
-                    
-                    // Add to the aggregate statistics.
-                    numExpandedSumH1 += numExpandedH1;
-                    numExpandedSumH2 += numExpandedH2;
-                    depthSumH1       += depthH1;
-                    depthSumH2       += depthH2;
-                    execTimeSumH1    += execTimeH1;
-                    execTimeSumH2    += execTimeH2;
+    /**
+     * Reads the initial states of a puzzle set file, streaming the packed 
+     * puzzles from a PuzzleSetReader, or from a BinaryPuzzleSet if the 
+     * file name ends with ".bin".
+     * 
+     * @param  puzzleSet file to read.
+     * @param  size      of the puzzles.
+     * @param  number    of puzzles expected in the file.
+     * @return initial state of each puzzle, in file order.
+     */
+    private static List<State> readPuzzles(File puzzleSet, int size, int number) {
+        List<State> states = new ArrayList<State>(number);
+
+        // Check if the puzzle set is binary.
+        if (puzzleSet.getName().endsWith(".bin")) {
+            try {
+                BinaryPuzzleSet set = new BinaryPuzzleSet(puzzleSet);
+
+                // For each puzzle of the file, create its state.
+                for (int i = 0; i < set.getCount(); i++) {
+                    states.add(set.makeState(i));
                 }
+            } catch (IOException ioe) {
+                throw new IllegalStateException("Error reading file \"" + puzzleSet + "\"", ioe);
+            }
+            return states;
+        }
 
-                System.out.println("");
+        try (PuzzleSetReader reader = new PuzzleSetReader(puzzleSet, size)) {
 
-                // Compute average statistics.
-                averageExpandedH1 = numExpandedSumH1 / (double) puzzles.length;
-                averageExpandedH2 = numExpandedSumH2 / (double) puzzles.length;
-                averageDepthH1    = depthSumH1       / (double) puzzles.length;
-                averageDepthH2    = depthSumH2       / (double) puzzles.length;
-                avgExecTimeH1     = execTimeSumH1    / (double) puzzles.length / 1000000.0;
-                avgExecTimeH2     = execTimeSumH2    / (double) puzzles.length / 1000000.0;
-
-                writer.writeLogFile(seed, size, swaps, number, averageExpandedH1, 
-                        averageDepthH1, avgExecTimeH1,  averageExpandedH2, 
-                        averageDepthH2, avgExecTimeH2);
+            // For each puzzle of the file, create its state.
+            while (reader.next()) {
+                states.add(reader.makeState());
+            }
+        } catch (IOException ioe) {
+            throw new IllegalStateException("Error reading file \"" + puzzleSet + "\"", ioe);
+        }
+        return states;
+    }
+
+    /**
+     * Creates a cache of solutions for each heuristic, if the "cache" system 
+     * property gives their capacity.
+     * 
+     * @param  solver to solve the puzzles missing from the caches.
+     * @return cache of each heuristic, or null if caching is off.
+     */
+    private static CachingSolver[] makeCaches(Solver solver) {
+
+        // Check if caching is off.
+        if (CACHE_SIZE <= 0) {
+            return null;
+        }
+        CachingSolver[] caches = new CachingSolver[HEURISTICS.length];
+
+        // For each heuristic, create its cache.
+        for (int h = 0; h < HEURISTICS.length; h++) {
+            SolutionFile file = null;
+
+            // Check if the solutions are also kept on the disk.
+            if (CACHE_FILES) {
+                File path = new File("data/cache/" + SOLVER + "-" + HEURISTICS[h] + ".bin");
+
+                try {
+                    file = new SolutionFile(path, CACHE_SLOTS);
+                } catch (IOException ioe) {
+                    throw new IllegalStateException("Error opening file \"" + path + "\"", ioe);
+                }
+            }
+            caches[h] = new CachingSolver(solver, CACHE_SIZE, file);
+        }
+        return caches;
+    }
+
+    /**
+     * Creates the solver of the given name: "aStar" for the A* Searcher, 
+     * "aStarBatch" for a Searcher expanding a few states per core together, 
+     * "bidirectional" for the BidirectionalSearcher, "idaStar" for the 
+     * IdaSearcher, "hda" for the HdaSearcher, which spreads each search 
+     * over a thread per core, "oracle" for the OracleSolver, which looks 
+     * the 3-puzzles and 8-puzzles up and searches the rest with A*, 
+     * "sma" for the memory-bounded SmaSearcher, holding at most nodeBudget 
+     * states per search, or as many as fit in byteBudget bytes if it is set, 
+     * or "external" for the ExternalSearcher, keeping its states in files 
+     * of the externalDir folder and sorting externalMemory records at once.
+     * 
+     * @param  name of the solver.
+     * @return the solver.
+     */
+    private static Solver makeSolver(String name) {
+
+        // Check and create respective solver.
+        if (name.equals("aStar")) {
+            return new Searcher();
+        } else if (name.equals("aStarBatch")) {
+            return new Searcher(4 * THREADS);
+        } else if (name.equals("bidirectional")) {
+            return new BidirectionalSearcher();
+        } else if (name.equals("idaStar")) {
+            return new IdaSearcher();
+        } else if (name.equals("hda")) {
+            return new HdaSearcher();
+        } else if (name.equals("oracle")) {
+            return new OracleSolver(new Searcher());
+        } else if (name.equals("sma")) {
+            return new SmaSearcher(BYTE_BUDGET > 0 ? SmaSearcher.budgetOf(BYTE_BUDGET) 
+                                                   : NODE_BUDGET);
+        } else if (name.equals("external")) {
+            return new ExternalSearcher(new File(EXTERNAL_DIR), EXTERNAL_MEMORY);
+        }
+        throw new IllegalArgumentException("Unknown solver " + name);
+    }
+
+    /**
+     * Runs the tasks in the pool and waits for all of them to finish.
+     * 
+     * @param pool  to run the tasks in.
+     * @param tasks to run.
+     */
+    private static void runTasks(ForkJoinPool pool, List<Callable<Void>> tasks) {
+
+        // For each finished task, check that it did not fail.
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Search interrupted", ie);
+            } catch (ExecutionException ee) {
+                throw new IllegalStateException("Search failed", ee.getCause());
             }
         }
     }
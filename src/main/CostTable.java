@@ -0,0 +1,216 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * This class implements a table from packed puzzles to int values, used by
+ * the searching algorithms to remember the cheapest known path cost of each
+ * generated state. Like the ClosedSet, it keeps long keys and int values in
+ * parallel open-addressing arrays with linear probing, so nothing is boxed.
+ * The get() method returns the value of a key, put() stores one,
+ * putIfLower() stores one only if it is lower than the stored value in a
+ * single probe, and clear() empties the table while keeping its capacity.
+ *
+ * @author  Maksym Turkot
+ * @version 10/12/22
+ */
+public class CostTable {
+    public  static final int MISSING = -1;
+
+    private static final int   DEFAULT_CAPACITY    = 1024;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    private long[]  keys;
+    private int[]   values;
+    private int     zeroValue;
+    private int     size;
+    private int     mask;
+    private int     threshold;
+    private float   loadFactor;
+
+    /**
+     * Constructor method.
+     */
+    public CostTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor method.
+     *
+     * @param capacity   expected number of keys.
+     * @param loadFactor fraction of the table filled before it is resized.
+     */
+    public CostTable(int capacity, float loadFactor) {
+
+        // Check if the load factor leaves empty slots for probing.
+        if (loadFactor <= 0.0f || loadFactor >= 1.0f) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1)");
+        }
+        int tableSize = Integer.highestOneBit(Math.max(2, (int) (capacity / loadFactor)) - 1) << 1;
+
+        this.keys       = new long[tableSize];
+        this.values     = new int[tableSize];
+        this.zeroValue  = MISSING;
+        this.size       = 0;
+        this.mask       = tableSize - 1;
+        this.loadFactor = loadFactor;
+        this.threshold  = (int) (tableSize * loadFactor);
+    }
+
+    /**
+     * Getter for the number of keys in the table.
+     *
+     * @return number of keys in the table.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Looks up the value stored for the key.
+     *
+     * @param  key packed state to look up.
+     * @return the stored value, or MISSING if there is none.
+     */
+    public int get(long key) {
+
+        // Zero marks empty slots, so it is tracked separately.
+        if (key == 0L) {
+            return this.zeroValue;
+        }
+        int slot = ClosedSet.hash(key) & this.mask;
+
+        // Probe until the key or an empty slot is found.
+        while (this.keys[slot] != 0L) {
+
+            // Check if the slot holds the key.
+            if (this.keys[slot] == key) {
+                return this.values[slot];
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * Stores the value for the key, replacing the previous one.
+     *
+     * @param key   packed state to store the value for.
+     * @param value to store, not negative.
+     */
+    public void put(long key, int value) {
+
+        // Zero marks empty slots, so it is tracked separately.
+        if (key == 0L) {
+            this.size     += this.zeroValue == MISSING ? 1 : 0;
+            this.zeroValue = value;
+            return;
+        }
+        int slot = ClosedSet.hash(key) & this.mask;
+
+        // Probe until the key or an empty slot is found.
+        while (this.keys[slot] != 0L) {
+
+            // Check if the slot holds the key.
+            if (this.keys[slot] == key) {
+                this.values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.keys[slot]   = key;
+        this.values[slot] = value;
+
+        // Check if the table has to grow.
+        if (++this.size > this.threshold) {
+            this.resize();
+        }
+    }
+
+    /**
+     * Stores the value for the key if the key is missing or holds a higher
+     * value, probing the table only once.
+     *
+     * @param  key   packed state to store the value for.
+     * @param  value to store, not negative.
+     * @return the value stored before, or MISSING if there was none.
+     */
+    public int putIfLower(long key, int value) {
+
+        // Zero marks empty slots, so it is tracked separately.
+        if (key == 0L) {
+            int previous = this.zeroValue;
+
+            // Check if the value is lower than the stored one.
+            if (previous == MISSING || value < previous) {
+                this.size     += previous == MISSING ? 1 : 0;
+                this.zeroValue = value;
+            }
+            return previous;
+        }
+        int slot = ClosedSet.hash(key) & this.mask;
+
+        // Probe until the key or an empty slot is found.
+        while (this.keys[slot] != 0L) {
+
+            // Check if the slot holds the key.
+            if (this.keys[slot] == key) {
+                int previous = this.values[slot];
+
+                // Check if the value is lower than the stored one.
+                if (value < previous) {
+                    this.values[slot] = value;
+                }
+                return previous;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.keys[slot]   = key;
+        this.values[slot] = value;
+
+        // Check if the table has to grow.
+        if (++this.size > this.threshold) {
+            this.resize();
+        }
+        return MISSING;
+    }
+
+    /**
+     * Removes all keys from the table, keeping the allocated arrays.
+     */
+    public void clear() {
+        Arrays.fill(this.keys, 0L);
+        this.zeroValue = MISSING;
+        this.size      = 0;
+    }
+
+    /**
+     * Doubles the table and reinserts every stored key.
+     */
+    private void resize() {
+        long[] oldKeys   = this.keys;
+        int[]  oldValues = this.values;
+
+        this.keys      = new long[oldKeys.length << 1];
+        this.values    = new int[oldKeys.length << 1];
+        this.mask      = this.keys.length - 1;
+        this.threshold = (int) (this.keys.length * this.loadFactor);
+
+        // For each occupied slot of the old table, reinsert the key.
+        for (int i = 0; i < oldKeys.length; i++) {
+
+            // Check if the slot is occupied.
+            if (oldKeys[i] != 0L) {
+                int slot = ClosedSet.hash(oldKeys[i]) & this.mask;
+
+                // Probe until an empty slot is found.
+                while (this.keys[slot] != 0L) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot]   = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,767 @@
+package main;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class searches the puzzle states for the goal state using external-
+ * memory A*, keeping the frontier and the expanded states in files instead
+ * of memory, so the number of states searched is bounded by the disk rather
+ * than the heap. States are grouped into buckets by their path cost g and
+ * heuristic h, and each bucket keeps an open file, to which the children
+ * generated into it are appended as they come, and a closed file holding
+ * its expanded states, sorted. The solve() method expands the bucket of the
+ * smallest evaluation function, the smallest path cost among equal ones.
+ * Duplicates are only removed then: the open file is sorted in runs of at
+ * most the given number of records, which are merged dropping copies of a
+ * puzzle, and the states found in the closed files of the buckets (g, h),
+ * (g - 1, h) and (g - 2, h), the only places an earlier copy can be with a
+ * consistent heuristic, are dropped in a single merging pass. Every file is
+ * read and written sequentially, through a RecordReader or RecordWriter.
+ * Each record is a packed puzzle shifted up by four bits, its last tile
+ * being implied, with the position the empty tile came from below, so once
+ * the goal state is found the path is rebuilt by stepping back one move at
+ * a time and looking the previous state up in the sorted closed files. The
+ * files of a search are kept in a folder of their own, deleted at the end.
+ * Like Searcher, only puzzles that fit into a long can be searched.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class ExternalSearcher implements Solver {
+    private Heuristic           heuristicFinder;
+    private File                directory;
+    private int                 memory;
+    private ThreadLocal<long[]> chunks;
+
+    /**
+     * Constructor method.
+     *
+     * @param directory to keep the files of the searches in.
+     * @param memory    largest number of records sorted in memory at once.
+     */
+    public ExternalSearcher(File directory, int memory) {
+
+        // Check if there is room for records to sort.
+        if (memory < 2) {
+            throw new IllegalArgumentException("Sort memory must be at least 2, got " + memory);
+        }
+        this.heuristicFinder = new Heuristic();
+        this.directory       = directory;
+        this.memory          = memory;
+        this.chunks          = ThreadLocal.withInitial(() -> new long[memory]);
+    }
+
+    /**
+     * Getter for the number of records sorted in memory at once.
+     *
+     * @return sort memory in records.
+     */
+    public int getMemory() {
+        return this.memory;
+    }
+
+    /**
+     * Runs the search in a new folder of the directory, deleting it at the
+     * end. The peak frontier of the result is the largest number of records
+     * waiting in open files.
+     *
+     * @param  initial     initial state to search.
+     * @param  heuristicTp heuristic type to use.
+     * @return the result of the search.
+     * @throws UncheckedIOException if the files can not be written or read.
+     */
+    @Override
+    public SearchResult solve(State initial, String heuristicTp) {
+        long startTime = System.nanoTime();
+        Path folder    = null;
+
+        try {
+            this.directory.mkdirs();
+            folder = Files.createTempDirectory(this.directory.toPath(), "search");
+
+            Search search   = new Search(folder, initial, heuristicTp);
+            State  solution = search.run(initial);
+
+            return new SearchResult(solution, search.expanded, search.generated,
+                                    search.peakFrontier, System.nanoTime() - startTime);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        } finally {
+            ExternalSearcher.delete(folder);
+        }
+    }
+
+    /**
+     * Packs a puzzle and the position the empty tile came from into a
+     * record.
+     *
+     * @param  board    packed puzzle.
+     * @param  previous position of the empty tile before the last move, or
+     *                  its own position for the initial state.
+     * @return the record.
+     */
+    static long pack(long board, int previous) {
+        return board << 4 | previous;
+    }
+
+    /**
+     * Unpacks the puzzle of a record, restoring its last tile if the puzzle
+     * fills the whole long.
+     *
+     * @param  record packed puzzle and previous position.
+     * @param  size   of the puzzle.
+     * @return the packed puzzle.
+     */
+    static long unpack(long record, int size) {
+        long board = record >>> 4;
+
+        // Check if the last tile was shifted out.
+        if (size == Board.MAX_SIZE) {
+            int tiles = size * size;
+            int last  = tiles * (tiles - 1) / 2;
+
+            // For each position but the last, take its tile from the total.
+            for (int pos = 0; pos < tiles - 1; pos++) {
+                last -= Board.tileAt(board, pos);
+            }
+            board |= (long) last << ((tiles - 1) << 2);
+        }
+        return board;
+    }
+
+    /**
+     * Finds the key records are sorted and compared by, which is the same
+     * for all records of a puzzle.
+     *
+     * @param  record packed puzzle and previous position.
+     * @return the key of the puzzle.
+     */
+    private static long key(long record) {
+        return record >> 4;
+    }
+
+    /**
+     * Deletes a folder and the files in it.
+     *
+     * @param  folder to delete, or null for none.
+     * @throws UncheckedIOException if a file can not be deleted.
+     */
+    private static void delete(Path folder) {
+
+        // Check if there is a folder to delete.
+        if (folder == null) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.walk(folder)) {
+            List<Path> paths = files.sorted(Comparator.reverseOrder())
+                                    .collect(Collectors.toList());
+
+            // For each file, with the folder last.
+            for (Path file : paths) {
+                Files.delete(file);
+            }
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /**
+     * Holds the states of a bucket: those waiting in its open file, and
+     * those already expanded in its closed file.
+     *
+     * @author  Maksym Turkot
+     * @version 10/17/22
+     */
+    private static class Bucket {
+        private int          pathCost;
+        private int          heuristic;
+        private Path         open;
+        private RecordWriter writer;
+        private long         waiting;
+        private Path         closed;
+
+        /**
+         * Constructor method.
+         *
+         * @param pathCost  of the states of the bucket.
+         * @param heuristic of the states of the bucket.
+         */
+        Bucket(int pathCost, int heuristic) {
+            this.pathCost  = pathCost;
+            this.heuristic = heuristic;
+        }
+    }
+
+    /**
+     * Holds the buckets, files and counters of a single search.
+     *
+     * @author  Maksym Turkot
+     * @version 10/17/22
+     */
+    private class Search {
+        private Path              folder;
+        private String            heuristicTp;
+        private long              goal;
+        private int               size;
+        private int[][]           neighbors;
+        private long[]            chunk;
+        private Map<Long, Bucket> buckets;
+        private int               files;
+        private long              waiting;
+        private long              expanded;
+        private long              generated;
+        private long              peakFrontier;
+
+        /**
+         * Constructor method.
+         *
+         * @param folder      to keep the files of the search in.
+         * @param initial     initial state to search.
+         * @param heuristicTp heuristic type to use.
+         */
+        Search(Path folder, State initial, String heuristicTp) {
+            this.folder      = folder;
+            this.heuristicTp = heuristicTp;
+            this.size        = initial.getSize();
+            this.goal        = Searcher.setGoal(this.size);
+            this.neighbors   = Board.neighbors(this.size);
+            this.chunk       = chunks.get();
+            this.buckets     = new HashMap<Long, Bucket>();
+        }
+
+        /**
+         * Expands buckets until the goal state is found. The open files
+         * still being written are closed however the search ends, so that
+         * the folder can be deleted.
+         *
+         * @param  initial initial state to search.
+         * @return the goal state linked to its parents, or null if the goal
+         *         can not be reached.
+         * @throws IOException if the files can not be written or read.
+         */
+        private State run(State initial) throws IOException {
+            try {
+                int heuristic = heuristicFinder.findHeuristic(initial, this.heuristicTp);
+
+                this.add(0, heuristic,
+                         ExternalSearcher.pack(initial.getBoard(), initial.getBlank()));
+
+                // Expand the best bucket until the goal state is found.
+                while (true) {
+                    Bucket bucket = this.findBest();
+
+                    // Check if every state was expanded.
+                    if (bucket == null) {
+                        return null;
+                    }
+                    int previous = this.expand(bucket);
+
+                    // Check if the goal state was found in the bucket.
+                    if (previous >= 0) {
+                        return this.makeSolution(initial, bucket.pathCost, previous);
+                    }
+                }
+            } finally {
+                this.closeWriters();
+            }
+        }
+
+        /**
+         * Closes the open file of every bucket still being written, going on
+         * to the next ones if one fails.
+         *
+         * @throws IOException if a file can not be written.
+         */
+        private void closeWriters() throws IOException {
+            IOException error = null;
+
+            // For each bucket, close its open file if it is being written.
+            for (Bucket bucket : this.buckets.values()) {
+
+                // Check if the open file of the bucket is being written.
+                if (bucket.writer != null) {
+                    try {
+                        bucket.writer.close();
+                    } catch (IOException ioe) {
+                        error = error == null ? ioe : error;
+                    }
+                    bucket.writer = null;
+                }
+            }
+
+            // Check if a file could not be closed.
+            if (error != null) {
+                throw error;
+            }
+        }
+
+        /**
+         * Appends a record to the open file of its bucket.
+         *
+         * @param  pathCost  of the state.
+         * @param  heuristic of the state.
+         * @param  record    of the state.
+         * @throws IOException if the file can not be written.
+         */
+        private void add(int pathCost, int heuristic, long record) throws IOException {
+            long   id     = (long) pathCost << 32 | heuristic;
+            Bucket bucket = this.buckets.get(id);
+
+            // Check if the bucket is new.
+            if (bucket == null) {
+                bucket = new Bucket(pathCost, heuristic);
+                this.buckets.put(id, bucket);
+            }
+
+            // Check if the open file of the bucket has to be started.
+            if (bucket.writer == null) {
+                bucket.open   = this.makePath("open");
+                bucket.writer = new RecordWriter(bucket.open);
+            }
+            bucket.writer.add(record);
+            bucket.waiting++;
+            this.waiting++;
+            this.peakFrontier = Math.max(this.peakFrontier, this.waiting);
+        }
+
+        /**
+         * Finds the bucket of waiting states with the smallest evaluation
+         * function, the smallest path cost among equal ones.
+         *
+         * @return the best bucket, or null if no state is waiting.
+         */
+        private Bucket findBest() {
+            Bucket best = null;
+
+            // For each bucket of waiting states, compare it with the best one.
+            for (Bucket bucket : this.buckets.values()) {
+                int evalFunc = bucket.pathCost + bucket.heuristic;
+
+                // Check if the bucket comes before the best one.
+                if (bucket.waiting > 0 && (best == null
+                        || evalFunc < best.pathCost + best.heuristic
+                        || (evalFunc == best.pathCost + best.heuristic
+                            && bucket.pathCost < best.pathCost))) {
+                    best = bucket;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Sorts the open file of a bucket, drops the duplicates, and expands
+         * the states left into the buckets of the next path cost, unless the
+         * goal state is among them. The expanded states are then merged into
+         * the closed file of the bucket.
+         *
+         * @param  bucket to expand.
+         * @return the position the empty tile of the goal state came from,
+         *         or -1 if the goal state is not in the bucket.
+         * @throws IOException if the files can not be written or read.
+         */
+        private int expand(Bucket bucket) throws IOException {
+            bucket.writer.close();
+            bucket.writer  = null;
+            this.waiting  -= bucket.waiting;
+            bucket.waiting = 0;
+
+            Path fresh = this.subtract(this.sort(bucket.open), bucket);
+
+            try (RecordReader reader = new RecordReader(fresh)) {
+
+                // For each new state of the bucket.
+                while (reader.next()) {
+                    long board    = ExternalSearcher.unpack(reader.get(), this.size);
+                    int  previous = (int) (reader.get() & 0xF);
+
+                    // Check if current state is the goal state.
+                    if (board == this.goal) {
+                        return previous;
+                    }
+                    this.expandState(board, previous, bucket);
+                }
+            }
+
+            // Check if the bucket was expanded before.
+            if (bucket.closed == null) {
+                bucket.closed = fresh;
+            } else {
+                List<Path> sorted = new ArrayList<Path>();
+
+                sorted.add(bucket.closed);
+                sorted.add(fresh);
+                bucket.closed = this.merge(sorted);
+            }
+            return -1;
+        }
+
+        /**
+         * Appends the children of a state to the open files of their
+         * buckets, skipping the one undoing the last move.
+         *
+         * @param  board    packed puzzle of the state.
+         * @param  previous position of the empty tile before the last move.
+         * @param  bucket   of the state.
+         * @throws IOException if the files can not be written.
+         */
+        private void expandState(long board, int previous, Bucket bucket) throws IOException {
+            int blank = Board.findBlank(board, this.size);
+
+            this.expanded++;
+
+            // For each tile that can be moved into the empty space.
+            for (int target : this.neighbors[blank]) {
+
+                // Skip the move that undoes the last one.
+                if (target == previous) {
+                    continue;
+                }
+                long child          = Board.move(board, blank, target);
+                int  childHeuristic = heuristicFinder.updateHeuristic(child, this.size,
+                        bucket.heuristic, target, blank, this.heuristicTp);
+
+                this.add(bucket.pathCost + 1, childHeuristic, ExternalSearcher.pack(child, blank));
+                this.generated++;
+            }
+        }
+
+        /**
+         * Sorts a file in runs of at most the sort memory, dropping copies of
+         * a puzzle, and merges the runs. The file is deleted.
+         *
+         * @param  file to sort.
+         * @return the sorted file.
+         * @throws IOException if the files can not be written or read.
+         */
+        private Path sort(Path file) throws IOException {
+            List<Path> runs = new ArrayList<Path>();
+
+            try (RecordReader reader = new RecordReader(file)) {
+                boolean more = reader.next();
+
+                // For each run of the file.
+                while (more) {
+                    int  count = 0;
+                    Path run   = this.makePath("run");
+
+                    // Fill the memory with the records of the run.
+                    while (more && count < this.chunk.length) {
+                        this.chunk[count++] = reader.get();
+                        more                = reader.next();
+                    }
+                    Arrays.sort(this.chunk, 0, count);
+
+                    try (RecordWriter writer = new RecordWriter(run)) {
+
+                        // For each record of the run, keeping the first of each puzzle.
+                        for (int i = 0; i < count; i++) {
+
+                            // Check if the record holds a new puzzle.
+                            if (i == 0 || key(this.chunk[i]) != key(this.chunk[i - 1])) {
+                                writer.add(this.chunk[i]);
+                            }
+                        }
+                    }
+                    runs.add(run);
+                }
+            }
+            Files.delete(file);
+
+            // Check if the file fit into a single run.
+            if (runs.size() == 1) {
+                return runs.get(0);
+            }
+            return this.merge(runs);
+        }
+
+        /**
+         * Merges sorted files into a single one, keeping the first record of
+         * each puzzle. The files are deleted.
+         *
+         * @param  sorted files to merge.
+         * @return the merged file.
+         * @throws IOException if the files can not be written or read.
+         */
+        private Path merge(List<Path> sorted) throws IOException {
+            Path           target  = this.makePath("merged");
+            RecordReader[] readers = new RecordReader[sorted.size()];
+            boolean[]      live    = new boolean[sorted.size()];
+
+            try (RecordWriter writer = new RecordWriter(target)) {
+                boolean first = true;
+                long    last  = 0;
+
+                // For each file, read its first record.
+                for (int i = 0; i < readers.length; i++) {
+                    readers[i] = new RecordReader(sorted.get(i));
+                    live[i]    = readers[i].next();
+                }
+
+                // Take the smallest record of the files until all are read.
+                while (true) {
+                    int min = -1;
+
+                    // For each file, compare its record with the smallest one.
+                    for (int i = 0; i < readers.length; i++) {
+
+                        // Check if the record is the smallest one so far.
+                        if (live[i] && (min < 0 || readers[i].get() < readers[min].get())) {
+                            min = i;
+                        }
+                    }
+
+                    // Check if every file was read.
+                    if (min < 0) {
+                        break;
+                    }
+                    long record = readers[min].get();
+
+                    // Check if the record holds a new puzzle.
+                    if (first || key(record) != key(last)) {
+                        writer.add(record);
+                        first = false;
+                        last  = record;
+                    }
+                    live[min] = readers[min].next();
+                }
+            } finally {
+
+                // For each file opened, close it.
+                for (RecordReader reader : readers) {
+
+                    // Check if the file was opened.
+                    if (reader != null) {
+                        reader.close();
+                    }
+                }
+            }
+
+            // For each merged file, delete it.
+            for (Path file : sorted) {
+                Files.delete(file);
+            }
+            return target;
+        }
+
+        /**
+         * Drops the states of a sorted file found in the closed files of the
+         * buckets of the same heuristic and a path cost smaller by up to two.
+         * The sorted file is deleted.
+         *
+         * @param  file   sorted states of the bucket.
+         * @param  bucket the states belong to.
+         * @return a sorted file of the states left.
+         * @throws IOException if the files can not be written or read.
+         */
+        private Path subtract(Path file, Bucket bucket) throws IOException {
+            Path               target = this.makePath("fresh");
+            List<RecordReader> closed = new ArrayList<RecordReader>();
+
+            try (RecordReader reader = new RecordReader(file);
+                 RecordWriter writer = new RecordWriter(target)) {
+
+                // For each earlier bucket a copy of the states can be in.
+                for (int cost = bucket.pathCost; cost >= bucket.pathCost - 2 && cost >= 0; cost--) {
+                    Bucket earlier = this.buckets.get((long) cost << 32 | bucket.heuristic);
+
+                    // Check if the bucket has expanded states.
+                    if (earlier != null && earlier.closed != null) {
+                        closed.add(new RecordReader(earlier.closed));
+                    }
+                }
+                boolean[] live = new boolean[closed.size()];
+
+                // For each closed file, read its first record.
+                for (int i = 0; i < live.length; i++) {
+                    live[i] = closed.get(i).next();
+                }
+
+                // For each state of the bucket.
+                while (reader.next()) {
+                    long    key   = key(reader.get());
+                    boolean found = false;
+
+                    // For each closed file, look for the puzzle.
+                    for (int i = 0; i < live.length; i++) {
+                        RecordReader other = closed.get(i);
+
+                        // Skip the smaller puzzles of the closed file.
+                        while (live[i] && key(other.get()) < key) {
+                            live[i] = other.next();
+                        }
+                        found |= live[i] && key(other.get()) == key;
+                    }
+
+                    // Check if the puzzle is new.
+                    if (!found) {
+                        writer.add(reader.get());
+                    }
+                }
+            } finally {
+
+                // For each closed file opened, close it.
+                for (RecordReader other : closed) {
+                    other.close();
+                }
+            }
+            Files.delete(file);
+
+            return target;
+        }
+
+        /**
+         * Rebuilds the path to the goal state by stepping back one move at a
+         * time, looking up where the empty tile of each state came from, and
+         * replays it from the initial state, linking each new state to its
+         * parent.
+         *
+         * @param  initial  initial state of the search.
+         * @param  depth    path cost of the goal state.
+         * @param  previous position the empty tile of the goal state came from.
+         * @return the goal state.
+         * @throws IOException if the files can not be read.
+         */
+        private State makeSolution(State initial, int depth, int previous) throws IOException {
+            long[] boards = new long[depth + 1];
+            int[]  blanks = new int[depth + 1];
+
+            boards[depth] = this.goal;
+            blanks[depth] = Board.findBlank(this.goal, this.size);
+
+            // For each state of the path from the goal, step back one move.
+            for (int d = depth; d > 0; d--) {
+                boards[d - 1] = Board.move(boards[d], blanks[d], previous);
+                blanks[d - 1] = previous;
+
+                // Check if the previous state has a parent to look up.
+                if (d > 1) {
+                    previous = this.findPrevious(d - 1, boards[d - 1], blanks[d - 1]);
+                }
+            }
+            State curr = initial;
+
+            // For each move of the path, derive the next state.
+            for (int d = 1; d <= depth; d++) {
+                State next = new State(boards[d], blanks[d], this.size, curr);
+
+                next.setPathCost(d);
+                next.updateEvalFunc();
+                curr = next;
+            }
+            return curr;
+        }
+
+        /**
+         * Looks an expanded state up in the closed file of its bucket, or of
+         * any bucket of its path cost if it is not there.
+         *
+         * @param  pathCost of the state.
+         * @param  board    packed puzzle of the state.
+         * @param  blank    position of the empty tile of the state.
+         * @return the position the empty tile of the state came from.
+         * @throws IOException if the files can not be read.
+         */
+        private int findPrevious(int pathCost, long board, int blank) throws IOException {
+            int    heuristic = heuristicFinder.findHeuristic(
+                    new State(board, blank, this.size, null), this.heuristicTp);
+            Bucket bucket    = this.buckets.get((long) pathCost << 32 | heuristic);
+            long   key       = key(ExternalSearcher.pack(board, 0));
+
+            // Check if the bucket of the state holds it.
+            if (bucket != null && bucket.closed != null) {
+                int previous = this.search(bucket.closed, key);
+
+                // Check if the state was found.
+                if (previous >= 0) {
+                    return previous;
+                }
+            }
+
+            // For each bucket of the path cost.
+            for (Bucket other : this.buckets.values()) {
+
+                // Check if the bucket holds expanded states of the path cost.
+                if (other.pathCost == pathCost && other.closed != null) {
+                    int previous = this.search(other.closed, key);
+
+                    // Check if the state was found.
+                    if (previous >= 0) {
+                        return previous;
+                    }
+                }
+            }
+            throw new IllegalStateException("Expanded state missing from the closed files");
+        }
+
+        /**
+         * Binary searches a sorted file for a puzzle.
+         *
+         * @param  file sorted file to search.
+         * @param  key  of the puzzle.
+         * @return the position the empty tile of the puzzle came from, or -1
+         *         if the puzzle is not in the file.
+         * @throws IOException if the file can not be read.
+         */
+        private int search(Path file, long key) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+                long       low    = 0;
+                long       high   = channel.size() / Long.BYTES - 1;
+
+                // Halve the range until the puzzle is found.
+                while (low <= high) {
+                    long mid = (low + high) >>> 1;
+
+                    buffer.clear();
+
+                    // Read until the whole record is in.
+                    while (buffer.hasRemaining()) {
+
+                        // Check if the file ended.
+                        if (channel.read(buffer, mid * Long.BYTES + buffer.position()) < 0) {
+                            throw new EOFException("Truncated record in \"" + file + "\"");
+                        }
+                    }
+                    long record = buffer.getLong(0);
+
+                    // Check which half the puzzle is in.
+                    if (key(record) < key) {
+                        low = mid + 1;
+                    } else if (key(record) > key) {
+                        high = mid - 1;
+                    } else {
+                        return (int) (record & 0xF);
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Names a new file of the search.
+         *
+         * @param  prefix of the file name.
+         * @return path of the file.
+         */
+        private Path makePath(String prefix) {
+            return this.folder.resolve(prefix + "-" + this.files++ + ".bin");
+        }
+    }
+}
@@ -0,0 +1,592 @@
+package main;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class searches the puzzle states with hash distributed A*, spreading
+ * a single search over several threads. Every puzzle is owned by one Worker,
+ * picked by hashing the packed puzzle with findOwner(), and only its owner
+ * keeps it in a NodeStore, frontier and table of cheapest states. A worker
+ * expands the best state of its own frontier and sends each child to the
+ * owner of its puzzle in batches through a lock-free queue, so the workers
+ * never wait on each other. States refer to their parents by the index
+ * within the owning worker and the owner, which makeSolution() follows back
+ * across the workers once the search ends. The workers run on a pool of
+ * daemon threads kept by the searcher and shared by all of its searches,
+ * which close() shuts down, and a worker with nothing to do parks until a
+ * batch arrives or the search ends.
+ *
+ * The cheapest solution found so far is shared by all workers, and states
+ * whose evaluation function reaches its cost are not expanded. The search
+ * ends when every worker is idle, with nothing left under the incumbent
+ * cost, and no batch is on its way. To tell that apart from a batch sent
+ * just as its sender went idle, every send also bumps an epoch counter, and
+ * a worker only ends the search if the epoch did not change while it looked
+ * at the counts.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class HdaSearcher implements Solver, AutoCloseable {
+    private static final int  BATCH_SIZE  = 64;
+    private static final int  RECORD_SIZE = 3;
+    private static final int  MAX_WORKERS = 256; // Owners are stored in a byte.
+    private static final long NO_SOLUTION = Long.MAX_VALUE;
+
+    private Heuristic       heuristicFinder;
+    private int             workers;
+    private ExecutorService pool;
+
+    /**
+     * Constructor method, using a worker per core.
+     */
+    public HdaSearcher() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor method.
+     *
+     * @param workers number of threads searching together.
+     */
+    public HdaSearcher(int workers) {
+
+        AtomicInteger count = new AtomicInteger(0);
+
+        // Check if there is anyone to search, and not too many.
+        if (workers < 1 || workers > MAX_WORKERS) {
+            throw new IllegalArgumentException("Needs 1 to " + MAX_WORKERS + " workers, got "
+                                               + workers);
+        }
+        this.heuristicFinder = new Heuristic();
+        this.workers         = workers;
+        this.pool            = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "hda-worker-" + count.getAndIncrement());
+
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs each worker on the pool, hands the initial state to its owner,
+     * and waits for the workers to agree that the search is over. The peak
+     * frontier of the result is the largest one any single worker held.
+     * The workers peak at different times, so their sum would overstate the
+     * states held at once, while the largest one understates it by at most
+     * a factor of the number of workers. If the calling thread is
+     * interrupted, the search is ended and no solution is returned, since
+     * the incumbent is not known to be the cheapest, but the workers are
+     * still waited for, so that none is left running, and the interrupt is
+     * kept set.
+     *
+     * @param  initial     initial state to search.
+     * @param  heuristicTp heuristic type to use.
+     * @return the result of the search.
+     */
+    @Override
+    public SearchResult solve(State initial, String heuristicTp) {
+        long        startTime   = System.nanoTime();
+        Search      search      = new Search(initial, heuristicTp);
+        Future<?>[] futures     = new Future<?>[this.workers];
+        boolean     interrupted = false;
+
+        search.workers[HdaSearcher.findOwner(initial.getBoard(), this.workers)].receive(
+                initial.getBoard(), -1L, HdaSearcher.packStep(0,
+                heuristicFinder.findHeuristic(initial, heuristicTp), initial.getBlank()));
+
+        // For each worker, run it on the pool.
+        for (int w = 0; w < this.workers; w++) {
+            futures[w] = this.pool.submit(search.workers[w]);
+        }
+
+        // For each worker, wait for it to end.
+        for (Future<?> future : futures) {
+            boolean ended = false;
+
+            // Wait again if interrupted, once the search was told to end.
+            while (!ended) {
+                try {
+                    future.get();
+                    ended = true;
+                } catch (InterruptedException ie) {
+                    interrupted = true;
+                    search.end();
+                } catch (ExecutionException ee) {
+                    throw new IllegalStateException("Worker failed", ee.getCause());
+                }
+            }
+        }
+
+        // Check if the wait was interrupted, keeping the interrupt for the caller.
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        long expanded     = 0;
+        long generated    = 0;
+        long peakFrontier = 0;
+
+        // For each worker, add up its statistics.
+        for (Worker worker : search.workers) {
+
+            // Check if the worker failed.
+            if (worker.failure != null) {
+                throw new IllegalStateException("Worker failed", worker.failure);
+            }
+            expanded     += worker.expanded;
+            generated    += worker.generated;
+            peakFrontier  = Math.max(peakFrontier, worker.peakFrontier);
+        }
+        State solution = interrupted || search.solution.get() == NO_SOLUTION ? null
+                         : search.makeSolution();
+
+        return new SearchResult(solution, expanded, generated, peakFrontier,
+                                System.nanoTime() - startTime);
+    }
+
+    /**
+     * Shuts the pool of worker threads down once the searches running are
+     * over. The searcher can not be used afterwards.
+     */
+    @Override
+    public void close() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Picks the worker owning a puzzle. The packed puzzle is mixed by a
+     * multiplicative hash different from the one of the tables, so that the
+     * puzzles of a worker still spread over its whole table.
+     *
+     * @param  board   packed puzzle.
+     * @param  workers number of workers.
+     * @return index of the owning worker.
+     */
+    public static int findOwner(long board, int workers) {
+        return (int) (((board * 0x9E3779B97F4A7C15L) >>> 32) % workers);
+    }
+
+    /**
+     * Packs the path cost, heuristic value and empty tile position of a
+     * state into the third long of its record.
+     *
+     * @param  pathCost  cost of the path to the state.
+     * @param  heuristic heuristic value of the state.
+     * @param  blank     position of the empty tile.
+     * @return packed values.
+     */
+    private static long packStep(int pathCost, int heuristic, int blank) {
+        return ((long) pathCost << 32) | ((long) heuristic << 8) | blank;
+    }
+
+    /**
+     * Holds what the workers of a single search share: the workers
+     * themselves, the incumbent solution, and the termination counters.
+     *
+     * @author  Maksym Turkot
+     * @version 10/17/22
+     */
+    private class Search {
+        private Worker[]      workers;
+        private String        heuristicTp;
+        private long          goal;
+        private int           size;
+        private AtomicLong    solution;
+        private AtomicInteger idle;
+        private AtomicInteger pending;
+        private AtomicInteger epoch;
+        private int           goalOwner;
+        private volatile boolean done;
+
+        /**
+         * Constructor method.
+         *
+         * @param initial     initial state to search.
+         * @param heuristicTp heuristic type to use.
+         */
+        Search(State initial, String heuristicTp) {
+            this.workers     = new Worker[HdaSearcher.this.workers];
+            this.heuristicTp = heuristicTp;
+            this.size        = initial.getSize();
+            this.goal        = Searcher.setGoal(this.size);
+            this.solution    = new AtomicLong(NO_SOLUTION);
+            this.idle        = new AtomicInteger(0);
+            this.pending     = new AtomicInteger(0);
+            this.epoch       = new AtomicInteger(0);
+            this.goalOwner   = HdaSearcher.findOwner(this.goal, this.workers.length);
+            this.done        = false;
+
+            // For each worker, create its structures.
+            for (int w = 0; w < this.workers.length; w++) {
+                this.workers[w] = new Worker(this, w);
+            }
+        }
+
+        /**
+         * Getter for the cost of the incumbent solution.
+         *
+         * @return cost of the cheapest solution found, or Integer.MAX_VALUE.
+         */
+        int getBound() {
+            long packed = this.solution.get();
+
+            return packed == NO_SOLUTION ? Integer.MAX_VALUE : (int) (packed >>> 32);
+        }
+
+        /**
+         * Ends the search, waking up the workers that are parked.
+         */
+        void end() {
+            this.done = true;
+
+            // For each worker, wake it up if it is parked.
+            for (Worker worker : this.workers) {
+                LockSupport.unpark(worker.thread);
+            }
+        }
+
+        /**
+         * Offers a goal state as the incumbent solution, keeping it only if
+         * it is cheaper than the current one. The goal puzzle is always owned
+         * by the same worker, so the index within it is enough.
+         *
+         * @param pathCost of the goal state.
+         * @param index    of the goal state within the owner of the goal.
+         */
+        void offerSolution(int pathCost, int index) {
+            long packed = ((long) pathCost << 32) | index;
+            long current;
+
+            // Retry until the solution is stored or a cheaper one is found.
+            do {
+                current = this.solution.get();
+            } while (packed < current && !this.solution.compareAndSet(current, packed));
+        }
+
+        /**
+         * Follows the parents from the incumbent goal state back to the
+         * initial state, then links the states in order.
+         *
+         * @return the result state.
+         */
+        State makeSolution() {
+            int   owner   = this.goalOwner;
+            int   index   = (int) this.solution.get();
+            int[] owners  = new int[16];
+            int[] indices = new int[16];
+            int   count   = 0;
+
+            // Walk up the parents, storing the chain backwards.
+            while (index >= 0) {
+                Worker worker = this.workers[owner];
+
+                // Check if the chain has to grow.
+                if (count == indices.length) {
+                    owners  = Arrays.copyOf(owners, count << 1);
+                    indices = Arrays.copyOf(indices, count << 1);
+                }
+                owners[count]  = owner;
+                indices[count] = index;
+                count++;
+                owner = worker.parentOwners[index] & 0xFF;
+                index = worker.nodes.getParent(index);
+            }
+            State state = null;
+
+            // For each state of the chain, from the initial state, create it.
+            for (int i = count - 1; i >= 0; i--) {
+                NodeStore nodes = this.workers[owners[i]].nodes;
+                int       node  = indices[i];
+
+                state = new State(nodes.getBoard(node), nodes.getBlank(node), this.size, state);
+                state.setPathCost(nodes.getPathCost(node));
+                state.setHeuristic(nodes.getHeuristic(node));
+                state.updateEvalFunc();
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Searches the puzzles owned by one index. Parents in the NodeStore are
+     * indices within their owner, which is kept in parentOwners. Between
+     * the workers, a parent travels as a single id, the index times the
+     * number of workers plus the owner.
+     *
+     * @author  Maksym Turkot
+     * @version 10/17/22
+     */
+    private class Worker implements Runnable {
+        private Search                        search;
+        private int                           id;
+        private NodeStore                     nodes;
+        private byte[]                        parentOwners;
+        private BucketQueue                   frontier;
+        private CostTable                     cheapest;
+        private ConcurrentLinkedQueue<long[]> inbox;
+        private long[][]                      outboxes;
+        private int[]                         outboxSizes;
+        private boolean                       idle;
+        private long                          expanded;
+        private long                          generated;
+        private long                          peakFrontier;
+        private Throwable                     failure;
+        private volatile Thread               thread;
+
+        /**
+         * Constructor method.
+         *
+         * @param search shared by the workers.
+         * @param id     index of the worker.
+         */
+        Worker(Search search, int id) {
+            this.search       = search;
+            this.id           = id;
+            this.nodes        = new NodeStore();
+            this.parentOwners = new byte[1024];
+            this.frontier     = new BucketQueue();
+            this.cheapest     = new CostTable();
+            this.inbox        = new ConcurrentLinkedQueue<long[]>();
+            this.outboxes     = new long[HdaSearcher.this.workers][BATCH_SIZE * RECORD_SIZE];
+            this.outboxSizes  = new int[HdaSearcher.this.workers];
+            this.idle         = false;
+        }
+
+        /**
+         * Runs the worker until the search is over, recording any failure
+         * and ending the search for the other workers as well.
+         */
+        @Override
+        public void run() {
+            this.thread = Thread.currentThread();
+
+            try {
+                this.work();
+            } catch (RuntimeException | Error e) {
+                this.failure = e;
+                this.search.end();
+            } finally {
+                this.thread = null;
+            }
+        }
+
+        /**
+         * Takes in the batches sent to the worker and expands its best state
+         * while it is under the incumbent cost, going idle otherwise. The
+         * incumbent cost only drops, so an idle worker only gets new work
+         * from a batch, and parks until one is posted or the search ends.
+         */
+        private void work() {
+
+            // While the search is not over.
+            while (!this.search.done) {
+                long[] batch = this.inbox.poll();
+
+                // Check if a batch has arrived.
+                if (batch != null) {
+
+                    // Check if the worker has to wake up first.
+                    if (this.idle) {
+                        this.idle = false;
+                        this.search.idle.decrementAndGet();
+                    }
+
+                    // For each record of the batch, add its state.
+                    for (int i = 0; i < batch.length; i += RECORD_SIZE) {
+                        this.receive(batch[i], batch[i + 1], batch[i + 2]);
+                    }
+                    this.search.pending.decrementAndGet();
+                    continue;
+                }
+
+                // Check if a state under the incumbent cost is left.
+                if (!this.frontier.isEmpty()
+                        && this.frontier.peekEvalFunc() < this.search.getBound()) {
+                    this.expand();
+                    continue;
+                }
+                this.flush();
+
+                // Check if the worker has just run out of work.
+                if (!this.idle) {
+                    this.idle = true;
+                    this.search.idle.incrementAndGet();
+                }
+                this.checkDone();
+
+                // Check if the search goes on, then wait for a batch.
+                if (!this.search.done) {
+                    LockSupport.park(this);
+                }
+            }
+        }
+
+        /**
+         * Ends the search if every worker is idle and no batch is on its
+         * way, with no send in between the readings.
+         */
+        private void checkDone() {
+            int epoch = this.search.epoch.get();
+
+            // Check if all work is over and nothing was sent meanwhile.
+            if (this.search.pending.get() == 0
+                    && this.search.idle.get() == this.search.workers.length
+                    && this.search.epoch.get() == epoch) {
+                this.search.end();
+            }
+        }
+
+        /**
+         * Adds a state sent to the worker, unless its puzzle was already
+         * added at the same or a cheaper path cost.
+         *
+         * @param board  packed puzzle of the state.
+         * @param parent id of the parent state, index times the number of
+         *               workers plus owner, or -1.
+         * @param step   packed path cost, heuristic and empty tile position.
+         */
+        void receive(long board, long parent, long step) {
+            int pathCost  = (int) (step >>> 32);
+            int heuristic = (int) ((step >>> 8) & 0xFFFFFF);
+            int best      = this.cheapest.get(board);
+
+            // Check if the puzzle was already added at least as cheaply.
+            if (best != CostTable.MISSING && this.nodes.getPathCost(best) <= pathCost) {
+                return;
+            }
+            int workers = this.search.workers.length;
+            int index   = this.nodes.add(board, (int) (step & 0xFF),
+                                         parent < 0 ? -1 : (int) (parent / workers),
+                                         pathCost, heuristic);
+
+            // Check if the parent owners have to grow.
+            if (index == this.parentOwners.length) {
+                this.parentOwners = Arrays.copyOf(this.parentOwners, index << 1);
+            }
+            this.parentOwners[index] = (byte) (parent < 0 ? 0 : parent % workers);
+            this.cheapest.put(board, index);
+            this.frontier.add(pathCost + heuristic, pathCost, index);
+            this.peakFrontier = Math.max(this.peakFrontier, this.frontier.size());
+        }
+
+        /**
+         * Polls the best state of the frontier, offering it as a solution if
+         * it is the goal, and sends its children to their owners otherwise.
+         */
+        private void expand() {
+            int  curr  = (int) this.frontier.poll();
+            long board = this.nodes.getBoard(curr);
+
+            // Check if a cheaper path to this puzzle was added since.
+            if (this.cheapest.get(board) != curr) {
+                return;
+            }
+            int  pathCost = this.nodes.getPathCost(curr);
+            long global   = (long) curr * this.search.workers.length + this.id;
+
+            this.expanded++;
+
+            // Check if the batches are due, so that no worker waits too long.
+            if (this.expanded % BATCH_SIZE == 0) {
+                this.flush();
+            }
+
+            // Check if current state is the goal state.
+            if (board == this.search.goal) {
+                this.search.offerSolution(pathCost, curr);
+                return;
+            }
+            int blank     = this.nodes.getBlank(curr);
+            int heuristic = this.nodes.getHeuristic(curr);
+            int bound     = this.search.getBound();
+
+            // For each tile that can be moved into the empty space.
+            for (int target : Board.neighbors(this.search.size)[blank]) {
+                long child          = Board.move(board, blank, target);
+                int  childHeuristic = heuristicFinder.updateHeuristic(child, this.search.size,
+                                                                      heuristic, target, blank,
+                                                                      this.search.heuristicTp);
+
+                this.generated++;
+
+                // Check if the child can still lead to a cheaper solution.
+                if (pathCost + 1 + childHeuristic < bound) {
+                    this.send(HdaSearcher.findOwner(child, this.search.workers.length), child,
+                              global, HdaSearcher.packStep(pathCost + 1, childHeuristic, target));
+                }
+            }
+        }
+
+        /**
+         * Sends a state to its owner, adding it directly if the owner is this
+         * worker and through the outbox of the owner otherwise.
+         *
+         * @param owner  index of the owning worker.
+         * @param board  packed puzzle of the state.
+         * @param parent id of the parent state.
+         * @param step   packed path cost, heuristic and empty tile position.
+         */
+        private void send(int owner, long board, long parent, long step) {
+
+            // Check if the state stays with this worker.
+            if (owner == this.id) {
+                this.receive(board, parent, step);
+                return;
+            }
+            long[] outbox = this.outboxes[owner];
+            int    size   = this.outboxSizes[owner];
+
+            outbox[size]     = board;
+            outbox[size + 1] = parent;
+            outbox[size + 2] = step;
+            this.outboxSizes[owner] = size + RECORD_SIZE;
+
+            // Check if the batch is full.
+            if (this.outboxSizes[owner] == outbox.length) {
+                this.post(owner);
+            }
+        }
+
+        /**
+         * Posts the partly filled batches of every outbox.
+         */
+        private void flush() {
+
+            // For each other worker, post its batch if there is one.
+            for (int owner = 0; owner < this.outboxes.length; owner++) {
+
+                // Check if the outbox holds any state.
+                if (this.outboxSizes[owner] > 0) {
+                    this.post(owner);
+                }
+            }
+        }
+
+        /**
+         * Posts the batch of an outbox to the inbox of its owner, counting
+         * it as pending until the owner has taken it in. The owner is woken
+         * up in case it is parked, and given the chance to run before this
+         * worker goes on expanding states that the batch may make useless.
+         *
+         * @param owner index of the owning worker.
+         */
+        private void post(int owner) {
+            Worker receiver = this.search.workers[owner];
+
+            this.search.epoch.incrementAndGet();
+            this.search.pending.incrementAndGet();
+            receiver.inbox.add(Arrays.copyOf(this.outboxes[owner], this.outboxSizes[owner]));
+            this.outboxSizes[owner] = 0;
+            LockSupport.unpark(receiver.thread);
+            Thread.yield();
+        }
+    }
+}
@@ -1,127 +1,414 @@
 package main;
 
 /**
- * This class implements the logic of heuristic calculation. The 
- * findHeuristic() processes the heuristic string and activates the correct 
- * heuristic construction method, findNumberMisplaced() or findManhattanDist(). 
- * The former computes the number of misplaced tiles in the current state, 
- * while the latter finds the distance along row and columns of the puzzle 
- * from each tile’s current position to the goal position. A helper method 
- * findCorrPos() is also present.
- * 
+ * This class implements the logic of heuristic calculation. The
+ * findHeuristic() processes the heuristic string and activates the correct
+ * heuristic construction method, findNumberMisplaced() or findManhattanDist().
+ * The former computes the number of misplaced tiles in the current state,
+ * while the latter finds the distance along row and columns of the puzzle
+ * from each tile’s current position to the goal position. Both read the
+ * distance of a tile from its goal position from a table precomputed for
+ * each puzzle size. The findLinearConflict() method adds to the Manhattan
+ * distance of the tiles, without the empty space, two moves for each tile
+ * that has to leave its goal row or column to let another tile pass, reading
+ * the count for the contents of a row or column from a precomputed table.
+ * The "walkingDist" type looks the puzzle up in the WalkingDistance tables,
+ * and the "patternDb" type in the PatternDatabase of its size. Since a move
+ * changes the position of a single tile and the empty space,
+ * updateHeuristic() derives the heuristic of a child state from the heuristic
+ * of its parent in constant time, leaving the full computation for the
+ * initial state only. A search towards some other puzzle than the goal, such
+ * as the backward half of a bidirectional search, uses the findHeuristic()
+ * variant that takes the target puzzle, which measures the tiles against
+ * their positions in the target instead.
+ *
  * @author Maksym Turkot
- * @version 10/01/22
+ * @version 10/16/22
  */
 public class Heuristic {
+    private static final byte[][][] CONFLICTS = new byte[Board.MAX_SIZE + 1][][];
+
+    static {
+
+        // For each supported size, tabulate the conflicts.
+        for (int size = 2; size <= Board.MAX_SIZE; size++) {
+            CONFLICTS[size] = Heuristic.findConflicts(size);
+        }
+    }
 
     /**
-     * Accepts the string indicating the heuristic, and based on it activates 
+     * Accepts the string indicating the heuristic, and based on it activates
      * the correct heuristic construction function.
-     * 
+     *
      * @param  state       to find heuristic for.
      * @param  heuristicTp type of the heuristic to find.
      * @return heuristic value.
      */
     public int findHeuristic(State state, String heuristicTp) {
+        return this.findHeuristic(state.getBoard(), state.getSize(), heuristicTp);
+    }
+
+    /**
+     * Accepts the string indicating the heuristic, and based on it activates
+     * the correct heuristic construction function.
+     *
+     * @param  board       packed puzzle to find heuristic for.
+     * @param  size        of the puzzle.
+     * @param  heuristicTp type of the heuristic to find.
+     * @return heuristic value.
+     */
+    public int findHeuristic(long board, int size, String heuristicTp) {
+
+        // Check and compute respective heuristic value.
+        if (heuristicTp.equals("nMisplaced")) {
+            return this.findNumberMisplaced(board, size);
+        } else if (heuristicTp.equals("manhattanDist")) {
+            return this.findManhattanDist(board, size);
+        } else if (heuristicTp.equals("linearConflict")) {
+            return this.findLinearConflict(board, size);
+        } else if (heuristicTp.equals("walkingDist")) {
+            return WalkingDistance.forSize(size).findHeuristic(board);
+        } else if (heuristicTp.equals("patternDb")) {
+            return PatternDatabase.forSize(size).findHeuristic(board);
+        }
+        return -1;
+    }
+
+    /**
+     * Accepts the string indicating the heuristic, and computes it towards
+     * the target puzzle instead of the goal. The misplaced tiles, Manhattan
+     * distance and linear conflicts compare each tile with its position in
+     * the target. The walking distance and pattern database tables only
+     * describe the goal, so for other targets they fall back to the linear
+     * conflicts, which never overestimate either.
+     *
+     * @param  board       packed puzzle to find heuristic for.
+     * @param  target      packed puzzle to measure the distance to.
+     * @param  size        of the puzzle.
+     * @param  heuristicTp type of the heuristic to find.
+     * @return heuristic value.
+     */
+    public int findHeuristic(long board, long target, int size, String heuristicTp) {
+
+        // Check if the target is the goal, which the tables describe.
+        if (target == Searcher.setGoal(size)) {
+            return this.findHeuristic(board, size, heuristicTp);
+        }
 
         // Check and compute respective heuristic value.
         if (heuristicTp.equals("nMisplaced")) {
-            return this.findNumberMisplaced(state);
+            return this.findNumberMisplaced(board, target, size);
         } else if (heuristicTp.equals("manhattanDist")) {
-            return this.findManhattanDist(state);
+            return this.findManhattanDist(board, target, size, true);
+        } else if (heuristicTp.equals("linearConflict") || heuristicTp.equals("walkingDist")
+                   || heuristicTp.equals("patternDb")) {
+            return this.findLinearConflict(board, target, size);
         }
         return -1;
     }
 
     /**
-     * Computes the number of tiles misplaced from the goal state by comparing 
+     * Computes the heuristic of a child state from the heuristic of the
+     * parent state it was derived from.
+     *
+     * @param  parent      state the child was derived from.
+     * @param  child       state to find heuristic for.
+     * @param  heuristicTp type of the heuristic to find.
+     * @return heuristic value.
+     */
+    public int updateHeuristic(State parent, State child, String heuristicTp) {
+        return this.updateHeuristic(child.getBoard(), child.getSize(),
+                                    parent.getHeuristic(), child.getBlank(),
+                                    parent.getBlank(), heuristicTp);
+    }
+
+    /**
+     * Computes the heuristic of a packed puzzle from the heuristic of the
+     * puzzle before the last move. Only the moved tile and the empty space
+     * changed positions, so only their terms are updated.
+     *
+     * @param  board       packed puzzle after the move.
+     * @param  size        of the puzzle.
+     * @param  heuristic   heuristic value before the move.
+     * @param  from        position the tile moved from, now empty.
+     * @param  to          position the tile moved to, empty before the move.
+     * @param  heuristicTp type of the heuristic to find.
+     * @return heuristic value.
+     */
+    public int updateHeuristic(long board, int size, int heuristic, int from,
+                               int to, String heuristicTp) {
+        int tile = Board.tileAt(board, to);
+
+        // Check and update respective heuristic value.
+        if (heuristicTp.equals("nMisplaced")) {
+            return heuristic - (tile != from ? 1 : 0) + (tile != to ? 1 : 0)
+                             - (to   != 0    ? 1 : 0) + (from != 0 ? 1 : 0);
+        } else if (heuristicTp.equals("manhattanDist")) {
+            int[] distance = TileDistance.manhattan(size);
+            int   cells    = size * size;
+
+            return heuristic - distance[tile * cells + from] + distance[tile * cells + to]
+                             - distance[to] + distance[from];
+        }
+        return this.findHeuristic(board, size, heuristicTp);
+    }
+
+    /**
+     * Computes the number of tiles misplaced from the goal state by comparing
      * value of each cell to the incremented counter.
-     * 
+     *
      * @param  state to compute heuristic for.
      * @return heuristic value.
      */
     public int findNumberMisplaced(State state) {
-        int[][] puzzle = state.getPuzzle();
-        int size = state.getSize();
-        int numberMisplaced = 0;
-        int index = 0;
+        return this.findNumberMisplaced(state.getBoard(), state.getSize());
+    }
 
-        // For each row of the puzzle.
-        for (int row = 0; row < size; row++) {
+    /**
+     * Computes the number of tiles misplaced from the goal state by comparing
+     * value of each cell to the incremented counter.
+     *
+     * @param  board packed puzzle to compute heuristic for.
+     * @param  size  of the puzzle.
+     * @return heuristic value.
+     */
+    public int findNumberMisplaced(long board, int size) {
+        int numberMisplaced = 0;
 
-            // For each column of the puzzle.
-            for (int col = 0; col < size; col++) {
+        // For each position of the puzzle.
+        for (int index = 0; index < size * size; index++) {
 
-                // Check if tile is misplaced.
-                if (puzzle[row][col] != index) {
-                    numberMisplaced++;
-                }
-                index++;
+            // Check if tile is misplaced.
+            if (Board.tileAt(board, index) != index) {
+                numberMisplaced++;
             }
         }
         return numberMisplaced;
     }
 
     /**
-     * Computes the Manhattan distance. For each tile, it compares its value 
-     * to the expected correct value. If they are different, it scans the 
-     * puzzle for the correct position of the tile, and calculates the 
-     * distance between the expected and current tiles.
-     * 
+     * Computes the Manhattan distance. For each tile, it looks up the
+     * distance between its current and its correct position.
+     *
      * @param  state to compute heuristic for.
      * @return heuristic value.
      */
     public int findManhattanDist(State state) {
-        int[][] puzzle = state.getPuzzle();
-        int size = state.getSize();
-        int distance = 0;
-        
-        int index = 0;
-
-        // For each row of the puzzle.
-        for (int row = 0; row < size; row++) {
-
-            // For each column of the puzzle.
-            for (int col = 0; col < size; col++) {
-
-                // Check if the tile is misplaced.
-                if (puzzle[row][col] != index) {
-                    int[] corrPosRC = this.findCorrPos(puzzle, size, index);
-                    distance = distance + Math.abs(corrPosRC[0] - row)
-                                          + Math.abs(corrPosRC[1] - col);
-                }
-                index++;
+        return this.findManhattanDist(state.getBoard(), state.getSize());
+    }
+
+    /**
+     * Computes the Manhattan distance. For each tile, it looks up the
+     * distance between its current and its correct position.
+     *
+     * @param  board packed puzzle to compute heuristic for.
+     * @param  size  of the puzzle.
+     * @return heuristic value.
+     */
+    public int findManhattanDist(long board, int size) {
+        int[] distance = TileDistance.manhattan(size);
+        int   cells    = size * size;
+        int   total    = 0;
+
+        // For each position of the puzzle.
+        for (int index = 0; index < cells; index++) {
+            total += distance[Board.tileAt(board, index) * cells + index];
+        }
+        return total;
+    }
+
+    /**
+     * Computes the Manhattan distance of the tiles, without the empty space,
+     * plus two moves for each tile that has to step out of its goal row or
+     * column so that the tiles sharing it can pass each other.
+     *
+     * @param  state to compute heuristic for.
+     * @return heuristic value.
+     */
+    public int findLinearConflict(State state) {
+        return this.findLinearConflict(state.getBoard(), state.getSize());
+    }
+
+    /**
+     * Computes the Manhattan distance of the tiles, without the empty space,
+     * plus two moves for each tile that has to step out of its goal row or
+     * column so that the tiles sharing it can pass each other.
+     *
+     * @param  board packed puzzle to compute heuristic for.
+     * @param  size  of the puzzle.
+     * @return heuristic value.
+     */
+    public int findLinearConflict(long board, int size) {
+        int[]    distance  = TileDistance.manhattan(size);
+        byte[][] conflicts = CONFLICTS[size];
+        int      cells     = size * size;
+        int      rowBits   = size << 2;
+        long     rowMask   = (1L << rowBits) - 1;
+        int      total     = 0;
+
+        // For each position of the puzzle, add the distance of its tile.
+        for (int index = 0; index < cells; index++) {
+            total += distance[Board.tileAt(board, index) * cells + index];
+        }
+
+        // The empty space is not a tile, so take its distance back out.
+        total -= distance[Board.findBlank(board, size)];
+
+        // For each row and column, look up the conflicts of its contents.
+        for (int line = 0; line < size; line++) {
+            int column = 0;
+
+            // For each position of the column, gather the tile.
+            for (int row = 0; row < size; row++) {
+                column |= Board.tileAt(board, row * size + line) << (row << 2);
+            }
+            total += conflicts[line][(int) ((board >>> (line * rowBits)) & rowMask)];
+            total += conflicts[size + line][column];
+        }
+        return total;
+    }
+
+    /**
+     * Computes the number of positions holding a different tile than in the
+     * target puzzle, counting the empty space like findNumberMisplaced().
+     *
+     * @param  board  packed puzzle to compute heuristic for.
+     * @param  target packed puzzle to compare with.
+     * @param  size   of the puzzle.
+     * @return heuristic value.
+     */
+    private int findNumberMisplaced(long board, long target, int size) {
+        long difference      = board ^ target;
+        int  numberMisplaced = 0;
+
+        // For each position of the puzzle.
+        for (int index = 0; index < size * size; index++) {
+
+            // Check if the tiles differ.
+            if (((difference >>> (index << 2)) & 0xF) != 0) {
+                numberMisplaced++;
             }
         }
-        return distance;
+        return numberMisplaced;
+    }
+
+    /**
+     * Computes the Manhattan distance from each tile to its position in the
+     * target puzzle.
+     *
+     * @param  board  packed puzzle to compute heuristic for.
+     * @param  target packed puzzle to measure the distance to.
+     * @param  size   of the puzzle.
+     * @param  blank  true to count the empty space like findManhattanDist().
+     * @return heuristic value.
+     */
+    private int findManhattanDist(long board, long target, int size, boolean blank) {
+        int[] distance  = TileDistance.manhattan(size);
+        int   cells     = size * size;
+        long  positions = Heuristic.findPositions(target, size);
+        int   total     = 0;
+
+        // For each position of the puzzle, add the distance of its tile.
+        for (int index = 0; index < cells; index++) {
+            int tile = Board.tileAt(board, index);
+
+            // Check if the tile is counted.
+            if (tile != 0 || blank) {
+                total += distance[Board.tileAt(positions, tile) * cells + index];
+            }
+        }
+        return total;
     }
 
     /**
-     * Finds the coordinates of the correct position of a puzzle tile.
-     * 
-     * @param  puzzle puzzle to analyze.
+     * Computes the Manhattan distance of the tiles to their positions in the
+     * target puzzle, without the empty space, plus two moves for each tile
+     * that has to step out of its target row or column so that the tiles
+     * sharing it can pass each other. The tiles of a line that belong to it
+     * in the target are replaced by the goal tiles of the second row or
+     * column with the same places along the line, none of them the empty
+     * space, so the conflicts are read from the tables of the goal.
+     *
+     * @param  board  packed puzzle to compute heuristic for.
+     * @param  target packed puzzle to measure the distance to.
      * @param  size   of the puzzle.
-     * @param  index  value to find correct position for.
-     * @return coordinates of the correct position for index value.
+     * @return heuristic value.
+     */
+    private int findLinearConflict(long board, long target, int size) {
+        byte[][] conflicts = CONFLICTS[size];
+        long     positions = Heuristic.findPositions(target, size);
+        int      total     = this.findManhattanDist(board, target, size, false);
+
+        // For each row and column.
+        for (int line = 0; line < 2 * size; line++) {
+            int key = 0;
+
+            // For each position of the line, keep the tiles that belong.
+            for (int i = 0; i < size; i++) {
+                int pos  = line < size ? line * size + i : i * size + line - size;
+                int tile = Board.tileAt(board, pos);
+                int goal = Board.tileAt(positions, tile);
+
+                // Check if the tile belongs to the line.
+                if (tile != 0 && (line < size ? goal / size : goal % size) == line % size) {
+                    key |= (line < size ? size + goal % size : goal / size * size + 1) << (i << 2);
+                }
+            }
+            total += conflicts[line < size ? 1 : size + 1][key];
+        }
+        return total;
+    }
+
+    /**
+     * Packs the position of each tile of a puzzle, four bits per tile, so
+     * that the position of a tile is read with Board.tileAt().
+     *
+     * @param  board packed puzzle.
+     * @param  size  of the puzzle.
+     * @return packed positions by tile.
+     */
+    private static long findPositions(long board, int size) {
+        long positions = 0L;
+
+        // For each position of the puzzle, store it for its tile.
+        for (int index = 0; index < size * size; index++) {
+            positions |= (long) index << (Board.tileAt(board, index) << 2);
+        }
+        return positions;
+    }
+
+    /**
+     * Tabulates the linear conflict moves of every possible row and column
+     * contents, counted by TileDistance.findConflicts().
+     *
+     * @param  size of the puzzle.
+     * @return moves by line, rows then columns, and packed contents.
      */
-    private int[] findCorrPos(int[][] puzzle, int size, int index) {
-        int[] coords = {-1, -1};
+    private static byte[][] findConflicts(int size) {
+        byte[][] conflicts = new byte[2 * size][1 << (size << 2)];
+        int[]    order     = new int[size];
+        int[]    longest   = new int[size];
 
-        // For each row of the puzzle.
-        for (int row = 0; row < size; row++) {
+        // For each row and column.
+        for (int line = 0; line < 2 * size; line++) {
 
-            // For each column of the puzzle.
-            for (int col = 0; col < size; col++) {
+            // For each possible contents of the line.
+            for (int key = 0; key < conflicts[line].length; key++) {
+                int count = 0;
 
-                // Check if tile matches the desired value.
-                if (puzzle[row][col] == index) {
-                    coords[0] = row;
-                    coords[1] = col;
+                // For each position of the line, keep the tiles that belong.
+                for (int i = 0; i < size; i++) {
+                    int tile = (key >>> (i << 2)) & 0xF;
+                    int goal = line < size ? tile / size : tile % size;
 
-                    return coords;
+                    // Check if the tile belongs to the line.
+                    if (tile != 0 && tile < size * size && goal == line % size) {
+                        order[count++] = line < size ? tile % size : tile / size;
+                    }
                 }
+                conflicts[line][key] = (byte) TileDistance.findConflicts(order, count, longest);
             }
         }
-        return coords;
+        return conflicts;
     }
 }
@@ -0,0 +1,218 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * This class searches the puzzle states for the goal state using iterative
+ * deepening A*. The solve() method repeats a depth-first search() bounded by
+ * the evaluation function, raising the bound to the smallest value that
+ * exceeded it, until the goal state is found, and idaStarSearch() returns
+ * just its result state. The search works in place on a single packed puzzle:
+ * each move is applied before descending and undone after returning, and only
+ * the positions of the empty tile along the current path are remembered, so
+ * memory use does not grow with the number of states visited. A puzzle that
+ * can not reach the goal is told apart by its parity before searching, since
+ * the bound would otherwise be raised forever. The puzzle and path belong to
+ * a Search made for each call, so a single IdaSearcher can be shared between
+ * threads. The helper method makeSolution() turns the path into a chain of
+ * states once the goal is found.
+ *
+ * @author  Maksym Turkot
+ * @version 10/15/22
+ */
+public class IdaSearcher implements Solver {
+    private static final int FOUND = -1;
+
+    private Heuristic heuristicFinder;
+
+    /**
+     * Constructor method.
+     */
+    public IdaSearcher() {
+        this.heuristicFinder = new Heuristic();
+    }
+
+    /**
+     * Runs the search and returns the result state, which holds the number
+     * of expanded states as its id, like the one returned by
+     * Searcher.aStarSearch().
+     *
+     * @param  initial     initial state to search.
+     * @param  heuristicTp heuristic type to use.
+     * @return the result state, or null if the goal can not be reached.
+     */
+    public State idaStarSearch(State initial, String heuristicTp) {
+        SearchResult result = this.solve(initial, heuristicTp);
+
+        // Check if the goal state was reached.
+        if (result.isSolved()) {
+            result.getState().setId((int) result.getExpanded());
+        }
+        return result.getState();
+    }
+
+    /**
+     * Runs depth-first searches of increasing evaluation function bound from
+     * the initial state until the goal state is reached. The peak frontier
+     * of the result is the longest path held at once.
+     *
+     * @param  initial     initial state to search.
+     * @param  heuristicTp heuristic type to use.
+     * @return the result of the search, without a solution if the goal can
+     *         not be reached.
+     */
+    @Override
+    public SearchResult solve(State initial, String heuristicTp) {
+        long   startTime = System.nanoTime();
+        Search search    = new Search(initial, heuristicTp);
+        int    heuristic = heuristicFinder.findHeuristic(initial, heuristicTp);
+        int    bound     = heuristic;
+        State  solution  = null;
+
+        // Check if the goal can not be reached at all.
+        if (!Board.isReachable(initial.getBoard(), initial.getSize())) {
+            return new SearchResult(null, 0, 0, 0, System.nanoTime() - startTime);
+        }
+
+        // Raise the bound until the goal state is found.
+        while (true) {
+            int next = search.search(0, heuristic, bound, -1);
+
+            // Check if the goal state was found.
+            if (next == FOUND) {
+                solution = search.makeSolution(initial);
+                break;
+            }
+
+            // Check if no state exceeded the bound.
+            if (next == Integer.MAX_VALUE) {
+                break;
+            }
+            bound = next;
+        }
+        return new SearchResult(solution, search.expanded, search.generated, search.peakDepth,
+                                System.nanoTime() - startTime);
+    }
+
+    /**
+     * Holds the puzzle, path and counters of a single search.
+     *
+     * @author  Maksym Turkot
+     * @version 10/15/22
+     */
+    private class Search {
+        private String  heuristicTp;
+        private long    board;
+        private long    goal;
+        private int     blank;
+        private int     size;
+        private int[][] neighbors;
+        private int[]   path;
+        private int     depth;
+        private long    expanded;
+        private long    generated;
+        private int     peakDepth;
+
+        /**
+         * Constructor method.
+         *
+         * @param initial     initial state to search.
+         * @param heuristicTp heuristic type to use.
+         */
+        Search(State initial, String heuristicTp) {
+            this.heuristicTp = heuristicTp;
+            this.board       = initial.getBoard();
+            this.blank       = initial.getBlank();
+            this.size        = initial.getSize();
+            this.goal        = Searcher.setGoal(this.size);
+            this.neighbors   = Board.neighbors(this.size);
+            this.path        = new int[64];
+        }
+
+        /**
+         * Searches depth-first below the current puzzle, skipping states whose
+         * evaluation function exceeds the bound.
+         *
+         * @param  pathCost  cost of the path to the current puzzle.
+         * @param  heuristic heuristic value of the current puzzle.
+         * @param  bound     largest evaluation function to expand.
+         * @param  previous  position of the empty tile before the last move.
+         * @return FOUND, or the smallest evaluation function over the bound.
+         */
+        private int search(int pathCost, int heuristic, int bound, int previous) {
+            int evalFunc = pathCost + heuristic;
+
+            // Check if the state is over the bound.
+            if (evalFunc > bound) {
+                return evalFunc;
+            }
+
+            // Check if current state is the goal state.
+            if (this.board == this.goal) {
+                this.depth = pathCost;
+                return FOUND;
+            }
+            this.expanded++;
+
+            // Check if the path has to grow.
+            if (pathCost == this.path.length) {
+                this.path = Arrays.copyOf(this.path, pathCost << 1);
+            }
+            this.peakDepth = Math.max(this.peakDepth, pathCost + 1);
+
+            int min  = Integer.MAX_VALUE;
+            int from = this.blank;
+
+            // For each tile that can be moved into the empty space.
+            for (int target : this.neighbors[from]) {
+
+                // Skip the move that undoes the last one.
+                if (target == previous) {
+                    continue;
+                }
+                this.board = Board.move(this.board, from, target);
+                this.blank = target;
+                this.path[pathCost] = target;
+                this.generated++;
+
+                int childHeuristic = heuristicFinder.updateHeuristic(this.board, this.size,
+                                                                     heuristic, target, from,
+                                                                     this.heuristicTp);
+                int result = this.search(pathCost + 1, childHeuristic, bound, from);
+
+                // Check if the goal state was found below.
+                if (result == FOUND) {
+                    return FOUND;
+                }
+                min = Math.min(min, result);
+
+                // Undo the move.
+                this.board = Board.move(this.board, target, from);
+                this.blank = from;
+            }
+            return min;
+        }
+
+        /**
+         * Replays the moves of the found path from the initial state, linking
+         * each new state to its parent.
+         *
+         * @param  initial initial state of the search.
+         * @return the result state.
+         */
+        private State makeSolution(State initial) {
+            State curr = initial;
+
+            // For each move of the path, derive the next state.
+            for (int i = 0; i < this.depth; i++) {
+                State next = new State(Board.move(curr.getBoard(), curr.getBlank(), this.path[i]),
+                                       this.path[i], this.size, curr);
+
+                next.setPathCost(i + 1);
+                next.updateEvalFunc();
+                curr = next;
+            }
+            return curr;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package main;
+
+/**
+ * This class counts non-negative values, such as search times or expanded
+ * state counts, in buckets of bounded relative width, so that percentiles of
+ * any number of values are read back in constant memory. Values below 64
+ * get a bucket each. Above that, every power of two is split into 32 equal
+ * buckets, so a percentile is reported within about 3% of the true value,
+ * as the top of its bucket, and never above the largest value recorded. The
+ * record() method counts a value, and getPercentile() reads a percentile.
+ * A histogram is not safe to record into from several threads at once.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS    = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS     = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private long[] counts;
+    private long   count;
+    private long   sum;
+    private long   min;
+    private long   max;
+
+    /**
+     * Constructor method.
+     */
+    public LatencyHistogram() {
+        this.counts = new long[BUCKETS];
+        this.count  = 0;
+        this.sum    = 0;
+        this.min    = Long.MAX_VALUE;
+        this.max    = 0;
+    }
+
+    /**
+     * Counts a value.
+     *
+     * @param value to count, not negative.
+     */
+    public void record(long value) {
+
+        // Check if the value can be bucketed.
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value " + value);
+        }
+        this.counts[LatencyHistogram.findBucket(value)]++;
+        this.count++;
+        this.sum += value;
+        this.min  = Math.min(this.min, value);
+        this.max  = Math.max(this.max, value);
+    }
+
+    /**
+     * Getter for the number of values counted.
+     *
+     * @return number of values.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Getter for the smallest value counted.
+     *
+     * @return smallest value, or 0 if there is none.
+     */
+    public long getMin() {
+        return this.count == 0 ? 0 : this.min;
+    }
+
+    /**
+     * Getter for the largest value counted.
+     *
+     * @return largest value, or 0 if there is none.
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Getter for the mean of the values counted.
+     *
+     * @return mean value, or 0 if there is none.
+     */
+    public double getMean() {
+        return this.count == 0 ? 0 : this.sum / (double) this.count;
+    }
+
+    /**
+     * Finds the value at or below which the given percentage of the values
+     * lie.
+     *
+     * @param  percentile between 0 and 100.
+     * @return top of the bucket holding the percentile, at most the largest
+     *         value, or 0 if there are no values.
+     */
+    public long getPercentile(double percentile) {
+
+        // Check if the percentile is out of range.
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile out of range " + percentile);
+        }
+        long rank  = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+        long total = 0;
+
+        // For each bucket, until the rank is reached.
+        for (int bucket = 0; bucket < BUCKETS && this.count > 0; bucket++) {
+            total += this.counts[bucket];
+
+            // Check if the bucket holds the percentile.
+            if (total >= rank) {
+                return Math.min(LatencyHistogram.findTop(bucket), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * Finds the bucket of a value: values below 2 * SUB_BUCKETS index it
+     * directly, larger ones by their highest bit and the next SUB_BITS bits.
+     *
+     * @param  value to bucket.
+     * @return bucket index.
+     */
+    private static int findBucket(long value) {
+
+        // Check if the value has a bucket of its own.
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Finds the largest value of a bucket.
+     *
+     * @param  bucket index.
+     * @return top of the bucket.
+     */
+    private static long findTop(int bucket) {
+
+        // Check if the bucket holds a single value.
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+
+        return ((long) (bucket % SUB_BUCKETS + SUB_BUCKETS + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,169 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * This class stores the states generated by a search in parallel primitive
+ * arrays instead of State objects. Each state is identified by its index and
+ * keeps its packed puzzle, the index of its parent, the position of its empty
+ * tile, which tells the move that led to it, and its path cost and heuristic
+ * values. The add() method appends a state and returns its index, clear()
+ * empties the store while keeping the allocated arrays for the next search,
+ * and makeState() rebuilds the chain of State objects from the initial state
+ * to a stored one.
+ *
+ * @author  Maksym Turkot
+ * @version 10/13/22
+ */
+public class NodeStore {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private long[]  boards;
+    private int[]   parents;
+    private byte[]  blanks;
+    private short[] pathCosts;
+    private short[] heuristics;
+    private int     size;
+
+    /**
+     * Constructor method.
+     */
+    public NodeStore() {
+        this.boards     = new long[DEFAULT_CAPACITY];
+        this.parents    = new int[DEFAULT_CAPACITY];
+        this.blanks     = new byte[DEFAULT_CAPACITY];
+        this.pathCosts  = new short[DEFAULT_CAPACITY];
+        this.heuristics = new short[DEFAULT_CAPACITY];
+        this.size       = 0;
+    }
+
+    /**
+     * Getter for the number of stored states.
+     *
+     * @return number of stored states.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Appends a state to the store.
+     *
+     * @param  board     packed puzzle of the state.
+     * @param  blank     position of the empty tile.
+     * @param  parent    index of the parent state, or -1 for the initial one.
+     * @param  pathCost  cost of the path to the state.
+     * @param  heuristic heuristic value of the state.
+     * @return index of the state.
+     */
+    public int add(long board, int blank, int parent, int pathCost, int heuristic) {
+
+        // Check if the arrays are full.
+        if (this.size == this.boards.length) {
+            int capacity = this.size << 1;
+
+            this.boards     = Arrays.copyOf(this.boards, capacity);
+            this.parents    = Arrays.copyOf(this.parents, capacity);
+            this.blanks     = Arrays.copyOf(this.blanks, capacity);
+            this.pathCosts  = Arrays.copyOf(this.pathCosts, capacity);
+            this.heuristics = Arrays.copyOf(this.heuristics, capacity);
+        }
+        this.boards[this.size]     = board;
+        this.parents[this.size]    = parent;
+        this.blanks[this.size]     = (byte) blank;
+        this.pathCosts[this.size]  = (short) pathCost;
+        this.heuristics[this.size] = (short) heuristic;
+
+        return this.size++;
+    }
+
+    /**
+     * Getter for the packed puzzle of a state.
+     *
+     * @param  index of the state.
+     * @return packed puzzle.
+     */
+    public long getBoard(int index) {
+        return this.boards[index];
+    }
+
+    /**
+     * Getter for the parent of a state.
+     *
+     * @param  index of the state.
+     * @return index of the parent state, or -1 for the initial one.
+     */
+    public int getParent(int index) {
+        return this.parents[index];
+    }
+
+    /**
+     * Getter for the position of the empty tile of a state.
+     *
+     * @param  index of the state.
+     * @return position of the empty tile.
+     */
+    public int getBlank(int index) {
+        return this.blanks[index];
+    }
+
+    /**
+     * Getter for the path cost of a state.
+     *
+     * @param  index of the state.
+     * @return cost of the path to the state.
+     */
+    public int getPathCost(int index) {
+        return this.pathCosts[index];
+    }
+
+    /**
+     * Getter for the heuristic value of a state.
+     *
+     * @param  index of the state.
+     * @return heuristic value.
+     */
+    public int getHeuristic(int index) {
+        return this.heuristics[index];
+    }
+
+    /**
+     * Removes all states, keeping the allocated arrays.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Rebuilds the chain of states from the initial state to a stored state,
+     * linking each state to its parent.
+     *
+     * @param  index      of the last state of the chain.
+     * @param  puzzleSize size of the puzzle.
+     * @return the last state of the chain.
+     */
+    public State makeState(int index, int puzzleSize) {
+        int depth = 0;
+
+        // Walk up the parents to find the length of the chain.
+        for (int i = index; this.parents[i] >= 0; i = this.parents[i]) {
+            depth++;
+        }
+        int[] chain = new int[depth + 1];
+
+        // Walk up the parents again, storing the chain backwards.
+        for (int i = index, j = depth; j >= 0; i = this.parents[i], j--) {
+            chain[j] = i;
+        }
+        State state = null;
+
+        // For each index of the chain, create the state.
+        for (int i : chain) {
+            state = new State(this.boards[i], this.blanks[i], puzzleSize, state);
+            state.setPathCost(this.pathCosts[i]);
+            state.setHeuristic(this.heuristics[i]);
+            state.updateEvalFunc();
+        }
+        return state;
+    }
+}
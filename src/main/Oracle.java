@@ -0,0 +1,302 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * This class holds the exact number of moves from every reachable puzzle to
+ * the goal state, for puzzle sizes small enough to list all of them. Every
+ * move swaps the empty tile with a neighbor, so the parity of the tile order
+ * and of the distance of the empty tile from its goal position change
+ * together, and only the puzzles where both agree are reachable. Once the
+ * positions of all tiles but the last two are known, only one order of the
+ * last two is reachable, so a puzzle is ranked by the positions of the other
+ * tiles alone, and the table holds half of the possible puzzles. The
+ * forSize() method returns the table of a puzzle size, loading it from the
+ * folder named by the "oracleDir" system property, data/oracle by default,
+ * or building it with build() by breadth-first search from the goal state
+ * and writing it there on the first run. Tables are memory-mapped when
+ * loaded. The findDistance() method looks a packed puzzle up.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class Oracle {
+    public  static final int    MAX_SIZE = 3;
+
+    private static final int    MAGIC    = 0x4F524331; // "ORC1"
+    private static final String DIR      = System.getProperty("oracleDir", "data/oracle");
+    private static final int    HEADER   = 8;
+    private static final byte   UNKNOWN  = (byte) 0xFF;
+
+    // Replaced by a copy whenever a table is added, so it is read without locking.
+    private static volatile Oracle[] oracles = new Oracle[MAX_SIZE + 1];
+
+    private int        size;
+    private ByteBuffer distances;
+
+    /**
+     * Constructor method.
+     *
+     * @param size      of the puzzle.
+     * @param distances buffer holding the move count of each ranked puzzle.
+     */
+    private Oracle(int size, ByteBuffer distances) {
+        this.size      = size;
+        this.distances = distances;
+    }
+
+    /**
+     * Returns the table for the puzzle size, loading or building it on the
+     * first call. Only the first call locks.
+     *
+     * @param  size of the puzzle.
+     * @return the table of move counts.
+     */
+    public static Oracle forSize(int size) {
+
+        // Check if the size can be tabulated.
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported puzzle size " + size);
+        }
+        Oracle oracle = oracles[size];
+
+        // Check if the table has to be loaded.
+        if (oracle == null) {
+            oracle = Oracle.loadForSize(size);
+        }
+        return oracle;
+    }
+
+    /**
+     * Loads the table for the puzzle size, building it first if it is not
+     * on disk, unless another thread already did.
+     *
+     * @param  size of the puzzle.
+     * @return the table of move counts.
+     */
+    private static synchronized Oracle loadForSize(int size) {
+
+        // Check if another thread loaded the table meanwhile.
+        if (oracles[size] == null) {
+            File     file  = new File(DIR + "/oracle-" + size + ".bin");
+            Oracle[] added = oracles.clone();
+
+            try {
+
+                // Check if the table has to be built first.
+                if (!file.exists()) {
+                    Oracle.write(file, size, Oracle.build(size));
+                }
+                added[size] = Oracle.load(file);
+            } catch (IOException ioe) {
+                throw new IllegalStateException("Error loading file \"" + file + "\"", ioe);
+            }
+            oracles = added;
+        }
+        return oracles[size];
+    }
+
+    /**
+     * Looks up the number of moves from the packed puzzle to the goal.
+     *
+     * @param  board packed puzzle.
+     * @return number of moves, or -1 if the goal can not be reached.
+     */
+    public int findDistance(long board) {
+
+        // Check if the puzzle can reach the goal at all.
+        if (!Board.isReachable(board, this.size)) {
+            return -1;
+        }
+        return this.distances.get(HEADER + Oracle.rank(board, this.size * this.size)) & 0xFF;
+    }
+
+    /**
+     * Builds the table by breadth-first search from the goal state, one
+     * layer at a time. The ranks of each layer are scanned in parallel, and
+     * the children of its puzzles not yet reached are given the next move
+     * count. Two tasks can only ever write the same count to a puzzle, so
+     * they need no locking.
+     *
+     * @param  size of the puzzle.
+     * @return move counts indexed by rank.
+     */
+    static byte[] build(int size) {
+        int           cells = size * size;
+        byte[]        table = new byte[Oracle.countRanks(cells)];
+        AtomicBoolean grown = new AtomicBoolean(true);
+
+        Arrays.fill(table, UNKNOWN);
+        table[Oracle.rank(Searcher.setGoal(size), cells)] = 0;
+
+        // For each layer, while the previous one reached new puzzles.
+        for (int depth = 0; grown.getAndSet(false); depth++) {
+            byte layer = (byte) depth;
+            byte next  = (byte) (depth + 1);
+
+            IntStream.range(0, table.length).parallel().forEach(index -> {
+
+                // Check if the puzzle belongs to the current layer.
+                if (table[index] == layer) {
+                    long board = Oracle.unrank(index, size);
+                    int  blank = Board.findBlank(board, size);
+
+                    // For each tile that can be moved into the empty space.
+                    for (int target : Board.neighbors(size)[blank]) {
+                        int child = Oracle.rank(Board.move(board, blank, target), cells);
+
+                        // Check if the child was not reached yet.
+                        if (table[child] == UNKNOWN) {
+                            table[child] = next;
+                            grown.set(true);
+                        }
+                    }
+                }
+            });
+        }
+        return table;
+    }
+
+    /**
+     * Computes the rank of a puzzle from the positions of every tile but the
+     * last two, counted like PatternDatabase.rank().
+     *
+     * @param  board packed puzzle.
+     * @param  cells number of cells of the puzzle.
+     * @return rank of the puzzle.
+     */
+    static int rank(long board, int cells) {
+        long positions = 0L;
+        int  taken     = 0;
+        int  index     = 0;
+
+        // For each position of the puzzle, store it for its tile.
+        for (int pos = 0; pos < cells; pos++) {
+            positions |= (long) pos << (Board.tileAt(board, pos) << 2);
+        }
+
+        // For each ranked tile, add the number of free cells before it.
+        for (int tile = 0; tile < cells - 2; tile++) {
+            int pos = Board.tileAt(positions, tile);
+
+            index  = index * (cells - tile) + pos - Integer.bitCount(taken & ((1 << pos) - 1));
+            taken |= 1 << pos;
+        }
+        return index;
+    }
+
+    /**
+     * Rebuilds the reachable puzzle of a rank, placing the last two tiles in
+     * the order that keeps it reachable.
+     *
+     * @param  index rank of the puzzle.
+     * @param  size  of the puzzle.
+     * @return packed puzzle.
+     */
+    static long unrank(int index, int size) {
+        int   cells    = size * size;
+        int[] position = new int[cells - 2];
+        int   taken    = 0;
+        long  board    = 0L;
+
+        PatternDatabase.unrank(index, cells, position);
+
+        // For each ranked tile, place it.
+        for (int tile = 0; tile < position.length; tile++) {
+            board |= (long) tile << (position[tile] << 2);
+            taken |= 1 << position[tile];
+        }
+        int first  = Integer.numberOfTrailingZeros(~taken);
+        int second = Integer.numberOfTrailingZeros(~(taken | (1 << first)));
+
+        long placed = board | (long) (cells - 2) << (first << 2) 
+                            | (long) (cells - 1) << (second << 2);
+
+        // Check if the other order of the last two tiles is the reachable one.
+        if (!Board.isReachable(placed, size)) {
+            placed = board | (long) (cells - 1) << (first << 2) 
+                           | (long) (cells - 2) << (second << 2);
+        }
+        return placed;
+    }
+
+    /**
+     * Counts the ranks of a puzzle size, half the orders of its tiles.
+     *
+     * @param  cells number of cells of the puzzle.
+     * @return number of ranks.
+     */
+    private static int countRanks(int cells) {
+        int count = 1;
+
+        // For each ranked tile, multiply by the cells left for it.
+        for (int tile = 0; tile < cells - 2; tile++) {
+            count *= cells - tile;
+        }
+        return count;
+    }
+
+    /**
+     * Maps the table file into memory.
+     *
+     * @param  file holding the table.
+     * @return the table of move counts.
+     * @throws IOException if the file can not be read.
+     */
+    private static Oracle load(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                                                  channel.size());
+
+            // Check if the file holds a table of move counts.
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not an oracle table \"" + file + "\"");
+            }
+            int size = buffer.getInt();
+
+            // Check if the file holds a table for every rank.
+            if (channel.size() != HEADER + Oracle.countRanks(size * size)) {
+                throw new IOException("Truncated oracle table \"" + file + "\"");
+            }
+            return new Oracle(size, buffer);
+        }
+    }
+
+    /**
+     * Writes the table to the file.
+     *
+     * @param  file  to write the table to.
+     * @param  size  of the puzzle.
+     * @param  table move counts indexed by rank.
+     * @throws IOException if the file can not be written.
+     */
+    private static void write(File file, int size, byte[] table) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+
+        file.getParentFile().mkdirs();
+
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+
+            header.putInt(MAGIC).putInt(size);
+            header.flip();
+            PatternDatabase.writeFully(channel, header);
+            PatternDatabase.writeFully(channel, ByteBuffer.wrap(table));
+        }
+
+        // Check if the finished file replaced the temporary one.
+        if (!temp.renameTo(file)) {
+            throw new IOException("Error writing file \"" + file + "\"");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package main;
+
+/**
+ * This class solves puzzles by descending the exact move counts of the 
+ * Oracle: from the initial state, it always moves to the child one move 
+ * closer to the goal, so the solution is found without any search. Puzzles 
+ * too large for a table are handed to the fallback solver. The heuristic 
+ * type is only passed on to the fallback, since the move counts are exact.
+ * 
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class OracleSolver implements Solver {
+    private Solver fallback;
+
+    /**
+     * Constructor method.
+     * 
+     * @param fallback solver for puzzles larger than Oracle.MAX_SIZE.
+     */
+    public OracleSolver(Solver fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Follows the move counts from the initial state down to the goal 
+     * state. Each state on the way counts as expanded, and each child looked 
+     * up as generated.
+     * 
+     * @param  initial     initial state to solve.
+     * @param  heuristicTp heuristic type for the fallback solver.
+     * @return the result of the descent.
+     */
+    @Override
+    public SearchResult solve(State initial, String heuristicTp) {
+
+        // Check if the puzzle is too large for a table.
+        if (initial.getSize() > Oracle.MAX_SIZE) {
+            return this.fallback.solve(initial, heuristicTp);
+        }
+        long   startTime = System.nanoTime();
+        int    size      = initial.getSize();
+        Oracle oracle    = Oracle.forSize(size);
+        int    distance  = oracle.findDistance(initial.getBoard());
+        long   generated = 0;
+
+        // Check if the goal can be reached at all.
+        if (distance < 0) {
+            return new SearchResult(null, 0, 0, 0, System.nanoTime() - startTime);
+        }
+        State curr = new State(initial.getBoard(), initial.getBlank(), size, null);
+
+        curr.setHeuristic(distance);
+        curr.updateEvalFunc();
+
+        // Take the move towards the goal until it is reached.
+        while (distance > 0) {
+            long board = curr.getBoard();
+            int  blank = curr.getBlank();
+
+            // For each tile that can be moved into the empty space.
+            for (int target : Board.neighbors(size)[blank]) {
+                long child = Board.move(board, blank, target);
+
+                generated++;
+
+                // Check if the child is one move closer to the goal.
+                if (oracle.findDistance(child) == distance - 1) {
+                    State next = new State(child, target, size, curr);
+
+                    next.setPathCost(curr.getPathCost() + 1);
+                    next.setHeuristic(distance - 1);
+                    next.updateEvalFunc();
+                    curr = next;
+                    break;
+                }
+            }
+            distance--;
+        }
+        return new SearchResult(curr, curr.getPathCost() + 1, generated, 0, 
+                                System.nanoTime() - startTime);
+    }
+}
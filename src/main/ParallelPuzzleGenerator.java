@@ -0,0 +1,143 @@
+package main;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * This class generates puzzle sets of any length in parallel, streaming
+ * them to a PuzzleSetWriter instead of keeping them in memory. The puzzles
+ * are made in chunks of a fixed number, and each chunk draws its moves from
+ * its own SplittableRandom, seeded from the set seed and the chunk number
+ * alone, so a set comes out the same whatever the number of threads or the
+ * order the chunks finish in. A window of chunks is generated in parallel,
+ * then written in order before the next window starts, which bounds the
+ * memory used. Each puzzle is a walk of the given number of moves from the
+ * goal state, every move picked among the legal ones of Board.neighbors()
+ * other than the one undoing the last move, so no move is wasted. Unlike
+ * PuzzleGenerator, whose walks skip illegal and idle moves, the puzzles are
+ * not the same as the ones generated by PuzzleGenerator from the same seed.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class ParallelPuzzleGenerator {
+    public  static final int  CHUNK_SIZE = 1 << 14;
+
+    private static final int  WINDOW     = 4 * Runtime.getRuntime().availableProcessors();
+    private static final long GOLDEN     = 0x9E3779B97F4A7C15L;
+
+    private long seed;
+
+    /**
+     * Constructor method.
+     *
+     * @param seed seed of the set, from which every chunk is seeded.
+     */
+    public ParallelPuzzleGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Generates the puzzles of a set and writes them in order.
+     *
+     * @param  size   of the puzzles.
+     * @param  swaps  number of moves made from the goal state.
+     * @param  number of puzzles to generate.
+     * @param  writer to write the puzzles to.
+     * @throws IOException if the puzzles can not be written.
+     */
+    public void generate(int size, int swaps, long number, PuzzleSetWriter writer)
+            throws IOException {
+
+        // Check if the puzzles can be packed.
+        if (size < 2 || size > WideBoard.MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported puzzle size " + size);
+        }
+        long     chunks = (number + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        long[][] lows   = new long[WINDOW][CHUNK_SIZE];
+        long[][] highs  = new long[WINDOW][CHUNK_SIZE];
+
+        // For each window of chunks.
+        for (long first = 0; first < chunks; first += WINDOW) {
+            long start = first;
+            int  count = (int) Math.min(WINDOW, chunks - first);
+
+            IntStream.range(0, count).parallel().forEach(slot -> {
+                long chunk  = start + slot;
+                int  length = (int) Math.min(CHUNK_SIZE, number - chunk * CHUNK_SIZE);
+
+                this.makeChunk(chunk, size, swaps, length, lows[slot], highs[slot]);
+            });
+
+            // For each chunk of the window, write its puzzles in order.
+            for (int slot = 0; slot < count; slot++) {
+                long chunk  = start + slot;
+                int  length = (int) Math.min(CHUNK_SIZE, number - chunk * CHUNK_SIZE);
+
+                // For each puzzle of the chunk.
+                for (int i = 0; i < length; i++) {
+                    writer.add(highs[slot][i], lows[slot][i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the puzzles of a chunk from its own random stream.
+     *
+     * @param chunk  number of the chunk within the set.
+     * @param size   of the puzzles.
+     * @param swaps  number of moves made from the goal state.
+     * @param length number of puzzles of the chunk.
+     * @param lows   to store each packed puzzle, or its low half, in.
+     * @param highs  to store the high half of each packed puzzle in.
+     */
+    private void makeChunk(long chunk, int size, int swaps, int length, long[] lows,
+                           long[] highs) {
+        SplittableRandom random    = new SplittableRandom(this.seed + (chunk + 1) * GOLDEN);
+        int[][]          neighbors = Board.neighbors(size);
+        int[]            tiles     = new int[size * size];
+
+        // For each puzzle of the chunk, walk away from the goal state.
+        for (int i = 0; i < length; i++) {
+            int blank    = 0;
+            int previous = -1;
+
+            // For each position of the goal, place its tile.
+            for (int pos = 0; pos < tiles.length; pos++) {
+                tiles[pos] = pos;
+            }
+
+            // For each move, slide a random neighbor into the empty space.
+            for (int swap = 0; swap < swaps; swap++) {
+                int[] moves  = neighbors[blank];
+                int   target = moves[random.nextInt(moves.length)];
+
+                // Check if the move undoes the last one, and pick another.
+                while (target == previous) {
+                    target = moves[random.nextInt(moves.length)];
+                }
+                tiles[blank]  = tiles[target];
+                tiles[target] = 0;
+                previous      = blank;
+                blank         = target;
+            }
+
+            // Check if the puzzle fits into a long.
+            if (size <= Board.MAX_SIZE) {
+                long board = 0L;
+
+                // For each position of the puzzle, store its tile.
+                for (int pos = 0; pos < tiles.length; pos++) {
+                    board |= (long) tiles[pos] << (pos << 2);
+                }
+                lows[i]  = board;
+                highs[i] = 0L;
+            } else {
+                lows[i]  = WideBoard.pack(tiles, false);
+                highs[i] = WideBoard.pack(tiles, true);
+            }
+        }
+    }
+}
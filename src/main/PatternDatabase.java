@@ -0,0 +1,514 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * This class implements the additive disjoint pattern database heuristic.
+ * The tiles are split into disjoint patterns, and for each pattern a table
+ * stores the number of moves of its own tiles needed to bring them from any
+ * placement to their goal positions. Only moves of pattern tiles are counted,
+ * so the values of the different patterns can be added without
+ * overestimating. The forSize() method returns the database of a puzzle
+ * size, loading its tables from the folder named by the "pdbDir" system
+ * property, data/pdb by default, or building them with build() and writing
+ * them there with write() on the first run. Tables are memory-mapped when
+ * loaded. The findHeuristic() method adds up the table entries of a packed
+ * puzzle, and rank() and unrank() convert between placements of pattern
+ * tiles and table indices.
+ *
+ * @author  Maksym Turkot
+ * @version 10/09/22
+ */
+public class PatternDatabase {
+    private static final int    MAGIC = 0x50444231; // "PDB1"
+    private static final String DIR   = System.getProperty("pdbDir", "data/pdb");
+
+    // Replaced by a copy whenever a database is added, so it is read without locking.
+    private static volatile PatternDatabase[] databases = new PatternDatabase[Board.MAX_SIZE + 1];
+
+    private int        cells;
+    private int[][]    patterns;
+    private int[]      offsets;
+    private ByteBuffer tables;
+
+    /**
+     * Constructor method.
+     *
+     * @param size     of the puzzle.
+     * @param patterns disjoint sets of tiles, one table per set.
+     * @param offsets  position of each table in the tables buffer.
+     * @param tables   buffer holding the tables of all patterns.
+     */
+    private PatternDatabase(int size, int[][] patterns, int[] offsets, ByteBuffer tables) {
+        this.cells    = size * size;
+        this.patterns = patterns;
+        this.offsets  = offsets;
+        this.tables   = tables;
+    }
+
+    /**
+     * Returns the pattern database for the puzzle size, loading or building
+     * it on the first call. Only the first call locks.
+     *
+     * @param  size of the puzzle.
+     * @return the pattern database.
+     */
+    public static PatternDatabase forSize(int size) {
+        PatternDatabase database = databases[size];
+
+        // Check if the database has to be loaded.
+        if (database == null) {
+            database = PatternDatabase.loadForSize(size);
+        }
+        return database;
+    }
+
+    /**
+     * Loads the pattern database for the puzzle size, building its tables
+     * first if they are not on disk, unless another thread already did.
+     *
+     * @param  size of the puzzle.
+     * @return the pattern database.
+     */
+    private static synchronized PatternDatabase loadForSize(int size) {
+
+        // Check if another thread loaded the database meanwhile.
+        if (databases[size] == null) {
+            File              file  = new File(DIR + "/pdb-" + size + ".bin");
+            PatternDatabase[] added = databases.clone();
+
+            try {
+
+                // Check if the tables have to be built first.
+                if (!file.exists()) {
+                    PatternDatabase.write(file, size, PatternDatabase.findPatterns(size));
+                }
+                added[size] = PatternDatabase.load(file);
+            } catch (IOException ioe) {
+                throw new IllegalStateException("Error loading file \"" + file + "\"", ioe);
+            }
+            databases = added;
+        }
+        return databases[size];
+    }
+
+    /**
+     * Splits the tiles of the puzzle into the disjoint patterns: 6-6-3 for
+     * the 15-puzzle, 4-4 for the 8-puzzle, and a single pattern for the
+     * 3-puzzle.
+     *
+     * @param  size of the puzzle.
+     * @return disjoint sets of tiles.
+     */
+    static int[][] findPatterns(int size) {
+
+        // Check what size patterns to create.
+        switch(size) {
+
+            // Create 3-puzzle patterns.
+            case 2:
+                return new int[][] {{1, 2, 3}};
+
+            // Create 8-puzzle patterns.
+            case 3:
+                return new int[][] {{1, 2, 3, 4}, {5, 6, 7, 8}};
+
+            // Create 15-puzzle patterns.
+            case 4:
+                return new int[][] {{1, 4, 5, 8, 9, 12}, {2, 3, 6, 7, 10, 11},
+                                    {13, 14, 15}};
+
+            // For undefined size.
+            default:
+                throw new IllegalArgumentException("Unsupported puzzle size " + size);
+        }
+    }
+
+    /**
+     * Adds up the table entries of every pattern for the packed puzzle.
+     *
+     * @param  board packed puzzle to compute heuristic for.
+     * @return heuristic value.
+     */
+    public int findHeuristic(long board) {
+        long position = 0L;
+        int  total    = 0;
+
+        // For each position of the puzzle, note where its tile is, packed.
+        for (int pos = 0; pos < this.cells; pos++) {
+            position |= (long) pos << (Board.tileAt(board, pos) << 2);
+        }
+
+        // For each pattern, look up the table entry.
+        for (int i = 0; i < this.patterns.length; i++) {
+            int[] pattern = this.patterns[i];
+            int   index   = 0;
+
+            // For each tile of the pattern, add its rank digit.
+            for (int j = 0; j < pattern.length; j++) {
+                int pos   = Board.tileAt(position, pattern[j]);
+                int digit = pos;
+
+                // Count the smaller positions already taken.
+                for (int k = 0; k < j; k++) {
+                    digit -= Board.tileAt(position, pattern[k]) < pos ? 1 : 0;
+                }
+                index = index * (this.cells - j) + digit;
+            }
+            total += this.tables.get(this.offsets[i] + index);
+        }
+        return total;
+    }
+
+    /**
+     * Maps the file holding the tables and reads its header.
+     *
+     * @param  file holding the tables.
+     * @return the pattern database.
+     * @throws IOException if the file can not be read.
+     */
+    private static PatternDatabase load(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                                                  channel.size());
+
+            // Check if the file holds pattern tables.
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a pattern database \"" + file + "\"");
+            }
+            int     size     = buffer.getInt();
+            int     cells    = size * size;
+            int[][] patterns = new int[buffer.getInt()][];
+            int[]   offsets  = new int[patterns.length];
+
+            // For each pattern, read its tiles.
+            for (int i = 0; i < patterns.length; i++) {
+                patterns[i] = new int[buffer.getInt()];
+
+                // For each tile of the pattern.
+                for (int j = 0; j < patterns[i].length; j++) {
+                    patterns[i][j] = buffer.getInt();
+                }
+            }
+            int offset = buffer.position();
+
+            // For each pattern, find where its table starts.
+            for (int i = 0; i < patterns.length; i++) {
+                offsets[i] = offset;
+                offset    += PatternDatabase.countPlacements(cells, patterns[i].length);
+            }
+            return new PatternDatabase(size, patterns, offsets, buffer);
+        }
+    }
+
+    /**
+     * Builds the tables of every pattern and writes them to the file.
+     *
+     * @param  file     to write the tables to.
+     * @param  size     of the puzzle.
+     * @param  patterns disjoint sets of tiles.
+     * @throws IOException if the file can not be written.
+     */
+    private static void write(File file, int size, int[][] patterns) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+
+        file.getParentFile().mkdirs();
+
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+             FileChannel channel = raf.getChannel()) {
+            int        headerSize = 12;
+
+            // For each pattern, reserve space for its tiles.
+            for (int[] pattern : patterns) {
+                headerSize += 4 + 4 * pattern.length;
+            }
+            ByteBuffer header = ByteBuffer.allocate(headerSize);
+
+            header.putInt(MAGIC).putInt(size).putInt(patterns.length);
+
+            // For each pattern, write its tiles.
+            for (int[] pattern : patterns) {
+                header.putInt(pattern.length);
+
+                // For each tile of the pattern.
+                for (int tile : pattern) {
+                    header.putInt(tile);
+                }
+            }
+            header.flip();
+            PatternDatabase.writeFully(channel, header);
+
+            // For each pattern, build and append its table.
+            for (int[] pattern : patterns) {
+                PatternDatabase.writeFully(channel, ByteBuffer.wrap(PatternDatabase.build(size, pattern)));
+            }
+        }
+
+        // Check if the finished file replaced the temporary one.
+        if (!temp.renameTo(file)) {
+            throw new IOException("Error writing file \"" + file + "\"");
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer to the channel.
+     *
+     * @param  channel to write to.
+     * @param  buffer  to write.
+     * @throws IOException if the channel can not be written.
+     */
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+
+        // Write until the buffer is drained.
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Builds the table of a pattern by breadth-first search backwards from
+     * the goal state. Each search state holds the positions of the pattern
+     * tiles and the empty tile. Moving the empty tile over a cell without a
+     * pattern tile costs nothing, so such moves are explored within the
+     * current layer, while moving a pattern tile leads to the next layer.
+     *
+     * @param  size    of the puzzle.
+     * @param  pattern tiles of the pattern.
+     * @return table of move counts indexed by the rank of the placement.
+     */
+    static byte[] build(int size, int[] pattern) {
+        int     cells     = size * size;
+        int     k         = pattern.length;
+        int[][] neighbors = Board.neighbors(size);
+        long    goal      = Searcher.setGoal(size);
+        byte[]  table     = new byte[PatternDatabase.countPlacements(cells, k)];
+        long[]  visited   = new long[(int) (((long) table.length * cells + 63) >>> 6)];
+        int[]   position  = new int[k];
+        IntQueue current  = new IntQueue();
+        IntQueue next     = new IntQueue();
+
+        Arrays.fill(table, (byte) -1);
+
+        // For each tile of the pattern, find its goal position.
+        for (int i = 0; i < k; i++) {
+            position[i] = PatternDatabase.findTile(goal, cells, pattern[i]);
+        }
+        current.add(PatternDatabase.rank(position, cells) * cells
+                    + PatternDatabase.findTile(goal, cells, 0));
+
+        // For each layer of move counts.
+        for (int depth = 0; !current.isEmpty(); depth++) {
+
+            // For each search state of the layer, including free moves.
+            while (!current.isEmpty()) {
+                int state = current.poll();
+                int index = state / cells;
+                int blank = state % cells;
+
+                // Check if the state was already reached.
+                if ((visited[state >>> 6] & (1L << state)) != 0) {
+                    continue;
+                }
+                visited[state >>> 6] |= 1L << state;
+
+                // Check if this is the first time the placement is reached.
+                if (table[index] < 0) {
+                    table[index] = (byte) depth;
+                }
+                PatternDatabase.unrank(index, cells, position);
+
+                // For each cell the empty tile can move to.
+                for (int target : neighbors[blank]) {
+                    int tile = PatternDatabase.indexOf(position, target);
+
+                    // Check if a pattern tile occupies the cell.
+                    if (tile < 0) {
+                        current.add(index * cells + target);
+                    } else {
+                        position[tile] = blank;
+                        next.add(PatternDatabase.rank(position, cells) * cells + target);
+                        position[tile] = target;
+                    }
+                }
+            }
+            IntQueue temp = current;
+
+            current = next;
+            next    = temp;
+        }
+        return table;
+    }
+
+    /**
+     * Computes the table index of a placement of pattern tiles.
+     *
+     * @param  position cell of each pattern tile.
+     * @param  cells    number of cells of the puzzle.
+     * @return table index.
+     */
+    static int rank(int[] position, int cells) {
+        int index = 0;
+
+        // For each tile, add the number of free cells before it.
+        for (int j = 0; j < position.length; j++) {
+            int digit = position[j];
+
+            // Count the smaller positions already taken.
+            for (int k = 0; k < j; k++) {
+                digit -= position[k] < position[j] ? 1 : 0;
+            }
+            index = index * (cells - j) + digit;
+        }
+        return index;
+    }
+
+    /**
+     * Computes the placement of pattern tiles from a table index.
+     *
+     * @param index    table index.
+     * @param cells    number of cells of the puzzle.
+     * @param position array to store the cell of each pattern tile to.
+     */
+    static void unrank(int index, int cells, int[] position) {
+        int taken = 0;
+
+        // Split the index into the digits, last tile first.
+        for (int j = position.length - 1; j >= 0; j--) {
+            position[j] = index % (cells - j);
+            index      /= cells - j;
+        }
+
+        // For each tile, turn the count of free cells before it into a cell.
+        for (int j = 0; j < position.length; j++) {
+            int free = position[j];
+            int cell = 0;
+
+            // Walk the cells, skipping the taken ones, until enough were free.
+            while ((taken & (1 << cell)) != 0 || free-- > 0) {
+                cell++;
+            }
+            position[j] = cell;
+            taken      |= 1 << cell;
+        }
+    }
+
+    /**
+     * Counts the placements of pattern tiles on the puzzle.
+     *
+     * @param  cells number of cells of the puzzle.
+     * @param  k     number of tiles in the pattern.
+     * @return number of placements.
+     */
+    private static int countPlacements(int cells, int k) {
+        int count = 1;
+
+        // For each tile, multiply by the number of free cells.
+        for (int j = 0; j < k; j++) {
+            count *= cells - j;
+        }
+        return count;
+    }
+
+    /**
+     * Finds the position of a tile in the packed puzzle.
+     *
+     * @param  board packed puzzle.
+     * @param  cells number of cells of the puzzle.
+     * @param  tile  value to look for.
+     * @return position of the tile.
+     */
+    private static int findTile(long board, int cells, int tile) {
+
+        // For each position of the puzzle.
+        for (int pos = 0; pos < cells; pos++) {
+
+            // Check if tile matches the desired value.
+            if (Board.tileAt(board, pos) == tile) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds which pattern tile occupies the cell.
+     *
+     * @param  position cell of each pattern tile.
+     * @param  cell     to look up.
+     * @return index of the pattern tile, or -1 if the cell is free.
+     */
+    private static int indexOf(int[] position, int cell) {
+
+        // For each tile of the pattern.
+        for (int j = 0; j < position.length; j++) {
+
+            // Check if the tile occupies the cell.
+            if (position[j] == cell) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Implements a growable first-in first-out queue of ints for the search
+     * states of the build.
+     *
+     * @author  Maksym Turkot
+     * @version 10/09/22
+     */
+    private static class IntQueue {
+        private int[] items = new int[1024];
+        private int   head  = 0;
+        private int   tail  = 0;
+
+        /**
+         * Checks if the queue is empty.
+         *
+         * @return true if there are no items left.
+         */
+        boolean isEmpty() {
+            return this.head == this.tail;
+        }
+
+        /**
+         * Appends an item, compacting or growing the array when full.
+         *
+         * @param item to append.
+         */
+        void add(int item) {
+
+            // Check if the array is full.
+            if (this.tail == this.items.length) {
+                int count = this.tail - this.head;
+
+                // Check if compacting frees enough space.
+                if (count < this.items.length / 2) {
+                    System.arraycopy(this.items, this.head, this.items, 0, count);
+                } else {
+                    this.items = Arrays.copyOfRange(this.items, this.head,
+                                                    this.head + this.items.length * 2);
+                }
+                this.head = 0;
+                this.tail = count;
+            }
+            this.items[this.tail++] = item;
+        }
+
+        /**
+         * Removes the first item.
+         *
+         * @return the first item.
+         */
+        int poll() {
+            return this.items[this.head++];
+        }
+    }
+}
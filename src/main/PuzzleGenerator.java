@@ -40,40 +40,23 @@ public class PuzzleGenerator {
     }
 
     /**
-     * Generates a goal state for passed puzzle size.
+     * Generates a goal state for passed puzzle size, with tile i at 
+     * position i.
      * 
      * @param  size of the puzzle.
      * @return the goal state.
      */
     private int[][] makeGoal(int size) {
-        int[][] puzzle;
-
-        // Check puzzle size.
-        switch(size) {
-
-            // For 3-puzzle.
-            case 2:
-                int[][] temp2 = {{0, 1}, {2, 3}};
-                puzzle        = temp2;
-                break;
-
-            // For 8-puzzle.
-            case 3:
-                int[][] temp3 = {{0, 1, 2}, {3, 4, 5}, {6, 7, 8}};
-                puzzle        = temp3;
-                break;
-
-            // For 15-puzzle.
-            case 4:
-                int[][] temp4 = {{0, 1, 2, 3}, {4, 5, 6, 7}, {8, 9, 10, 11}, 
-                                 {12, 13, 14, 15}};
-                puzzle        = temp4;
-                break;
-            
-            // For undefined size.
-            default:
-                int[][] temp0 = {{},{}};
-                puzzle        = temp0;
+
+        // Check if the size makes a puzzle.
+        if (size < 2) {
+            throw new IllegalArgumentException("Unsupported puzzle size " + size);
+        }
+        int[][] puzzle = new int[size][size];
+
+        // For each position of the puzzle, place its tile.
+        for (int i = 0; i < size * size; i++) {
+            puzzle[i / size][i % size] = i;
         }
         return puzzle;
     }
@@ -0,0 +1,109 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * This class converts puzzle set files between the text format and the
+ * binary one, streaming the puzzles so that files of any length convert in
+ * constant memory. The size, seed and swaps of a text file are taken from
+ * its name, puzzleSet-size-seed-swaps-number.txt, and written to the header
+ * of the binary file, which keeps them for the conversion back. The main()
+ * method converts each file given to it into the other format, next to it.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class PuzzleSetConverter {
+
+    /**
+     * Converts each file given into the other format, replacing the ".txt"
+     * extension with ".bin" and back.
+     *
+     * @param  args paths of the puzzle set files to convert.
+     * @throws IOException if a file can not be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+
+        // For each file given, convert it.
+        for (String arg : args) {
+            File   from = new File(arg);
+            String name = from.getPath();
+            File   to   = new File(name.substring(0, name.length() - 4)
+                                   + (name.endsWith(".bin") ? ".txt" : ".bin"));
+
+            // Check which way to convert.
+            if (name.endsWith(".bin")) {
+                PuzzleSetConverter.toText(from, to);
+            } else {
+                int[] info = PuzzleSetConverter.splitName(from.getName());
+
+                PuzzleSetConverter.toBinary(from, to, info[0], info[1], info[2]);
+            }
+            System.out.println("File \"" + to + "\" converted successfully");
+        }
+    }
+
+    /**
+     * Converts a text puzzle set into a binary one.
+     *
+     * @param  text   file to read.
+     * @param  binary file to write.
+     * @param  size   of the puzzles.
+     * @param  seed   the puzzles were generated with.
+     * @param  swaps  the puzzles were generated with.
+     * @return number of puzzles converted.
+     * @throws IOException if a file can not be read or written.
+     */
+    public static long toBinary(File text, File binary, int size, int seed, int swaps)
+            throws IOException {
+        try (PuzzleSetReader reader = new PuzzleSetReader(text, size);
+             PuzzleSetWriter writer = new PuzzleSetWriter(binary, size, seed, swaps, true)) {
+
+            // For each puzzle of the text file, write it packed.
+            while (reader.next()) {
+                writer.add(reader.getBoardHigh(), reader.getBoard());
+            }
+            return writer.getCount();
+        }
+    }
+
+    /**
+     * Converts a binary puzzle set into a text one.
+     *
+     * @param  binary file to read.
+     * @param  text   file to write.
+     * @return number of puzzles converted.
+     * @throws IOException if a file can not be read or written.
+     */
+    public static long toText(File binary, File text) throws IOException {
+        BinaryPuzzleSet set = new BinaryPuzzleSet(binary);
+
+        try (PuzzleSetWriter writer = new PuzzleSetWriter(text, set.getSize(), set.getSeed(),
+                                                          set.getSwaps(), false)) {
+
+            // For each puzzle of the binary file, write it as text.
+            for (int i = 0; i < set.getCount(); i++) {
+                writer.add(set.getBoardHigh(i), set.getBoard(i));
+            }
+            return writer.getCount();
+        }
+    }
+
+    /**
+     * Splits the name of a puzzle set file into its size, seed and swaps.
+     *
+     * @param  name of the file, puzzleSet-size-seed-swaps-number.txt.
+     * @return array of [size, seed, swaps].
+     */
+    private static int[] splitName(String name) {
+        String[] tokens = name.substring(0, name.length() - 4).split("-");
+
+        // Check if the name follows the convention.
+        if (tokens.length != 5) {
+            throw new IllegalArgumentException("Unexpected puzzle set name \"" + name + "\"");
+        }
+        return new int[] {Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]),
+                          Integer.parseInt(tokens[3])};
+    }
+}
@@ -0,0 +1,264 @@
+package main;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads a puzzle set file one puzzle at a time, straight into the
+ * packed form, so that a file of any length is read in constant memory. The
+ * file is read from a FileChannel through a single reused buffer, and the
+ * tiles are parsed from its bytes as they come: every run of digits is a
+ * tile, and every size * size tiles make a puzzle, so the brackets, commas
+ * and line breaks of the "[[a, b], [c, d]]" format are skipped without ever
+ * making a String. The next() method moves to the next puzzle, and
+ * getBoard(), getBoardHigh() and getBlank() describe it, packed like State
+ * packs it, with puzzles larger than Board.MAX_SIZE packed by WideBoard.
+ * Every tile of a puzzle has to be in range and appear exactly once, and
+ * errors name the puzzle and the line of the file it ends on.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class PuzzleSetReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private FileChannel channel;
+    private ByteBuffer  buffer;
+    private File        file;
+    private int         size;
+    private int[]       tiles;
+    private long        board;
+    private long        boardHigh;
+    private int         blank;
+    private long        count;
+    private long        line;
+
+    /**
+     * Constructor method, opening the file.
+     *
+     * @param  file to read the puzzles from.
+     * @param  size of the puzzles.
+     * @throws IOException if the file can not be opened.
+     */
+    public PuzzleSetReader(File file, int size) throws IOException {
+
+        // Check if the puzzles can be packed.
+        if (size < 2 || size > WideBoard.MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported puzzle size " + size);
+        }
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.buffer  = ByteBuffer.allocate(BUFFER_SIZE);
+        this.file    = file;
+        this.size    = size;
+        this.tiles   = new int[size * size];
+        this.count   = 0;
+        this.line    = 1;
+
+        this.buffer.flip();
+    }
+
+    /**
+     * Getter for the size of the puzzles.
+     *
+     * @return size of the puzzles.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Getter for the packed current puzzle, its low half if it is larger
+     * than Board.MAX_SIZE.
+     *
+     * @return packed puzzle.
+     */
+    public long getBoard() {
+        return this.board;
+    }
+
+    /**
+     * Getter for the high half of the packed current puzzle.
+     *
+     * @return high half of the packed puzzle, 0 if it fits into a long.
+     */
+    public long getBoardHigh() {
+        return this.boardHigh;
+    }
+
+    /**
+     * Getter for the position of the empty tile of the current puzzle.
+     *
+     * @return position of the empty tile, row * size + col.
+     */
+    public int getBlank() {
+        return this.blank;
+    }
+
+    /**
+     * Getter for the number of puzzles read so far.
+     *
+     * @return number of puzzles read.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Creates the state of the current puzzle.
+     *
+     * @return initial state holding the current puzzle.
+     */
+    public State makeState() {
+        return new State(this.boardHigh, this.board, this.blank, this.size, null);
+    }
+
+    /**
+     * Moves to the next puzzle of the file.
+     *
+     * @return true if there was a next puzzle, false at the end of the file.
+     * @throws IOException if the file can not be read, or holds a puzzle
+     *                     that is cut short, has a tile out of range, or
+     *                     has a tile more than once.
+     */
+    public boolean next() throws IOException {
+        int cells = this.tiles.length;
+        int read  = 0;
+        int tile  = -1;
+
+        // While the puzzle is not complete, parse the next byte.
+        while (true) {
+
+            // Check if the buffer has to be refilled.
+            if (!this.buffer.hasRemaining()) {
+                this.buffer.clear();
+
+                // Check if the end of the file was reached.
+                if (this.channel.read(this.buffer) < 0) {
+                    this.buffer.flip();
+                    break;
+                }
+                this.buffer.flip();
+                continue;
+            }
+            byte b = this.buffer.get();
+
+            // Check if the byte is a digit of a tile.
+            if (b >= '0' && b <= '9') {
+                tile = (tile < 0 ? 0 : tile * 10) + (b - '0');
+
+                // Check if the tile is out of range.
+                if (tile >= cells) {
+                    throw new IOException("Tile " + tile + " out of range in "
+                                          + this.describe());
+                }
+            } else if (tile >= 0) {
+                this.tiles[read++] = tile;
+                tile               = -1;
+
+                // Check if the puzzle is complete.
+                if (read == cells) {
+                    this.pack();
+
+                    // Check if the tile ended at a line break, counted after the puzzle.
+                    if (b == '\n') {
+                        this.line++;
+                    }
+                    return true;
+                }
+            }
+
+            // Check if the byte ends a line.
+            if (b == '\n') {
+                this.line++;
+            }
+        }
+
+        // Check if the file ended right after the last digit of a tile.
+        if (tile >= 0) {
+            this.tiles[read++] = tile;
+
+            // Check if it was the last tile of the puzzle.
+            if (read == cells) {
+                this.pack();
+                return true;
+            }
+        }
+
+        // Check if the file ended in the middle of a puzzle.
+        if (read > 0) {
+            throw new EOFException("Unfinished " + this.describe());
+        }
+        return false;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if the file can not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Names the puzzle being read and the line it is on, for error messages.
+     *
+     * @return description of the current puzzle.
+     */
+    private String describe() {
+        return "puzzle " + (this.count + 1) + ", line " + this.line + " of \"" + this.file + "\"";
+    }
+
+    /**
+     * Packs the parsed tiles into the current puzzle, after checking that
+     * no tile appears twice. The tiles are all in range and there are as
+     * many as positions, so then each of them appears exactly once.
+     *
+     * @throws IOException if a tile appears more than once.
+     */
+    private void pack() throws IOException {
+        long seen = 0L;
+
+        // For each position of the puzzle, check its tile was not seen yet.
+        for (int pos = 0; pos < this.tiles.length; pos++) {
+
+            // Check if the tile appeared before.
+            if ((seen & (1L << this.tiles[pos])) != 0) {
+                throw new IOException("Tile " + this.tiles[pos] + " repeated in "
+                                      + this.describe());
+            }
+            seen |= 1L << this.tiles[pos];
+        }
+        this.count++;
+
+        // Check if the puzzle fits into a long.
+        if (this.size <= Board.MAX_SIZE) {
+            this.board     = 0L;
+            this.boardHigh = 0L;
+
+            // For each position of the puzzle, store its tile.
+            for (int pos = 0; pos < this.tiles.length; pos++) {
+                this.board |= (long) this.tiles[pos] << (pos << 2);
+            }
+        } else {
+            this.board     = WideBoard.pack(this.tiles, false);
+            this.boardHigh = WideBoard.pack(this.tiles, true);
+        }
+
+        // For each position of the puzzle, look for the empty tile.
+        for (int pos = 0; pos < this.tiles.length; pos++) {
+
+            // Check if the position holds the empty tile.
+            if (this.tiles[pos] == 0) {
+                this.blank = pos;
+                break;
+            }
+        }
+    }
+}
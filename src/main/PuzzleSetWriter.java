@@ -0,0 +1,252 @@
+package main;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes a puzzle set file one puzzle at a time, so that a set of
+ * any length is written in constant memory. A text file holds a puzzle per
+ * line in the "[[a, b], [c, d]]" format read by PuzzleSetReader. A binary
+ * file starts with a header holding the size, seed, swaps and number of
+ * puzzles, followed by every puzzle in its packed form at a fixed width, one
+ * long for puzzles up to Board.MAX_SIZE and two for larger ones, high half
+ * first, so that BinaryPuzzleSet finds the i-th puzzle without reading the
+ * others. Both formats are written through a single reused buffer on a
+ * FileChannel, and the number of puzzles of a binary file is filled in by
+ * close().
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class PuzzleSetWriter implements Closeable {
+    public  static final int MAGIC       = 0x50534231; // "PSB1"
+    public  static final int HEADER      = 24;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private FileChannel channel;
+    private ByteBuffer  buffer;
+    private boolean     binary;
+    private int         size;
+    private int[]       tiles;
+    private long        count;
+
+    /**
+     * Constructor method, creating the file or overwriting an existing one.
+     *
+     * @param  file   to write the puzzles to.
+     * @param  size   of the puzzles.
+     * @param  seed   the puzzles were generated with, kept by binary files.
+     * @param  swaps  the puzzles were generated with, kept by binary files.
+     * @param  binary true for the binary format, false for text.
+     * @throws IOException if the file can not be created.
+     */
+    public PuzzleSetWriter(File file, int size, int seed, int swaps, boolean binary)
+            throws IOException {
+
+        // Check if the puzzles can be packed.
+        if (size < 2 || size > WideBoard.MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported puzzle size " + size);
+        }
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer  = ByteBuffer.allocate(BUFFER_SIZE);
+        this.binary  = binary;
+        this.size    = size;
+        this.tiles   = new int[size * size];
+        this.count   = 0;
+
+        // Check if the header has to be written, the count filled in later.
+        if (binary) {
+            this.buffer.putInt(MAGIC).putInt(size).putInt(seed).putInt(swaps).putLong(0L);
+        }
+    }
+
+    /**
+     * Getter for the width of a packed puzzle in a binary file.
+     *
+     * @param  size of the puzzles.
+     * @return bytes taken by each puzzle.
+     */
+    public static int recordSize(int size) {
+        return size <= Board.MAX_SIZE ? Long.BYTES : 2 * Long.BYTES;
+    }
+
+    /**
+     * Getter for the number of puzzles written so far.
+     *
+     * @return number of puzzles written.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Writes the puzzle of a state.
+     *
+     * @param  state holding the puzzle.
+     * @throws IOException if the file can not be written.
+     */
+    public void add(State state) throws IOException {
+        this.add(state.getBoardHigh(), state.getBoard());
+    }
+
+    /**
+     * Writes a puzzle array.
+     *
+     * @param  puzzle array.
+     * @throws IOException if the file can not be written.
+     */
+    public void add(int[][] puzzle) throws IOException {
+
+        // For each position of the puzzle, copy its tile.
+        for (int i = 0; i < this.tiles.length; i++) {
+            this.tiles[i] = puzzle[i / this.size][i % this.size];
+        }
+        this.add(this.tiles);
+    }
+
+    /**
+     * Writes a packed puzzle.
+     *
+     * @param  boardHigh high half of the packed puzzle, 0 if it fits a long.
+     * @param  board     packed puzzle, or its low half.
+     * @throws IOException if the file can not be written.
+     */
+    public void add(long boardHigh, long board) throws IOException {
+
+        // Check if the puzzle is written packed, or has to be unpacked.
+        if (this.binary) {
+            this.reserve(recordSize(this.size));
+
+            // Check if the puzzle takes two longs.
+            if (this.size > Board.MAX_SIZE) {
+                this.buffer.putLong(boardHigh);
+            }
+            this.buffer.putLong(board);
+            this.count++;
+        } else if (this.size > Board.MAX_SIZE) {
+            WideBoard.unpack(boardHigh, board, this.tiles);
+            this.add(this.tiles);
+        } else {
+
+            // For each position of the puzzle, read its tile.
+            for (int pos = 0; pos < this.tiles.length; pos++) {
+                this.tiles[pos] = Board.tileAt(board, pos);
+            }
+            this.add(this.tiles);
+        }
+    }
+
+    /**
+     * Writes the rest of the buffer and, for a binary file, the number of
+     * puzzles, then closes the file.
+     *
+     * @throws IOException if the file can not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+
+            // Check if the number of puzzles has to be filled in.
+            if (this.binary) {
+                ByteBuffer number = ByteBuffer.allocate(Long.BYTES).putLong(0, this.count);
+
+                this.channel.write(number, HEADER - Long.BYTES);
+            }
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Writes a flat puzzle, as a line of text like Arrays.deepToString()
+     * writes the puzzle array, or packed.
+     *
+     * @param  flat puzzle, tile at position row * size + col.
+     * @throws IOException if the file can not be written.
+     */
+    private void add(int[] flat) throws IOException {
+
+        // Check if the puzzle is written packed instead.
+        if (this.binary && this.size > Board.MAX_SIZE) {
+            this.add(WideBoard.pack(flat, true), WideBoard.pack(flat, false));
+            return;
+        } else if (this.binary) {
+            long board = 0L;
+
+            // For each position of the puzzle, store its tile.
+            for (int pos = 0; pos < flat.length; pos++) {
+                board |= (long) flat[pos] << (pos << 2);
+            }
+            this.add(0L, board);
+            return;
+        }
+        this.reserve(4 * flat.length + 2 * this.size + 3);
+        this.buffer.put((byte) '[');
+
+        // For each row of the puzzle.
+        for (int row = 0; row < this.size; row++) {
+            this.buffer.put((byte) '[');
+
+            // For each column of the row, write its tile.
+            for (int col = 0; col < this.size; col++) {
+                int tile = flat[row * this.size + col];
+
+                // Check if the tile has two digits.
+                if (tile >= 10) {
+                    this.buffer.put((byte) ('0' + tile / 10));
+                }
+                this.buffer.put((byte) ('0' + tile % 10));
+
+                // Check if another tile follows in the row.
+                if (col < this.size - 1) {
+                    this.buffer.put((byte) ',').put((byte) ' ');
+                }
+            }
+            this.buffer.put((byte) ']');
+
+            // Check if another row follows.
+            if (row < this.size - 1) {
+                this.buffer.put((byte) ',').put((byte) ' ');
+            }
+        }
+        this.buffer.put((byte) ']').put((byte) '\n');
+        this.count++;
+    }
+
+    /**
+     * Makes room in the buffer, writing it out if it is too full.
+     *
+     * @param  bytes to make room for.
+     * @throws IOException if the file can not be written.
+     */
+    private void reserve(int bytes) throws IOException {
+
+        // Check if the buffer has to be written out first.
+        if (this.buffer.remaining() < bytes) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Writes the buffer out to the file.
+     *
+     * @throws IOException if the file can not be written.
+     */
+    private void flush() throws IOException {
+        this.buffer.flip();
+
+        // While the buffer is not written out.
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+}
@@ -2,17 +2,19 @@ package main;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.Scanner;
 
 /**
  * This class implements the reading features of the project. Configuration 
  * files fully determine how the program is run. Class implements the readDir() 
  * method to read all files in a specified directory. The readFile() method 
- * reads a specified file, and calls the readPuzzleConfigToken() or 
- * stringToPuzzle() to extract data from the file into the system.
+ * reads a specified file, calling readPuzzleConfigToken() for the lines of 
+ * a puzzleConfig file, and reading a puzzleSet file through a 
+ * PuzzleSetReader. The stringToPuzzle() method parses a single puzzle line.
  * 
  * @author  Maksym Turkot
- * @version 10/03/22
+ * @version 10/17/22
  */
 public class Reader {
     private int size, seed, swaps, number;
@@ -81,10 +83,14 @@ public class Reader {
      * @param number   of generated puzzles, applied for puzzleSet reading.
      */
     public void readFile(String filename, int size, int number) {
+
+        // Check if the file is a puzzle set, streamed by PuzzleSetReader.
+        if (filename.contains("puzzleSet")) {
+            this.readPuzzleSet(filename, size, number);
+            return;
+        }
         try {
         File file = new File(filename);
-        int index = 0;
-        puzzles = new int[number][size][size];
 
         Scanner scanner = new Scanner(file);
 
@@ -95,8 +101,6 @@ public class Reader {
             if (filename.contains("puzzleConfig")) {
                 tokens = line.split(": ");
                 this.readPuzzleConfigToken(tokens, filename);
-            } else if (filename.contains("puzzleSet")) {
-                puzzles[index++] = this.stringToPuzzle(line, size);
             }
         }
         scanner.close();
@@ -105,6 +109,31 @@ public class Reader {
             fnfe.printStackTrace();
         }
     }
+
+    /**
+     * Reads the puzzles of a puzzle set file into the array of initial 
+     * puzzles, unpacking each one read by a PuzzleSetReader. Large files 
+     * should be read with a PuzzleSetReader directly instead.
+     * 
+     * @param filename name of the file to read.
+     * @param size     of the puzzle.
+     * @param number   of puzzles in the file.
+     */
+    private void readPuzzleSet(String filename, int size, int number) {
+        this.puzzles = new int[number][size][size];
+
+        try (PuzzleSetReader reader = new PuzzleSetReader(new File(filename), size)) {
+            int index = 0;
+
+            // For each puzzle of the file, unpack it.
+            while (index < number && reader.next()) {
+                this.puzzles[index++] = reader.makeState().getPuzzle();
+            }
+        } catch (IOException ioe) {
+            System.out.println("Error reading file \"" + filename + "\"");
+            ioe.printStackTrace();
+        }
+    }
     
     /**
      * Splits the read string into tokens and stores each one as a variable to 
@@ -0,0 +1,94 @@
+package main;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads a file written by a RecordWriter one record at a time,
+ * through a single reused buffer filled from a FileChannel, so a file of
+ * any length is read sequentially in constant memory. The next() method
+ * moves to the next record, and get() returns it.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class RecordReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private FileChannel channel;
+    private ByteBuffer  buffer;
+    private Path        path;
+    private long        record;
+
+    /**
+     * Constructor method, opening the file.
+     *
+     * @param  path of the file to read.
+     * @throws IOException if the file can not be opened.
+     */
+    public RecordReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.buffer  = ByteBuffer.allocate(BUFFER_SIZE);
+        this.path    = path;
+
+        this.buffer.flip();
+    }
+
+    /**
+     * Moves to the next record of the file.
+     *
+     * @return true if there was another record, false at the end of the file.
+     * @throws IOException if the file can not be read or ends within a record.
+     */
+    public boolean next() throws IOException {
+
+        // Check if the buffer has to be refilled first.
+        if (this.buffer.remaining() < Long.BYTES) {
+            int read = 0;
+
+            this.buffer.compact();
+
+            // Read until a record is buffered or the file ends.
+            while (this.buffer.position() < Long.BYTES && read >= 0) {
+                read = this.channel.read(this.buffer);
+            }
+            this.buffer.flip();
+
+            // Check if the file ended.
+            if (this.buffer.remaining() < Long.BYTES) {
+
+                // Check if the file ended within a record.
+                if (this.buffer.hasRemaining()) {
+                    throw new EOFException("Truncated record in \"" + this.path + "\"");
+                }
+                return false;
+            }
+        }
+        this.record = this.buffer.getLong();
+        return true;
+    }
+
+    /**
+     * Getter for the current record.
+     *
+     * @return the record read by the last call to next().
+     */
+    public long get() {
+        return this.record;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if the file can not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
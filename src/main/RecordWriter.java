@@ -0,0 +1,95 @@
+package main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes a file of fixed-width records, each a single long, one
+ * after the other. The records are gathered in a single reused buffer and
+ * written to a FileChannel whenever it fills up, so a file of any length is
+ * written sequentially in constant memory. The add() method appends a
+ * record, and close() writes out the ones left in the buffer. The file is
+ * read back by a RecordReader.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class RecordWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private FileChannel channel;
+    private ByteBuffer  buffer;
+    private long        count;
+
+    /**
+     * Constructor method, creating the file or emptying an existing one.
+     *
+     * @param  path of the file to write.
+     * @throws IOException if the file can not be opened.
+     */
+    public RecordWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer  = ByteBuffer.allocate(BUFFER_SIZE);
+        this.count   = 0;
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param  record to append.
+     * @throws IOException if the file can not be written.
+     */
+    public void add(long record) throws IOException {
+
+        // Check if the buffer has to be written out first.
+        if (!this.buffer.hasRemaining()) {
+            this.flush();
+        }
+        this.buffer.putLong(record);
+        this.count++;
+    }
+
+    /**
+     * Getter for the number of records written.
+     *
+     * @return number of records.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Writes out the records left in the buffer and closes the file.
+     *
+     * @throws IOException if the file can not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Writes the records of the buffer to the file.
+     *
+     * @throws IOException if the file can not be written.
+     */
+    private void flush() throws IOException {
+        this.buffer.flip();
+
+        // Write until the whole buffer is out.
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+}
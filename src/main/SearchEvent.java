@@ -0,0 +1,52 @@
+package main;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class is the Java Flight Recorder event committed by each A* search
+ * of Searcher while SearchStats is on, spanning the search and holding its
+ * counts. It is only recorded while a recording is running, for example
+ * one started with -XX:StartFlightRecording.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+@Name("main.Search")
+@Label("Puzzle Search")
+@Category("Puzzle")
+@Description("A* search of a single puzzle")
+public class SearchEvent extends Event {
+    @Label("Heuristic")
+    String heuristic;
+
+    @Label("Size")
+    int size;
+
+    @Label("Cost")
+    int cost;
+
+    @Label("Expanded")
+    long expanded;
+
+    @Label("Generated")
+    long generated;
+
+    @Label("Stale")
+    long stale;
+
+    @Label("Closed Hits")
+    long closedHits;
+
+    @Label("Dominated")
+    long dominated;
+
+    @Label("Heuristic Calls")
+    long heuristicCalls;
+
+    @Label("Peak Frontier")
+    long peakFrontier;
+}
@@ -0,0 +1,135 @@
+package main;
+
+/**
+ * This class holds the outcome of a search: the chain of states from the 
+ * initial state to the goal state, and the statistics collected while 
+ * searching. All fields are set by the constructor and never change, and 
+ * the number of expanded states is kept here rather than in a state. The 
+ * states of the chain are not copied, though, so they stay as mutable as 
+ * State itself and are shared with anyone else holding the result, such 
+ * as a CachingSolver. The path of packed puzzles is only kept for puzzles 
+ * that fit into a long, and getPath() returns a copy of it.
+ * 
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public final class SearchResult {
+    private final State  state;
+    private final long[] path;
+    private final int    cost;
+    private final long   expanded;
+    private final long   generated;
+    private final long   peakFrontier;
+    private final long   elapsedTime;
+
+    /**
+     * Constructor method.
+     * 
+     * @param state        goal state linked to its parents, or null if the 
+     *                     goal was not reached.
+     * @param expanded     number of states expanded.
+     * @param generated    number of child states generated.
+     * @param peakFrontier largest number of states waiting in the frontier.
+     * @param elapsedTime  time spent searching, in nanoseconds.
+     */
+    public SearchResult(State state, long expanded, long generated, long peakFrontier, 
+                        long elapsedTime) {
+        int depth = 0;
+
+        // Walk up the parents to find the cost of the solution.
+        for (State curr = state; curr != null && curr.getParent() != null; 
+                curr = curr.getParent()) {
+            depth++;
+        }
+        this.state        = state;
+        this.path         = new long[state == null || state.getSize() > Board.MAX_SIZE 
+                                         ? 0 : depth + 1];
+        this.cost         = state == null ? -1 : depth;
+        this.expanded     = expanded;
+        this.generated    = generated;
+        this.peakFrontier = peakFrontier;
+        this.elapsedTime  = elapsedTime;
+
+        // Walk up the parents again, storing the puzzles backwards.
+        for (State curr = state; curr != null && this.path.length > 0; 
+                curr = curr.getParent()) {
+            this.path[depth--] = curr.getBoard();
+        }
+    }
+
+    /**
+     * Checks if the goal state was reached.
+     * 
+     * @return true if there is a solution.
+     */
+    public boolean isSolved() {
+        return this.state != null;
+    }
+
+    /**
+     * Getter for the goal state, linked to its parents up to the initial 
+     * state. The state is not a copy, so any change to it shows through 
+     * every holder of the result.
+     * 
+     * @return goal state, or null if the goal was not reached.
+     */
+    public State getState() {
+        return this.state;
+    }
+
+    /**
+     * Getter for the packed puzzles of the solution, from the initial state 
+     * to the goal state.
+     * 
+     * @return copy of the packed puzzles of the solution, empty if the puzzle 
+     *         is larger than Board.MAX_SIZE.
+     */
+    public long[] getPath() {
+        return this.path.clone();
+    }
+
+    /**
+     * Getter for the number of moves of the solution.
+     * 
+     * @return number of moves, or -1 if the goal was not reached.
+     */
+    public int getCost() {
+        return this.cost;
+    }
+
+    /**
+     * Getter for the number of states expanded.
+     * 
+     * @return number of states expanded.
+     */
+    public long getExpanded() {
+        return this.expanded;
+    }
+
+    /**
+     * Getter for the number of child states generated.
+     * 
+     * @return number of child states generated.
+     */
+    public long getGenerated() {
+        return this.generated;
+    }
+
+    /**
+     * Getter for the largest number of states waiting in the frontier.
+     * 
+     * @return peak frontier size.
+     */
+    public long getPeakFrontier() {
+        return this.peakFrontier;
+    }
+
+    /**
+     * Getter for the time spent searching.
+     * 
+     * @return elapsed time in nanoseconds.
+     */
+    public long getElapsedTime() {
+        return this.elapsedTime;
+    }
+}
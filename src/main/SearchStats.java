@@ -0,0 +1,225 @@
+package main;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class gathers what happens inside the A* searches of Searcher, for
+ * every search of every thread. The "instrument" system property turns it
+ * on: "counters" counts the expanded and generated states, the frontier
+ * entries dropped because a cheaper path to their puzzle was added since,
+ * the closed states reopened for one, the children dropped because their
+ * puzzle was already added at least as cheaply, the heuristic evaluations
+ * and the largest frontier, and "timers" also times the selection of states
+ * from the frontier, the closed set checks and the expansion of states into
+ * the frontier. A search counts into its own workspace and adds the totals
+ * to the striped LongAdders here once it ends, also committing a SearchEvent
+ * for Java Flight Recorder. Both flags are constants, so when they are off
+ * the checks guarding the counting are removed by the compiler. The
+ * collect() method returns the totals since the last call and starts over.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public final class SearchStats {
+    public static final boolean COUNTERS;
+    public static final boolean TIMERS;
+
+    private static final LongAdder       SEARCHES        = new LongAdder();
+    private static final LongAdder       EXPANDED        = new LongAdder();
+    private static final LongAdder       GENERATED       = new LongAdder();
+    private static final LongAdder       STALE           = new LongAdder();
+    private static final LongAdder       CLOSED_HITS     = new LongAdder();
+    private static final LongAdder       DOMINATED       = new LongAdder();
+    private static final LongAdder       HEURISTIC_CALLS = new LongAdder();
+    private static final LongAdder       SELECT_NANOS    = new LongAdder();
+    private static final LongAdder       CLOSED_NANOS    = new LongAdder();
+    private static final LongAdder       EXPAND_NANOS    = new LongAdder();
+    private static final LongAccumulator PEAK_FRONTIER   = new LongAccumulator(Math::max, 0);
+
+    static {
+        String level = System.getProperty("instrument", "off");
+
+        // Check if the level is known.
+        if (!level.equals("off") && !level.equals("counters") && !level.equals("timers")) {
+            throw new IllegalArgumentException("Unknown instrument level " + level);
+        }
+        COUNTERS = !level.equals("off");
+        TIMERS   = level.equals("timers");
+    }
+
+    private long searches;
+    private long expanded;
+    private long generated;
+    private long stale;
+    private long closedHits;
+    private long dominated;
+    private long heuristicCalls;
+    private long peakFrontier;
+    private long selectNanos;
+    private long closedNanos;
+    private long expandNanos;
+
+    /**
+     * Constructor method, holding the totals taken by collect().
+     */
+    private SearchStats() {
+    }
+
+    /**
+     * Adds the counts of a finished search to the totals. The selection
+     * time includes the closed set checks, which are taken back out.
+     *
+     * @param expanded       states expanded.
+     * @param generated      child states generated.
+     * @param stale          frontier entries dropped for a cheaper path.
+     * @param closedHits     closed states reopened for a cheaper path.
+     * @param dominated      children dropped for a path at least as cheap.
+     * @param heuristicCalls heuristic evaluations.
+     * @param peakFrontier   largest number of states in the frontier.
+     * @param selectNanos    time spent selecting states, in nanoseconds.
+     * @param closedNanos    time spent checking the closed set.
+     * @param expandNanos    time spent expanding states into the frontier.
+     */
+    static void record(long expanded, long generated, long stale, long closedHits,
+                       long dominated, long heuristicCalls, long peakFrontier,
+                       long selectNanos, long closedNanos, long expandNanos) {
+        SEARCHES.increment();
+        EXPANDED.add(expanded);
+        GENERATED.add(generated);
+        STALE.add(stale);
+        CLOSED_HITS.add(closedHits);
+        DOMINATED.add(dominated);
+        HEURISTIC_CALLS.add(heuristicCalls);
+        PEAK_FRONTIER.accumulate(peakFrontier);
+        SELECT_NANOS.add(selectNanos - closedNanos);
+        CLOSED_NANOS.add(closedNanos);
+        EXPAND_NANOS.add(expandNanos);
+    }
+
+    /**
+     * Takes the totals gathered since the last call, starting over.
+     *
+     * @return the totals.
+     */
+    public static SearchStats collect() {
+        SearchStats stats = new SearchStats();
+
+        stats.searches       = SEARCHES.sumThenReset();
+        stats.expanded       = EXPANDED.sumThenReset();
+        stats.generated      = GENERATED.sumThenReset();
+        stats.stale          = STALE.sumThenReset();
+        stats.closedHits     = CLOSED_HITS.sumThenReset();
+        stats.dominated      = DOMINATED.sumThenReset();
+        stats.heuristicCalls = HEURISTIC_CALLS.sumThenReset();
+        stats.peakFrontier   = PEAK_FRONTIER.getThenReset();
+        stats.selectNanos    = SELECT_NANOS.sumThenReset();
+        stats.closedNanos    = CLOSED_NANOS.sumThenReset();
+        stats.expandNanos    = EXPAND_NANOS.sumThenReset();
+        return stats;
+    }
+
+    /**
+     * Getter for the number of searches.
+     *
+     * @return number of searches.
+     */
+    public long getSearches() {
+        return this.searches;
+    }
+
+    /**
+     * Getter for the number of states expanded.
+     *
+     * @return number of states expanded.
+     */
+    public long getExpanded() {
+        return this.expanded;
+    }
+
+    /**
+     * Getter for the number of child states generated.
+     *
+     * @return number of child states generated.
+     */
+    public long getGenerated() {
+        return this.generated;
+    }
+
+    /**
+     * Getter for the number of frontier entries dropped because a cheaper
+     * path to their puzzle was added after them.
+     *
+     * @return number of stale entries.
+     */
+    public long getStale() {
+        return this.stale;
+    }
+
+    /**
+     * Getter for the number of closed states reopened for a cheaper path.
+     *
+     * @return number of closed states reopened.
+     */
+    public long getClosedHits() {
+        return this.closedHits;
+    }
+
+    /**
+     * Getter for the number of children dropped because their puzzle was
+     * already added at least as cheaply.
+     *
+     * @return number of dominated children.
+     */
+    public long getDominated() {
+        return this.dominated;
+    }
+
+    /**
+     * Getter for the number of heuristic evaluations.
+     *
+     * @return number of heuristic evaluations.
+     */
+    public long getHeuristicCalls() {
+        return this.heuristicCalls;
+    }
+
+    /**
+     * Getter for the largest frontier of any search.
+     *
+     * @return largest number of states in the frontier.
+     */
+    public long getPeakFrontier() {
+        return this.peakFrontier;
+    }
+
+    /**
+     * Getter for the time spent selecting states from the frontier, without
+     * the closed set checks.
+     *
+     * @return selection time in nanoseconds, 0 without timers.
+     */
+    public long getSelectNanos() {
+        return this.selectNanos;
+    }
+
+    /**
+     * Getter for the time spent checking the closed set.
+     *
+     * @return closed set time in nanoseconds, 0 without timers.
+     */
+    public long getClosedNanos() {
+        return this.closedNanos;
+    }
+
+    /**
+     * Getter for the time spent expanding states into the frontier,
+     * generating the children, checking their costs, computing their
+     * heuristics and adding them.
+     *
+     * @return expansion time in nanoseconds, 0 without timers.
+     */
+    public long getExpandNanos() {
+        return this.expandNanos;
+    }
+}
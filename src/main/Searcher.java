@@ -1,34 +1,79 @@
 package main;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.stream.IntStream;
 
 /**
  * This class searchers the puzzle states for the desired goal state. The 
- * aStarSearch() method runs the search logic; setGoal() method creates a 
- * reference goal state based on the puzzle size; updateFrontier() and adds up 
- * to four children states to the frontier PriorityQueue and computes the 
- * heuristic and pathCost values; expand() method creates children states from 
- * the current state with up to four possible tile moves. Additional helper 
- * methods are present, including copyPuzzle(), findEmpty which finds 
- * coordinates of the empty tile, and moveLeft(), moveRight(), moveUp(), and 
- * moveDown() methods.
+ * solve() method runs the A* search logic, and aStarSearch() returns just 
+ * its result state; setGoal() method creates a reference goal state based on 
+ * the puzzle size; updateFrontier() and adds up to four children states to 
+ * the frontier BucketQueue and computes the heuristic and pathCost values; 
+ * expand() method creates children states from the current state with up to 
+ * four possible tile moves. A helper method findEmpty() which finds 
+ * coordinates of the empty tile is also present. Generated states are kept 
+ * in a NodeStore, which together with the frontier and lookup tables forms a 
+ * Workspace reused from one search to the next by each thread, so a single 
+ * Searcher can be shared between threads. A Searcher made with a batch size 
+ * above one polls up to that many states sharing the smallest evaluation 
+ * function at once, and updateFrontierBatch() generates and evaluates 
+ * their children in parallel before adding them in order. Since none of the 
+ * batch can have a cheaper evaluation function than the others, the search 
+ * stays optimal. When SearchStats is on, each search counts into its 
+ * workspace, timing its phases if asked to, and finish() hands the counts 
+ * to SearchStats and a SearchEvent at the end.
  * 
  * @author  Maksym Turkot
- * @version 10/02/22
+ * @version 10/17/22
  */
-public class Searcher {
+public class Searcher implements Solver {
+    private static final ThreadLocal<Workspace> WORKSPACES = 
+            ThreadLocal.withInitial(Workspace::new);
+
+    // Set below the doubled path costs of the cost table while a state is open.
+    private static final int OPEN = 1;
+
     private Heuristic heuristicFinder;
-    private int       stateId;
+    private int       batchSize;
 
     /**
-     * Constructor method.
+     * Constructor method, expanding one state at a time.
      */
     public Searcher() {
+        this(1);
+    }
+
+    /**
+     * Constructor method.
+     * 
+     * @param batchSize largest number of states expanded together.
+     */
+    public Searcher(int batchSize) {
+
+        // Check if there is room for a state in the batch.
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, got " + batchSize);
+        }
         this.heuristicFinder = new Heuristic();
-        this.stateId = 0;
+        this.batchSize       = batchSize;
+    }
+
+    /**
+     * Runs the search and returns the result state, which holds the number 
+     * of expanded states as its id. The state is only set after the search, 
+     * on a result no one else holds.
+     * 
+     * @param  initial     initial state to search.
+     * @param  heuristicTp heuristic type to use.
+     * @return the result state.
+     */
+    public State aStarSearch(State initial, String heuristicTp) {
+        SearchResult result = this.solve(initial, heuristicTp);
+
+        // Check if the goal state was reached.
+        if (result.isSolved()) {
+            result.getState().setId((int) result.getExpanded());
+        }
+        return result.getState();
     }
 
     /**
@@ -36,197 +81,328 @@ public class Searcher {
      * table of reached states for performance optimization. The state from 
      * the frontier with the smallest evalFunc value is checked if it is a 
      * goal, and if not is expanded, and its children are added to the 
-     * frontier. Before expanding a state, its puzzle value is checked against 
-     * reached states in the lookup table.
+     * frontier. States are held in the NodeStore, and the frontier holds 
+     * their indices. The cheapest known path cost of each generated puzzle 
+     * is kept in a CostTable, doubled, plus OPEN until its state is 
+     * expanded, so that a child is only added if it improves on it, and 
+     * entries left behind by a later improvement are dropped when polled. 
+     * A state already expanded is expanded again if a cheaper path to it is 
+     * found, since the pattern database heuristic is admissible but not 
+     * consistent, and the first path found to a state is then not always 
+     * its cheapest. Only the states on the path to the goal are turned into 
+     * State objects.
      * 
      * @param  initial     initial state to search.
      * @param  heuristicTp heuristic type to use.
-     * @return the result state.
+     * @return the result of the search.
      */
-    public State aStarSearch(State initial, String heuristicTp) {
-        PriorityQueue<State> frontier = new PriorityQueue<State>(50, 
-                                                                 new StateComparator());
-        ArrayList<String> reached = new ArrayList<String>();
-        int[][] goal = this.setGoal(initial.getSize());
+    @Override
+    public SearchResult solve(State initial, String heuristicTp) {
+        long      startTime = System.nanoTime();
+        Workspace work      = WORKSPACES.get();
+        int       size      = initial.getSize();
+        long      goal      = Searcher.setGoal(size);
+        long      expanded  = 0;
         
-        initial.setId(this.stateId++);
-
-        initial.setHeuristic(heuristicFinder.findHeuristic(initial, heuristicTp));
-
-        frontier.add(initial);
-
-        // For each state in the frontier.
-        while (!frontier.isEmpty()) {
-            State curr = frontier.poll();
-            curr.setId(this.stateId++);
-            String currId = Arrays.deepToString(curr.getPuzzle());
-            
-            // Check if current state is the goal state.
-            if (Arrays.deepEquals(curr.getPuzzle(), goal)) {
-                this.stateId = 0;
-                return curr;
+        work.clear();
+
+        SearchEvent event = null;
+
+        // Check if the search is instrumented.
+        if (SearchStats.COUNTERS) {
+            event = new SearchEvent();
+            event.begin();
+            event.size = size;
+            work.heuristicCalls++;
+        }
+        int heuristic = heuristicFinder.findHeuristic(initial, heuristicTp);
+        int root      = work.nodes.add(initial.getBoard(), initial.getBlank(), -1, 0, heuristic);
+
+        work.frontier.add(heuristic, 0, root);
+        work.bestCost.put(initial.getBoard(), OPEN);
+
+        work.prepare(this.batchSize);
+
+        // For each batch of states in the frontier.
+        while (!work.frontier.isEmpty()) {
+            int  evalFunc = work.frontier.peekEvalFunc();
+            int  count    = 0;
+            long phase    = SearchStats.TIMERS ? System.nanoTime() : 0;
+
+            // Gather the states of the smallest evaluation function, up to the batch size.
+            while (count < this.batchSize && !work.frontier.isEmpty() 
+                    && work.frontier.peekEvalFunc() == evalFunc) {
+                int  curr  = (int) work.frontier.poll();
+                long board = work.nodes.getBoard(curr);
+                int  best  = work.bestCost.get(board);
+
+                // Check if a cheaper path to this puzzle was added since.
+                if (best != (work.nodes.getPathCost(curr) << 1 | OPEN)) {
+
+                    // Check if the dropped entry is counted.
+                    if (SearchStats.COUNTERS) {
+                        work.stale++;
+                    }
+                    continue;
+                }
+                expanded++;
+
+                // Check if current state is the goal state.
+                if (board == goal) {
+                    return this.finish(work, event, heuristicTp, 
+                            new SearchResult(work.nodes.makeState(curr, size), expanded, 
+                                             work.generated, work.peakFrontier, 
+                                             System.nanoTime() - startTime));
+                }
+                long closed = SearchStats.TIMERS ? System.nanoTime() : 0;
+
+                work.bestCost.put(board, best - OPEN);
+                work.batch[count++] = curr;
+
+                // Check if the closed set check is timed.
+                if (SearchStats.TIMERS) {
+                    work.closedNanos += System.nanoTime() - closed;
+                }
+            }
+
+            // Check if the phases are timed.
+            if (SearchStats.TIMERS) {
+                long now = System.nanoTime();
+
+                work.selectNanos += now - phase;
+                phase             = now;
             }
 
-            // Check if this state was reached.
-            if (!reached.contains(currId)) {
-                this.expand(curr);
-                this.updateFrontier(curr, frontier, heuristicTp);
+            // Check if the batch holds a single state.
+            if (count == 1) {
+                this.updateFrontier(work, work.batch[0], size, heuristicTp);
+            } else if (count > 1) {
+                this.updateFrontierBatch(work, count, size, heuristicTp);
             }
 
-            reached.add(currId);
+            // Check if the phases are timed.
+            if (SearchStats.TIMERS) {
+                work.expandNanos += System.nanoTime() - phase;
+            }
         }
-        
-        this.stateId = 0;
-        return null;
+        return this.finish(work, event, heuristicTp, 
+                new SearchResult(null, expanded, work.generated, work.peakFrontier, 
+                                 System.nanoTime() - startTime));
+    }
+
+    /**
+     * Hands the counts of an instrumented search to SearchStats and commits 
+     * its SearchEvent, doing nothing when SearchStats is off.
+     * 
+     * @param  work        workspace of the search.
+     * @param  event       of the search, or null if it is not instrumented.
+     * @param  heuristicTp heuristic type used.
+     * @param  result      of the search.
+     * @return the result of the search.
+     */
+    private SearchResult finish(Workspace work, SearchEvent event, String heuristicTp, 
+                                SearchResult result) {
+
+        // Check if the search is instrumented.
+        if (SearchStats.COUNTERS) {
+            SearchStats.record(result.getExpanded(), work.generated, work.stale, 
+                               work.closedHits, work.dominated, work.heuristicCalls, 
+                               work.peakFrontier, work.selectNanos, work.closedNanos, 
+                               work.expandNanos);
+            event.end();
+
+            // Check if the event is recorded.
+            if (event.shouldCommit()) {
+                event.heuristic      = heuristicTp;
+                event.cost           = result.getCost();
+                event.expanded       = result.getExpanded();
+                event.generated      = work.generated;
+                event.stale          = work.stale;
+                event.closedHits     = work.closedHits;
+                event.dominated      = work.dominated;
+                event.heuristicCalls = work.heuristicCalls;
+                event.peakFrontier   = work.peakFrontier;
+                event.commit();
+            }
+        }
+        return result;
     }
 
     /**
      * For the puzzle size, creates a goal state to be used by the searching 
-     * algorithm.
+     * algorithms, with tile i at position i.
      * 
      * @param size of the puzzle.
-     * @return the goal puzzle state.
+     * @return the packed goal puzzle state.
+     * @throws IllegalArgumentException if the puzzle does not fit a long.
      */
-    private int[][] setGoal(int size) {
-        int[][] puzzle;
-
-        // Check what size goal to create.
-        switch(size) {
-
-            // Create 3-puzzle goal state.
-            case 2:
-                int[][] temp2 = {{0, 1}, {2, 3}};
-                puzzle = temp2;
-                break;
-
-            // Create 8-puzzle goal state.
-            case 3:
-                int[][] temp3 = {{0, 1, 2}, {3, 4, 5}, {6, 7, 8}};
-                puzzle = temp3;
-                break;
-
-            // Create 15-puzzle goal state.
-            case 4:
-                int[][] temp4 = {{0, 1, 2, 3}, {4, 5, 6, 7}, {8, 9, 10, 11}, 
-                                 {12, 13, 14, 15}};
-                puzzle = temp4;
-                break;
-            
-            // For undefined size.
-            default:
-                int[][] temp0 = {{},{}};
-                puzzle = temp0;
-        }
-        return puzzle;
+    static long setGoal(int size) {
+        return Board.goal(size);
     }
 
     /**
-     * For each child state, this method computes the evaluation function and 
-     * adds the child to the frontier.
+     * For each possible tile move of the current state, this method computes 
+     * the evaluation function of the child state and adds it to the 
+     * frontier, unless its puzzle was already added with the same or a 
+     * cheaper path cost, looking the puzzle up and storing the new path 
+     * cost in one probe of the cost table.
      * 
-     * @param curr        state whose children are considered.
-     * @param frontier    frontier of unexpanded states.
+     * @param work        workspace of the search.
+     * @param curr        index of the state whose children are considered.
+     * @param size        of the puzzle.
      * @param heuristicTp heuristic type used.
      */
-    private void updateFrontier(State curr, PriorityQueue<State> frontier, String heuristicTp) {
-        State moveL       = curr.getMoveL();
-        State moveR       = curr.getMoveR();
-        State moveU       = curr.getMoveU();
-        State moveD       = curr.getMoveD();
-        int   newPathCost = curr.getPathCost() + 1;
-
-        // Check if left move state exists.
-        if (moveL != null) {
-            // moveL.setId(stateId++);
-            moveL.setPathCost(newPathCost);
-            moveL.setHeuristic(heuristicFinder.findHeuristic(moveL, heuristicTp));
-            moveL.updateEvalFunc();
-            frontier.add(moveL);
-        }
+    private void updateFrontier(Workspace work, int curr, int size, String heuristicTp) {
+        long board     = work.nodes.getBoard(curr);
+        int  blank     = work.nodes.getBlank(curr);
+        int  heuristic = work.nodes.getHeuristic(curr);
+        int  pathCost  = work.nodes.getPathCost(curr) + 1;
 
-        // Check if right move state exists.
-        if (moveR != null) {
-            // moveR.setId(stateId++);
-            moveR.setPathCost(newPathCost);
-            moveR.setHeuristic(heuristicFinder.findHeuristic(moveR, heuristicTp));
-            moveR.updateEvalFunc();
-            frontier.add(moveR);
-        }
+        // For each tile that can be moved into the empty space.
+        for (int target : Board.neighbors(size)[blank]) {
+            long child = Board.move(board, blank, target);
+            int  best  = work.bestCost.putIfLower(child, pathCost << 1 | OPEN);
 
-        // Check if top move state exists.
-        if (moveU != null) {
-            // moveU.setId(stateId++);
-            moveU.setPathCost(newPathCost);
-            moveU.setHeuristic(heuristicFinder.findHeuristic(moveU, heuristicTp));
-            moveU.updateEvalFunc();
-            frontier.add(moveU);
-        }
+            work.generated++;
+
+            // Check if the puzzle was already added at least as cheaply.
+            if (best != CostTable.MISSING && best <= (pathCost << 1 | OPEN)) {
+
+                // Check if the dropped child is counted.
+                if (SearchStats.COUNTERS) {
+                    work.dominated++;
+                }
+                continue;
+            }
 
-        // Check if bottom move state exists.
-        if (moveD != null) {
-            // moveD.setId(stateId++);
-            moveD.setPathCost(newPathCost);
-            moveD.setHeuristic(heuristicFinder.findHeuristic(moveD, heuristicTp));
-            moveD.updateEvalFunc();
-            frontier.add(moveD);
+            // Check if the heuristic call is counted.
+            if (SearchStats.COUNTERS) {
+                work.heuristicCalls++;
+            }
+
+            // Check if a reopened state is counted.
+            if (SearchStats.COUNTERS && best != CostTable.MISSING && (best & OPEN) == 0) {
+                work.closedHits++;
+            }
+            int childHeuristic = heuristicFinder.updateHeuristic(child, size, heuristic, 
+                                                                 target, blank, heuristicTp);
+            int index          = work.nodes.add(child, target, curr, pathCost, childHeuristic);
+
+            work.frontier.add(pathCost + childHeuristic, pathCost, index);
+            work.peakFrontier = Math.max(work.peakFrontier, work.frontier.size());
         }
     }
 
     /**
-     * Expands a state by creating a child state for each possible tile move.
+     * Adds the children of a batch of states to the frontier. The children 
+     * are generated and their heuristics computed in parallel, one task per 
+     * state, writing to separate slots of the workspace and skipping those 
+     * already added at least as cheaply. Then they are added in order, 
+     * checking again for copies among the children of the batch.
      * 
-     * @param state to be expanded.
+     * @param work        workspace of the search.
+     * @param count       number of states in the batch.
+     * @param size        of the puzzle.
+     * @param heuristicTp heuristic type used.
      */
-    public void expand(State state) {
-        int[][] OriginPuzzle = state.getPuzzle();
-        int     size    = state.getSize();
+    private void updateFrontierBatch(Workspace work, int count, int size, String heuristicTp) {
+        int[][] neighbors = Board.neighbors(size);
+
+        IntStream.range(0, count).parallel().forEach(
+                i -> this.evaluateChildren(work, i, neighbors, size, heuristicTp));
+
+        // For each state of the batch, in order.
+        for (int i = 0; i < count; i++) {
+            int   curr     = work.batch[i];
+            int[] targets  = neighbors[work.nodes.getBlank(curr)];
+            int   pathCost = work.nodes.getPathCost(curr) + 1;
+
+            // For each child of the state.
+            for (int j = 0; j < targets.length; j++) {
+                int  slot  = i * Board.MAX_MOVES + j;
+                long child = work.childBoards[slot];
+                int  best  = work.childHeuristics[slot] < 0 ? CostTable.MISSING 
+                             : work.bestCost.putIfLower(child, pathCost << 1 | OPEN);
+
+                work.generated++;
+
+                // Check if the heuristic call is counted.
+                if (SearchStats.COUNTERS && work.childHeuristics[slot] >= 0) {
+                    work.heuristicCalls++;
+                }
 
-        int[]   emptyRC = findEmpty(OriginPuzzle, size);
-        int     r       = emptyRC[0]; // Row
-        int     c       = emptyRC[1]; // Col
+                // Check if the puzzle was already added at least as cheaply.
+                if (work.childHeuristics[slot] < 0 
+                        || (best != CostTable.MISSING && best <= (pathCost << 1 | OPEN))) {
 
-        int[][] puzzleL = this.copyPuzzle(OriginPuzzle, size);
-        int[][] puzzleR = this.copyPuzzle(OriginPuzzle, size);
-        int[][] puzzleU = this.copyPuzzle(OriginPuzzle, size);
-        int[][] puzzleD = this.copyPuzzle(OriginPuzzle, size);
+                    // Check if the dropped child is counted.
+                    if (SearchStats.COUNTERS) {
+                        work.dominated++;
+                    }
+                    continue;
+                }
 
-        // Check if move left is possible.
-        if (this.moveLeft (puzzleL, r, c)) {
-            state.setMoveL(new State(puzzleL, state));
-        }
-        
-        // Check if move right is possible.
-        if (this.moveRight(puzzleR, size, r, c)) {
-            state.setMoveR(new State(puzzleR, state));
-        }
-        
-        // Check if move top is possible.
-        if (this.moveUp   (puzzleU, r, c)) {
-            state.setMoveU(new State(puzzleU, state));
-        }
+                // Check if a reopened state is counted.
+                if (SearchStats.COUNTERS && best != CostTable.MISSING && (best & OPEN) == 0) {
+                    work.closedHits++;
+                }
+
+                int index = work.nodes.add(child, targets[j], curr, pathCost, 
+                                           work.childHeuristics[slot]);
 
-        // Check if move bottom is possible.
-        if (this.moveDown (puzzleD, size, r, c)) {
-            state.setMoveD(new State(puzzleD, state));
+                work.frontier.add(pathCost + work.childHeuristics[slot], pathCost, index);
+                work.peakFrontier = Math.max(work.peakFrontier, work.frontier.size());
+            }
         }
     }
 
     /**
-     * Creates a copy of the puzzle array.
+     * Generates the children of a state of the batch and computes their 
+     * heuristics, marking those already added at least as cheaply with a 
+     * heuristic of -1. Only reads the shared structures of the search.
      * 
-     * @param  puzzle to copy.
-     * @param  size   of the puzzle.
-     * @return copy of a puzzle.
+     * @param work        workspace of the search.
+     * @param i           position of the state in the batch.
+     * @param neighbors   positions each empty tile position can move to.
+     * @param size        of the puzzle.
+     * @param heuristicTp heuristic type used.
      */
-    private int[][] copyPuzzle(int[][] puzzle, int size) {
-        int[][] puzzleCopy = new int[size][size];
-
-        // For each row in the puzzle, copy the column.
-        for (int row = 0; row < size; row++) {
-            puzzleCopy[row] = puzzle[row].clone();
+    private void evaluateChildren(Workspace work, int i, int[][] neighbors, int size, 
+                                  String heuristicTp) {
+        int  curr      = work.batch[i];
+        long board     = work.nodes.getBoard(curr);
+        int  blank     = work.nodes.getBlank(curr);
+        int  heuristic = work.nodes.getHeuristic(curr);
+        int  pathCost  = work.nodes.getPathCost(curr) + 1;
+        int  slot      = i * Board.MAX_MOVES;
+
+        // For each tile that can be moved into the empty space.
+        for (int target : neighbors[blank]) {
+            long child = Board.move(board, blank, target);
+            int  best  = work.bestCost.get(child);
+
+            work.childBoards[slot] = child;
+
+            // Check if the puzzle was already added at least as cheaply.
+            if (best != CostTable.MISSING && best <= (pathCost << 1 | OPEN)) {
+                work.childHeuristics[slot++] = -1;
+            } else {
+                work.childHeuristics[slot++] = heuristicFinder.updateHeuristic(child, size, 
+                        heuristic, target, blank, heuristicTp);
+            }
         }
+    }
 
-        return puzzleCopy;
+    /**
+     * Expands a state by creating a child state for each possible tile move.
+     * 
+     * @param state to be expanded.
+     */
+    public void expand(State state) {
+        state.setMoveL(state.moveLeft());
+        state.setMoveR(state.moveRight());
+        state.setMoveU(state.moveUp());
+        state.setMoveD(state.moveDown());
     }
 
     /**
@@ -258,100 +434,60 @@ public class Searcher {
     }
 
     /**
-     * Creates a new puzzle state by moving the left tile.
-     * 
-     * @param  puzzle to analyze.
-     * @param  r      row number.
-     * @param  c      column number.
-     * @return true if move was successful.
-     */
-    private boolean moveLeft(int[][] puzzle, int r, int c) {
-
-        // Check if move is possible.
-        if (c - 1 >= 0) {
-            puzzle[r][c] = puzzle[r][c - 1];
-            puzzle[r][c - 1] = 0;
-
-            return true;
-        } 
-        return false;
-    }
-
-    /**
-     * Creates a new puzzle state by moving the right tile.
+     * Holds the structures of a search, kept by each thread so that their 
+     * arrays are reused by its next search.
      * 
-     * @param  puzzle to analyze.
-     * @param  size   size of the puzzle.
-     * @param  r      row number.
-     * @param  c      column number.
-     * @return true if move was successful.
+     * @author  Maksym Turkot
+     * @version 10/15/22
      */
-    private boolean moveRight(int[][] puzzle, int size, int r, int c) {
-
-        // Check if move is possible.
-        if (c + 1 < size) {
-            puzzle[r][c] = puzzle[r][c + 1];
-            puzzle[r][c + 1] = 0;
+    private static class Workspace {
+        private NodeStore   nodes           = new NodeStore();
+        private BucketQueue frontier        = new BucketQueue();
+        private CostTable   bestCost        = new CostTable();
+        private int[]       batch           = new int[0];
+        private long[]      childBoards     = new long[0];
+        private int[]       childHeuristics = new int[0];
+        private long        generated       = 0;
+        private long        peakFrontier    = 0;
+        private long        stale           = 0;
+        private long        closedHits      = 0;
+        private long        dominated       = 0;
+        private long        heuristicCalls  = 0;
+        private long        selectNanos     = 0;
+        private long        closedNanos     = 0;
+        private long        expandNanos     = 0;
 
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * Creates a new puzzle state by moving the top tile.
-     * 
-     * @param  puzzle to analyze.
-     * @param  r      row number.
-     * @param  c      column number.
-     * @return true if move was successful.
-     */
-    private boolean moveUp(int[][] puzzle, int r, int c) {
-
-        // Check if move is possible.
-        if (r - 1 >= 0) {
-            puzzle[r][c] = puzzle[r - 1][c];
-            puzzle[r - 1][c] = 0;
-
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * Creates a new puzzle state by moving the bottom tile.
-     * 
-     * @param  puzzle to analyze.
-     * @param  size   size of the puzzle.
-     * @param  r      row number.
-     * @param  c      column number.
-     * @return true if move was successful.
-     */
-    private boolean moveDown(int[][] puzzle, int size, int r, int c) {
-
-        // Check if move is possible.
-        if (r + 1 < size) {
-            puzzle[r][c] = puzzle[r + 1][c];
-            puzzle[r + 1][c] = 0;
+        /**
+         * Makes room for the states of a batch and their children.
+         * 
+         * @param batchSize largest number of states expanded together.
+         */
+        void prepare(int batchSize) {
 
-            return true;
+            // Check if the batch arrays have to grow.
+            if (this.batch.length < batchSize) {
+                this.batch           = new int[batchSize];
+                this.childBoards     = new long[batchSize * Board.MAX_MOVES];
+                this.childHeuristics = new int[batchSize * Board.MAX_MOVES];
+            }
         }
-        return false;
-    }
-
-    /**
-     * Implements the comparator for the State Priority Queue.
-     * 
-     * @author  Max Turkot
-     * @version 10/02/22
-     */
-    private class StateComparator implements Comparator<State> {
 
         /**
-         * Compares the evaluation functions of two states.
+         * Empties the structures and resets the counters.
          */
-        public int compare(State s1, State s2) {
-            return s1.getEvalFunc() - s2.getEvalFunc();
+        void clear() {
+            this.nodes.clear();
+            this.frontier.clear();
+            this.bestCost.clear();
+            this.generated      = 0;
+            this.peakFrontier   = 0;
+            this.stale          = 0;
+            this.closedHits     = 0;
+            this.dominated      = 0;
+            this.heuristicCalls = 0;
+            this.selectNanos    = 0;
+            this.closedNanos    = 0;
+            this.expandNanos    = 0;
         }
     }
 }
@@ -0,0 +1,580 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * This class searches the puzzle states for the goal state using simplified
+ * memory-bounded A* (SMA*), never holding more states than a node budget
+ * fixed when it is made, so the memory used by a search does not depend on
+ * how hard its puzzle is. The states are kept in arrays allocated once per
+ * thread at the size of the budget, about BYTES_PER_NODE bytes per state,
+ * and budgetOf() turns a byte budget into a node budget. The solve() method
+ * expands the open state of the smallest evaluation function, the deepest
+ * among equal ones, generating each of its children not already in memory
+ * other than the one undoing the last move. When the budget is full, the
+ * open leaf of the largest evaluation function, the shallowest among equal
+ * ones, is forgotten to make room: its evaluation function is backed up
+ * into the slot of its move in its parent, which is reopened with the
+ * smallest value it forgot and regenerates the forgotten children, with
+ * their backed up values, once it is chosen again. A child's evaluation
+ * function is never below its parent's, and values only grow as they are
+ * backed up, so every value stays a lower bound on the cost of a solution
+ * through the state. The states on the path of the expanded state always stay
+ * in memory, so the search finds an optimal solution whenever its path has
+ * fewer states than the budget, and gives up once no solution fits, with the
+ * children too deep to fit valued at infinity. Like IdaSearcher, the search
+ * only checks for moves undoing the last one, not for other copies of a
+ * puzzle.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class SmaSearcher implements Solver {
+    public  static final int BYTES_PER_NODE = 62;
+
+    private static final int INFINITE       = Integer.MAX_VALUE;
+
+    private Heuristic              heuristicFinder;
+    private int                    budget;
+    private ThreadLocal<Workspace> workspaces;
+
+    /**
+     * Constructor method.
+     *
+     * @param budget largest number of states held at once by a search.
+     */
+    public SmaSearcher(int budget) {
+
+        // Check if the budget holds the initial state and a child.
+        if (budget < 2) {
+            throw new IllegalArgumentException("Node budget must be at least 2, got " + budget);
+        }
+        this.heuristicFinder = new Heuristic();
+        this.budget          = budget;
+        this.workspaces      = ThreadLocal.withInitial(() -> new Workspace(budget));
+    }
+
+    /**
+     * Finds the node budget of a search allowed to use the given number of
+     * bytes for its states.
+     *
+     * @param  bytes memory available to each search.
+     * @return the number of states that fit.
+     */
+    public static int budgetOf(long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE - 8, bytes / BYTES_PER_NODE);
+    }
+
+    /**
+     * Getter for the node budget.
+     *
+     * @return largest number of states held at once by a search.
+     */
+    public int getBudget() {
+        return this.budget;
+    }
+
+    /**
+     * Runs the memory-bounded search from the initial state until the goal
+     * state is reached, or no solution fits in the budget. The peak frontier
+     * of the result is the largest number of open states.
+     *
+     * @param  initial     initial state to search.
+     * @param  heuristicTp heuristic type to use.
+     * @return the result of the search.
+     */
+    @Override
+    public SearchResult solve(State initial, String heuristicTp) {
+        long      startTime = System.nanoTime();
+        Workspace work      = this.workspaces.get();
+        int       size      = initial.getSize();
+        long      goal      = Searcher.setGoal(size);
+        int[][]   neighbors = Board.neighbors(size);
+        long      expanded  = 0;
+        long      generated = 0;
+
+        work.clear();
+
+        int heuristic = heuristicFinder.findHeuristic(initial, heuristicTp);
+        int root      = work.add(initial.getBoard(), initial.getBlank(), -1, 0, heuristic,
+                                 heuristic);
+
+        work.best.add(root);
+
+        // Expand the best open state until the goal state is reached.
+        while (work.best.size() > 0) {
+            int curr = work.best.peek();
+
+            // Check if no solution fits in the budget.
+            if (work.evalFuncs[curr] == INFINITE) {
+                break;
+            }
+            work.best.remove(curr);
+            work.worst.remove(curr);
+            expanded++;
+
+            // Check if current state is the goal state.
+            if (work.boards[curr] == goal) {
+                return new SearchResult(work.makeState(curr, size), expanded, generated,
+                                        work.peakOpen, System.nanoTime() - startTime);
+            }
+            long  board    = work.boards[curr];
+            int   blank    = work.blanks[curr];
+            int   parent   = work.parents[curr];
+            int   previous = parent < 0 ? -1 : work.blanks[parent];
+            int   pathCost = work.pathCosts[curr] + 1;
+            int   slots    = curr * Board.MAX_MOVES;
+            int[] targets  = neighbors[blank];
+
+            // For each tile that can be moved into the empty space.
+            for (int j = 0; j < targets.length; j++) {
+                int backedUp = work.forgotten[slots + j];
+
+                // Skip the move that undoes the last one, children in memory, and those
+                // forgotten for having no solution within the budget.
+                if (targets[j] == previous || (work.children[curr] & 1 << j) != 0
+                        || backedUp == INFINITE) {
+                    continue;
+                }
+
+                // Check if a leaf has to be forgotten to make room, giving up if none can.
+                if (work.isFull() && !this.forget(work, curr, neighbors)) {
+                    return new SearchResult(null, expanded, generated, work.peakOpen,
+                                            System.nanoTime() - startTime);
+                }
+                long child          = Board.move(board, blank, targets[j]);
+                int  childHeuristic = heuristicFinder.updateHeuristic(child, size,
+                        work.heuristics[curr], targets[j], blank, heuristicTp);
+                int  evalFunc       = pathCost >= this.budget - 1 && child != goal
+                                      ? INFINITE
+                                      : Math.max(Math.max(work.evalFuncs[curr], backedUp),
+                                                 pathCost + childHeuristic);
+                int  index          = work.add(child, targets[j], curr, pathCost,
+                                               childHeuristic, evalFunc);
+
+                work.children[curr]      |= 1 << j;
+                work.forgotten[slots + j] = 0;
+                work.best.add(index);
+                work.worst.add(index);
+                generated++;
+            }
+
+            // Check if children are left forgotten.
+            if (work.hasForgotten(curr)) {
+                work.reopen(curr);
+            }
+            work.peakOpen = Math.max(work.peakOpen, work.best.size());
+        }
+        return new SearchResult(null, expanded, generated, work.peakOpen,
+                                System.nanoTime() - startTime);
+    }
+
+    /**
+     * Forgets the open leaf of the largest evaluation function, backing its
+     * value up into the slot of its move in its parent and reopening the
+     * parent, unless the parent is the state being expanded, which is
+     * reopened once it is done.
+     *
+     * @param  work      workspace of the search.
+     * @param  expanding index of the state being expanded.
+     * @param  neighbors positions each empty tile position can move to.
+     * @return true if a leaf was forgotten.
+     */
+    private boolean forget(Workspace work, int expanding, int[][] neighbors) {
+
+        // Check if there is a leaf to forget.
+        if (work.worst.size() == 0) {
+            return false;
+        }
+        int   leaf    = work.worst.peek();
+        int   parent  = work.parents[leaf];
+        int[] targets = neighbors[work.blanks[parent]];
+
+        work.worst.remove(leaf);
+        work.best.remove(leaf);
+
+        // For each child position of the parent, find the one of the leaf.
+        for (int j = 0; j < targets.length; j++) {
+
+            // Check if the leaf was made by this move.
+            if (targets[j] == work.blanks[leaf]) {
+                work.children[parent]                       &= ~(1 << j);
+                work.forgotten[parent * Board.MAX_MOVES + j] = work.evalFuncs[leaf];
+            }
+        }
+        work.release(leaf);
+
+        // Check if the parent can be reopened now.
+        if (parent != expanding) {
+            work.reopen(parent);
+        }
+        return true;
+    }
+
+    /**
+     * Holds the states of a search in arrays allocated once, at the size of
+     * the budget, and kept by each thread so that they are reused by its
+     * next search. The open states are ordered by two heaps: one with the
+     * best state on top, and one with the worst of the leaves, which are
+     * the open states without children in memory other than the initial
+     * state. The evaluation function backed up from each forgotten child is
+     * kept in the slot of its move, and 0 marks a slot with nothing
+     * forgotten.
+     *
+     * @author  Maksym Turkot
+     * @version 10/17/22
+     */
+    private static class Workspace {
+        private long[]   boards;
+        private int[]    parents;
+        private byte[]   blanks;
+        private byte[]   children;
+        private int[]    pathCosts;
+        private int[]    heuristics;
+        private int[]    evalFuncs;
+        private int[]    forgotten;
+        private int[]    free;
+        private int      freeCount;
+        private int      used;
+        private int      peakOpen;
+        private NodeHeap best;
+        private NodeHeap worst;
+
+        /**
+         * Constructor method.
+         *
+         * @param budget largest number of states held at once.
+         */
+        Workspace(int budget) {
+            this.boards     = new long[budget];
+            this.parents    = new int[budget];
+            this.blanks     = new byte[budget];
+            this.children   = new byte[budget];
+            this.pathCosts  = new int[budget];
+            this.heuristics = new int[budget];
+            this.evalFuncs  = new int[budget];
+            this.forgotten  = new int[budget * Board.MAX_MOVES];
+            this.free       = new int[budget];
+            this.best       = new NodeHeap(this, budget, false);
+            this.worst      = new NodeHeap(this, budget, true);
+        }
+
+        /**
+         * Stores a state, reusing the slot of a forgotten one if there is
+         * one.
+         *
+         * @param  board     packed puzzle of the state.
+         * @param  blank     position of the empty tile.
+         * @param  parent    index of the parent state, or -1 for none.
+         * @param  pathCost  cost of the path to the state.
+         * @param  heuristic heuristic value of the state.
+         * @param  evalFunc  evaluation function of the state.
+         * @return the index of the state.
+         */
+        int add(long board, int blank, int parent, int pathCost, int heuristic, int evalFunc) {
+            int index = this.freeCount > 0 ? this.free[--this.freeCount] : this.used++;
+
+            this.boards[index]     = board;
+            this.parents[index]    = parent;
+            this.blanks[index]     = (byte) blank;
+            this.children[index]   = 0;
+            this.pathCosts[index]  = pathCost;
+            this.heuristics[index] = heuristic;
+            this.evalFuncs[index]  = evalFunc;
+            Arrays.fill(this.forgotten, index * Board.MAX_MOVES,
+                        (index + 1) * Board.MAX_MOVES, 0);
+            return index;
+        }
+
+        /**
+         * Frees the slot of a forgotten state.
+         *
+         * @param index of the state.
+         */
+        void release(int index) {
+            this.free[this.freeCount++] = index;
+        }
+
+        /**
+         * Checks if every slot holds a state.
+         *
+         * @return true if a state has to be forgotten before adding one.
+         */
+        boolean isFull() {
+            return this.freeCount == 0 && this.used == this.boards.length;
+        }
+
+        /**
+         * Checks if a state has forgotten children.
+         *
+         * @param  index of the state.
+         * @return true if a slot of the state holds a backed up value.
+         */
+        boolean hasForgotten(int index) {
+
+            // For each move slot of the state.
+            for (int j = index * Board.MAX_MOVES; j < (index + 1) * Board.MAX_MOVES; j++) {
+
+                // Check if the slot holds a forgotten child.
+                if (this.forgotten[j] != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Opens a state with forgotten children, valued at the smallest
+         * evaluation function it forgot, and makes it a leaf if none of its
+         * children are left in memory.
+         *
+         * @param index of the state.
+         */
+        void reopen(int index) {
+            int min = INFINITE;
+
+            // For each move slot of the state, find the smallest backed up value.
+            for (int j = index * Board.MAX_MOVES; j < (index + 1) * Board.MAX_MOVES; j++) {
+
+                // Check if the slot holds a forgotten child.
+                if (this.forgotten[j] != 0) {
+                    min = Math.min(min, this.forgotten[j]);
+                }
+            }
+            this.evalFuncs[index] = min;
+            this.best.update(index);
+
+            // Check if the state became a leaf other than the initial state.
+            if (this.children[index] == 0 && this.parents[index] >= 0) {
+                this.worst.update(index);
+            }
+        }
+
+        /**
+         * Checks if a state comes before another: its evaluation function
+         * is smaller, or equal with a longer path.
+         *
+         * @param  a index of the first state.
+         * @param  b index of the second state.
+         * @return true if the first state comes first.
+         */
+        boolean before(int a, int b) {
+            return this.evalFuncs[a] < this.evalFuncs[b]
+                   || (this.evalFuncs[a] == this.evalFuncs[b]
+                       && this.pathCosts[a] > this.pathCosts[b]);
+        }
+
+        /**
+         * Rebuilds the chain of states from the initial state to a stored
+         * state, linking each state to its parent.
+         *
+         * @param  index      of the last state of the chain.
+         * @param  puzzleSize size of the puzzle.
+         * @return the last state of the chain.
+         */
+        State makeState(int index, int puzzleSize) {
+            int[] chain = new int[this.pathCosts[index] + 1];
+
+            // Walk up the parents, storing the chain backwards.
+            for (int i = index, j = chain.length - 1; j >= 0; i = this.parents[i], j--) {
+                chain[j] = i;
+            }
+            State state = null;
+
+            // For each index of the chain, create the state.
+            for (int i : chain) {
+                state = new State(this.boards[i], this.blanks[i], puzzleSize, state);
+                state.setPathCost(this.pathCosts[i]);
+                state.setHeuristic(this.heuristics[i]);
+                state.updateEvalFunc();
+            }
+            return state;
+        }
+
+        /**
+         * Empties the workspace, keeping the allocated arrays.
+         */
+        void clear() {
+            this.freeCount = 0;
+            this.used      = 0;
+            this.peakOpen  = 0;
+            this.best.clear();
+            this.worst.clear();
+        }
+    }
+
+    /**
+     * Binary heap of state indices that can find, update and remove any of
+     * its states, keeping the position of each state in the heap. The top
+     * is the state coming first, or last if the heap is reversed.
+     *
+     * @author  Maksym Turkot
+     * @version 10/17/22
+     */
+    private static class NodeHeap {
+        private Workspace work;
+        private int[]     heap;
+        private int[]     positions;
+        private int       size;
+        private boolean   reversed;
+
+        /**
+         * Constructor method.
+         *
+         * @param work     workspace holding the states.
+         * @param capacity largest number of states.
+         * @param reversed true to keep the last state on top.
+         */
+        NodeHeap(Workspace work, int capacity, boolean reversed) {
+            this.work      = work;
+            this.heap      = new int[capacity];
+            this.positions = new int[capacity];
+            this.reversed  = reversed;
+            Arrays.fill(this.positions, -1);
+        }
+
+        /**
+         * Getter for the number of states.
+         *
+         * @return number of states in the heap.
+         */
+        int size() {
+            return this.size;
+        }
+
+        /**
+         * Finds the state on top.
+         *
+         * @return index of the top state.
+         */
+        int peek() {
+            return this.heap[0];
+        }
+
+        /**
+         * Adds a state that is not in the heap.
+         *
+         * @param index of the state.
+         */
+        void add(int index) {
+            this.heap[this.size]  = index;
+            this.positions[index] = this.size;
+            this.siftUp(this.size++);
+        }
+
+        /**
+         * Moves a state to its place after its evaluation function changed,
+         * adding it if it is not in the heap.
+         *
+         * @param index of the state.
+         */
+        void update(int index) {
+
+            // Check if the state is not in the heap yet.
+            if (this.positions[index] < 0) {
+                this.add(index);
+            } else {
+                this.siftDown(this.siftUp(this.positions[index]));
+            }
+        }
+
+        /**
+         * Removes a state, if it is in the heap.
+         *
+         * @param index of the state.
+         */
+        void remove(int index) {
+            int pos = this.positions[index];
+
+            // Check if the state is in the heap.
+            if (pos < 0) {
+                return;
+            }
+            int last = this.heap[--this.size];
+
+            this.positions[index] = -1;
+
+            // Check if another state has to fill the hole.
+            if (pos < this.size) {
+                this.heap[pos]       = last;
+                this.positions[last] = pos;
+                this.siftDown(this.siftUp(pos));
+            }
+        }
+
+        /**
+         * Removes all states.
+         */
+        void clear() {
+
+            // For each state in the heap, forget its position.
+            for (int i = 0; i < this.size; i++) {
+                this.positions[this.heap[i]] = -1;
+            }
+            this.size = 0;
+        }
+
+        /**
+         * Checks if a state belongs above another.
+         *
+         * @param  a index of the first state.
+         * @param  b index of the second state.
+         * @return true if the first state belongs above.
+         */
+        private boolean above(int a, int b) {
+            return this.reversed ? this.work.before(b, a) : this.work.before(a, b);
+        }
+
+        /**
+         * Moves the state at a position up until its parent belongs above it.
+         *
+         * @param  pos position of the state.
+         * @return the new position of the state.
+         */
+        private int siftUp(int pos) {
+            int index = this.heap[pos];
+
+            // Move up while the state belongs above its parent.
+            while (pos > 0 && this.above(index, this.heap[(pos - 1) >>> 1])) {
+                int up = (pos - 1) >>> 1;
+
+                this.heap[pos]                 = this.heap[up];
+                this.positions[this.heap[pos]] = pos;
+                pos                            = up;
+            }
+            this.heap[pos]        = index;
+            this.positions[index] = pos;
+            return pos;
+        }
+
+        /**
+         * Moves the state at a position down until it belongs above its
+         * children.
+         *
+         * @param pos position of the state.
+         */
+        private void siftDown(int pos) {
+            int index = this.heap[pos];
+
+            // Move down while a child belongs above the state.
+            while ((pos << 1) + 1 < this.size) {
+                int down = (pos << 1) + 1;
+
+                // Check if the right child belongs above the left one.
+                if (down + 1 < this.size && this.above(this.heap[down + 1], this.heap[down])) {
+                    down++;
+                }
+
+                // Check if the state belongs above both children.
+                if (!this.above(this.heap[down], index)) {
+                    break;
+                }
+                this.heap[pos]                 = this.heap[down];
+                this.positions[this.heap[pos]] = pos;
+                pos                            = down;
+            }
+            this.heap[pos]        = index;
+            this.positions[index] = pos;
+        }
+    }
+}
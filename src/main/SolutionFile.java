@@ -0,0 +1,161 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class keeps solutions in a memory-mapped file, so that they outlive
+ * the program. The file holds a fixed number of slots after a short header,
+ * and each slot holds a packed puzzle, the number of moves of its solution,
+ * and the moves themselves, two bits each, as the direction the empty tile
+ * moved in. A puzzle is stored in the first free slot among a few starting
+ * from the slot its hash picks, and when all of them are taken it replaces
+ * the solution in the first one. The get() method looks a puzzle up, put()
+ * stores one, and force() writes the changes out to the disk. Solutions
+ * longer than a slot can hold are not stored.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class SolutionFile {
+    public  static final int MAX_MOVES = 80;
+
+    private static final int MAGIC     = 0x53434831; // "SCH1"
+    private static final int HEADER    = 8;
+    private static final int SLOT_SIZE = 32;
+    private static final int PROBES    = 8;
+
+    private MappedByteBuffer buffer;
+    private int              slots;
+    private long             replaced;
+
+    /**
+     * Constructor method, opening the file or creating it with the given
+     * number of slots.
+     *
+     * @param  file  to keep the solutions in.
+     * @param  slots number of slots of a new file.
+     * @throws IOException if the file can not be opened or is not a solution file.
+     */
+    public SolutionFile(File file, int slots) throws IOException {
+        boolean created = !file.exists();
+
+        // Check if the folder of a new file has to be created.
+        if (created && file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+
+            // Check if the file has to be laid out first.
+            if (created) {
+                raf.setLength(HEADER + (long) slots * SLOT_SIZE);
+                raf.writeInt(MAGIC);
+                raf.writeInt(slots);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+
+        // Check if the file holds solutions.
+        if (this.buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a solution file \"" + file + "\"");
+        }
+        this.slots    = this.buffer.getInt(4);
+        this.replaced = 0;
+    }
+
+    /**
+     * Getter for the number of solutions replaced by newer ones.
+     *
+     * @return number of replaced solutions.
+     */
+    public synchronized long getReplaced() {
+        return this.replaced;
+    }
+
+    /**
+     * Looks up the solution of a puzzle.
+     *
+     * @param  board packed puzzle.
+     * @return directions of the moves, or null if the puzzle is not stored.
+     */
+    public synchronized byte[] get(long board) {
+        int slot = (ClosedSet.hash(board) & 0x7FFFFFFF) % this.slots;
+
+        // For each slot the puzzle may be stored in, wrapping at the end.
+        for (int i = 0; i < PROBES; i++, slot = slot + 1 == this.slots ? 0 : slot + 1) {
+            int offset = HEADER + slot * SLOT_SIZE;
+
+            // Check if the slot holds the puzzle.
+            if (this.buffer.getLong(offset) == board) {
+                byte[] directions = new byte[this.buffer.get(offset + 8) & 0xFF];
+
+                // For each move, unpack its direction.
+                for (int j = 0; j < directions.length; j++) {
+                    int packed = this.buffer.get(offset + 9 + (j >>> 2)) & 0xFF;
+
+                    directions[j] = (byte) ((packed >>> ((j & 3) << 1)) & 3);
+                }
+                return directions;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the solution of a puzzle, unless it is too long for a slot.
+     *
+     * @param board      packed puzzle.
+     * @param directions of the moves, each between 0 and 3.
+     */
+    public synchronized void put(long board, byte[] directions) {
+
+        // Check if the solution fits in a slot.
+        if (directions.length > MAX_MOVES) {
+            return;
+        }
+        int slot   = (ClosedSet.hash(board) & 0x7FFFFFFF) % this.slots;
+        int offset = HEADER + slot * SLOT_SIZE;
+
+        // For each slot the puzzle may be stored in, take the first free one.
+        for (int i = 0; i < PROBES; i++, slot = slot + 1 == this.slots ? 0 : slot + 1) {
+            int  candidate = HEADER + slot * SLOT_SIZE;
+            long stored    = this.buffer.getLong(candidate);
+
+            // Check if the slot is free or already holds the puzzle.
+            if (stored == 0L || stored == board) {
+                offset = candidate;
+                break;
+            }
+
+            // Check if every slot was taken, so the first one is replaced.
+            if (i == PROBES - 1) {
+                this.replaced++;
+            }
+        }
+        this.buffer.putLong(offset, board);
+        this.buffer.put(offset + 8, (byte) directions.length);
+
+        // For each byte of moves, pack four directions.
+        for (int j = 0; j < (MAX_MOVES >>> 2); j++) {
+            int packed = 0;
+
+            // For each direction of the byte.
+            for (int k = 0; k < 4 && 4 * j + k < directions.length; k++) {
+                packed |= directions[4 * j + k] << (k << 1);
+            }
+            this.buffer.put(offset + 9 + j, (byte) packed);
+        }
+    }
+
+    /**
+     * Writes the changed slots out to the disk.
+     */
+    public synchronized void force() {
+        this.buffer.force();
+    }
+}
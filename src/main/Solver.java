@@ -0,0 +1,22 @@
+package main;
+
+/**
+ * This interface is implemented by the searching algorithms. The solve() 
+ * method searches from the initial state to the goal state and returns the 
+ * solution together with the statistics of the search. Implementations keep 
+ * no state between calls, so one solver can serve several threads at once.
+ * 
+ * @author  Maksym Turkot
+ * @version 10/15/22
+ */
+public interface Solver {
+
+    /**
+     * Searches for the goal state from the initial state.
+     * 
+     * @param  initial     initial state to search.
+     * @param  heuristicTp heuristic type to use.
+     * @return the result of the search.
+     */
+    SearchResult solve(State initial, String heuristicTp);
+}
@@ -3,10 +3,15 @@ package main;
 /**
  * This class constructs state objects that store information about the puzzle 
  * state. It includes data fields as well as getters and setters for those 
- * fields.
+ * fields. The puzzle is kept in the packed form described in Board, together 
+ * with the position of the empty tile, so that moveLeft(), moveRight(), 
+ * moveUp(), moveDown(), isGoal(), equals() and hashCode() work directly on 
+ * the packed value. The puzzle array is only produced by getPuzzle(). 
+ * Puzzles larger than Board.MAX_SIZE are packed as described in WideBoard, 
+ * with the low half in the board and the high half in boardHigh.
  * 
  * @author  Maksym Turkot
- * @version 10/01/2022
+ * @version 10/17/2022
  */
 public class State {
     private int id;
@@ -14,7 +19,9 @@ public class State {
     private int pathCost;
     private int heuristic;
     private int evalFunc;
-    private int[][] puzzle;
+    private int blank;
+    private long board;
+    private long boardHigh;
 
     private State moveL;
     private State moveR;
@@ -30,12 +37,42 @@ public class State {
      * @param parent from which the state was derived.
      */
     public State(int[][] puzzle, State parent) {
+        this(puzzle.length > Board.MAX_SIZE ? WideBoard.pack(State.flatten(puzzle), true) : 0L,
+             puzzle.length > Board.MAX_SIZE ? WideBoard.pack(State.flatten(puzzle), false)
+                                            : Board.pack(puzzle),
+             -1, puzzle.length, parent);
+    }
+
+    /**
+     * Constructor method.
+     * 
+     * @param board  packed puzzle of the state.
+     * @param blank  position of the empty tile, or -1 to look it up.
+     * @param size   of the puzzle.
+     * @param parent from which the state was derived.
+     */
+    public State(long board, int blank, int size, State parent) {
+        this(0L, board, blank, size, parent);
+    }
+
+    /**
+     * Constructor method for puzzles of any size, packed into two halves.
+     * 
+     * @param boardHigh high half of the packed puzzle, 0 if it fits a long.
+     * @param board     low half of the packed puzzle.
+     * @param blank     position of the empty tile, or -1 to look it up.
+     * @param size      of the puzzle.
+     * @param parent    from which the state was derived.
+     */
+    public State(long boardHigh, long board, int blank, int size, State parent) {
         this.id = 0;
-        this.size = puzzle.length;
+        this.size = size;
         this.pathCost = 0;
         this.heuristic = 0;
         this.evalFunc = this.heuristic + this.pathCost;
-        this.puzzle = puzzle;
+        this.board = board;
+        this.boardHigh = boardHigh;
+        this.blank = blank >= 0 ? blank : State.findBlank(boardHigh, board, size);
         this.moveL  = null;
         this.moveR  = null;
         this.moveU  = null;
@@ -122,12 +159,229 @@ public class State {
     }
 
     /**
-     * Getter for the puzzle array.
+     * Getter for the puzzle array, unpacked from the packed puzzle.
      * 
      * @return puzzle array.
      */
     public int[][] getPuzzle() {
-        return this.puzzle;
+
+        // Check if the puzzle fits into a long.
+        if (this.size <= Board.MAX_SIZE) {
+            return Board.unpack(this.board, this.size);
+        }
+        int[]   tiles  = new int[this.size * this.size];
+        int[][] puzzle = new int[this.size][this.size];
+
+        WideBoard.unpack(this.boardHigh, this.board, tiles);
+
+        // For each position of the puzzle, copy its tile.
+        for (int i = 0; i < tiles.length; i++) {
+            puzzle[i / this.size][i % this.size] = tiles[i];
+        }
+        return puzzle;
+    }
+
+    /**
+     * Getter for the packed puzzle.
+     * 
+     * @return packed puzzle.
+     */
+    public long getBoard() {
+        return this.board;
+    }
+
+    /**
+     * Getter for the high half of the packed puzzle, used by puzzles larger 
+     * than Board.MAX_SIZE.
+     * 
+     * @return high half of the packed puzzle, 0 for smaller puzzles.
+     */
+    public long getBoardHigh() {
+        return this.boardHigh;
+    }
+
+    /**
+     * Getter for the position of the empty tile.
+     * 
+     * @return position of the empty tile, row * size + col.
+     */
+    public int getBlank() {
+        return this.blank;
+    }
+
+    /**
+     * Checks if the state holds the goal puzzle, for puzzles that fit a long.
+     * 
+     * @param  goal packed goal puzzle.
+     * @return true if the state is the goal state.
+     */
+    public boolean isGoal(long goal) {
+        return this.isGoal(0L, goal);
+    }
+
+    /**
+     * Checks if the state holds the goal puzzle, comparing both halves.
+     * 
+     * @param  goalHigh high half of the packed goal puzzle.
+     * @param  goal     low half of the packed goal puzzle.
+     * @return true if the state is the goal state.
+     */
+    public boolean isGoal(long goalHigh, long goal) {
+        return this.board == goal && this.boardHigh == goalHigh;
+    }
+
+    /**
+     * Creates the child state by moving the left tile into the empty space.
+     * 
+     * @return child state, or null if the move is not possible.
+     */
+    public State moveLeft() {
+
+        // Check if move is possible.
+        if (this.blank % this.size > 0) {
+            return this.slide(this.blank - 1);
+        }
+        return null;
+    }
+
+    /**
+     * Creates the child state by moving the right tile into the empty space.
+     * 
+     * @return child state, or null if the move is not possible.
+     */
+    public State moveRight() {
+
+        // Check if move is possible.
+        if (this.blank % this.size < this.size - 1) {
+            return this.slide(this.blank + 1);
+        }
+        return null;
+    }
+
+    /**
+     * Creates the child state by moving the top tile into the empty space.
+     * 
+     * @return child state, or null if the move is not possible.
+     */
+    public State moveUp() {
+
+        // Check if move is possible.
+        if (this.blank >= this.size) {
+            return this.slide(this.blank - this.size);
+        }
+        return null;
+    }
+
+    /**
+     * Creates the child state by moving the bottom tile into the empty space.
+     * 
+     * @return child state, or null if the move is not possible.
+     */
+    public State moveDown() {
+
+        // Check if move is possible.
+        if (this.blank < this.size * (this.size - 1)) {
+            return this.slide(this.blank + this.size);
+        }
+        return null;
+    }
+
+    /**
+     * Creates the child state by sliding the tile at the target position 
+     * into the empty space.
+     * 
+     * @param  target position of the tile to move.
+     * @return child state.
+     */
+    private State slide(int target) {
+
+        // Check if the puzzle fits into a long.
+        if (this.size <= Board.MAX_SIZE) {
+            return new State(Board.move(this.board, this.blank, target), target, 
+                             this.size, this);
+        }
+        int[] tiles = new int[this.size * this.size];
+
+        WideBoard.unpack(this.boardHigh, this.board, tiles);
+        tiles[this.blank] = tiles[target];
+        tiles[target]     = 0;
+        return new State(WideBoard.pack(tiles, true), WideBoard.pack(tiles, false), target, 
+                         this.size, this);
+    }
+
+    /**
+     * Finds the position of the empty tile in a packed puzzle of any size.
+     * 
+     * @param  boardHigh high half of the packed puzzle.
+     * @param  board     low half of the packed puzzle.
+     * @param  size      of the puzzle.
+     * @return position of the empty tile.
+     */
+    private static int findBlank(long boardHigh, long board, int size) {
+
+        // Check if the puzzle fits into a long.
+        if (size <= Board.MAX_SIZE) {
+            return Board.findBlank(board, size);
+        }
+        int[] tiles = new int[size * size];
+
+        WideBoard.unpack(boardHigh, board, tiles);
+
+        // For each position, look for the empty tile.
+        for (int i = 0; i < tiles.length; i++) {
+
+            // Check if the position holds the empty tile.
+            if (tiles[i] == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Lays the rows of a puzzle array out one after another.
+     * 
+     * @param  puzzle array.
+     * @return flat puzzle, tile at position row * size + col.
+     */
+    private static int[] flatten(int[][] puzzle) {
+        int   size  = puzzle.length;
+        int[] tiles = new int[size * size];
+
+        // For each position of the puzzle, copy its tile.
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = puzzle[i / size][i % size];
+        }
+        return tiles;
+    }
+
+    /**
+     * Compares the packed puzzles of two states.
+     * 
+     * @param  other object to compare with.
+     * @return true if both states hold the same puzzle.
+     */
+    @Override
+    public boolean equals(Object other) {
+
+        // Check if the other object is a state.
+        if (!(other instanceof State)) {
+            return false;
+        }
+        State state = (State) other;
+
+        return this.board == state.board && this.boardHigh == state.boardHigh 
+               && this.size == state.size;
+    }
+
+    /**
+     * Hashes the packed puzzle.
+     * 
+     * @return hash code of the state.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.board) ^ Long.hashCode(this.boardHigh) * 31;
     }
 
     /**
@@ -0,0 +1,84 @@
+package main;
+
+/**
+ * This class holds the tile distance helpers shared by Heuristic and
+ * WideIdaSearcher, for every size up to WideBoard.MAX_SIZE. The manhattan()
+ * method returns the table of distances along rows and columns from each
+ * position to the goal position of each tile. The findConflicts() method
+ * counts the linear conflict moves of the tiles that belong to a row or
+ * column: they have to end up in their goal order, so every tile outside
+ * the longest run already in order has to step out and back in, costing
+ * two moves.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public final class TileDistance {
+    private static final int[][] MANHATTAN = new int[WideBoard.MAX_SIZE + 1][];
+
+    static {
+
+        // For each supported size, tabulate the distances.
+        for (int size = 2; size <= WideBoard.MAX_SIZE; size++) {
+            int cells = size * size;
+
+            MANHATTAN[size] = new int[cells * cells];
+
+            // For each tile, find distances from each position to the goal.
+            for (int tile = 0; tile < cells; tile++) {
+
+                // For each position of the tile.
+                for (int pos = 0; pos < cells; pos++) {
+                    MANHATTAN[size][tile * cells + pos] =
+                            Math.abs(tile / size - pos / size)
+                            + Math.abs(tile % size - pos % size);
+                }
+            }
+        }
+    }
+
+    /**
+     * Private constructor, the class only holds static helpers.
+     */
+    private TileDistance() {
+    }
+
+    /**
+     * Returns the Manhattan distance table of a puzzle size.
+     *
+     * @param  size of the puzzle.
+     * @return distance by tile * size * size + position.
+     */
+    public static int[] manhattan(int size) {
+        return MANHATTAN[size];
+    }
+
+    /**
+     * Counts the linear conflict moves of the tiles that belong to a line,
+     * given in the order they lie in it.
+     *
+     * @param  order   goal position of each tile along the line.
+     * @param  count   number of tiles in order.
+     * @param  longest scratch array at least count long.
+     * @return moves added by the line.
+     */
+    public static int findConflicts(int[] order, int count, int[] longest) {
+        int best = 0;
+
+        // For each kept tile, find the longest ordered run ending at it.
+        for (int i = 0; i < count; i++) {
+            longest[i] = 1;
+
+            // For each earlier tile, extend its run if it comes first.
+            for (int j = 0; j < i; j++) {
+
+                // Check if the earlier tile comes first in the goal.
+                if (order[j] < order[i]) {
+                    longest[i] = Math.max(longest[i], longest[j] + 1);
+                }
+            }
+            best = Math.max(best, longest[i]);
+        }
+        return 2 * (count - best);
+    }
+}
@@ -0,0 +1,220 @@
+package main;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class implements the walking distance heuristic. Looking only at rows,
+ * a puzzle is described by how many tiles of each goal row sit in each row,
+ * and a move takes a tile from a row next to the empty space into the row of
+ * the empty space. The table of move counts from every such description to
+ * the goal is built once per puzzle size by breadth-first search in build().
+ * Since the goal is symmetric, the same table serves the columns, and
+ * findHeuristic() adds the row and column values of a packed puzzle. Each
+ * description is packed into a long, three bits per count, by encode().
+ *
+ * @author  Maksym Turkot
+ * @version 10/10/22
+ */
+public class WalkingDistance {
+    // Replaced by a copy whenever tables are added, so it is read without locking.
+    private static volatile WalkingDistance[] tables = new WalkingDistance[Board.MAX_SIZE + 1];
+
+    private int    size;
+    private long[] codes;
+    private byte[] distances;
+
+    /**
+     * Constructor method.
+     *
+     * @param size      of the puzzle.
+     * @param codes     sorted packed descriptions.
+     * @param distances move count of each description.
+     */
+    private WalkingDistance(int size, long[] codes, byte[] distances) {
+        this.size      = size;
+        this.codes     = codes;
+        this.distances = distances;
+    }
+
+    /**
+     * Returns the walking distance tables for the puzzle size, building them
+     * on the first call. Only the first call locks.
+     *
+     * @param  size of the puzzle.
+     * @return the walking distance tables.
+     */
+    public static WalkingDistance forSize(int size) {
+        WalkingDistance table = tables[size];
+
+        // Check if the tables have to be built.
+        if (table == null) {
+            table = WalkingDistance.buildForSize(size);
+        }
+        return table;
+    }
+
+    /**
+     * Builds the walking distance tables for the puzzle size, unless another
+     * thread already did.
+     *
+     * @param  size of the puzzle.
+     * @return the walking distance tables.
+     */
+    private static synchronized WalkingDistance buildForSize(int size) {
+
+        // Check if another thread built the tables meanwhile.
+        if (tables[size] == null) {
+            WalkingDistance[] added = tables.clone();
+
+            added[size] = WalkingDistance.build(size);
+            tables      = added;
+        }
+        return tables[size];
+    }
+
+    /**
+     * Adds up the walking distances of the rows and of the columns.
+     *
+     * @param  board packed puzzle to compute heuristic for.
+     * @return heuristic value.
+     */
+    public int findHeuristic(long board) {
+        int  size    = this.size;
+        long rows    = 0L;
+        long columns = 0L;
+
+        // For each position of the puzzle, count its tile.
+        for (int pos = 0; pos < size * size; pos++) {
+            int tile = Board.tileAt(board, pos);
+
+            // Check if the position holds a tile.
+            if (tile != 0) {
+                rows    += 1L << (3 * (pos / size * size + tile / size));
+                columns += 1L << (3 * (pos % size * size + tile % size));
+            }
+        }
+        return this.distances[Arrays.binarySearch(this.codes, rows)]
+               + this.distances[Arrays.binarySearch(this.codes, columns)];
+    }
+
+    /**
+     * Builds the table by breadth-first search from the goal description,
+     * where every row holds its own tiles and the empty space is in row 0.
+     *
+     * @param  size of the puzzle.
+     * @return the walking distance tables.
+     */
+    private static WalkingDistance build(int size) {
+        HashMap<Long, Integer> reached  = new HashMap<Long, Integer>();
+        ArrayDeque<int[][]>    frontier = new ArrayDeque<int[][]>();
+        int[][]                goal     = new int[size][size];
+
+        // For each row, place its own tiles.
+        for (int row = 0; row < size; row++) {
+            goal[row][row] = row == 0 ? size - 1 : size;
+        }
+        reached.put(WalkingDistance.encode(goal), 0);
+        frontier.add(goal);
+
+        // For each description in the frontier.
+        while (!frontier.isEmpty()) {
+            int[][] counts = frontier.poll();
+            int     depth  = reached.get(WalkingDistance.encode(counts));
+            int     blank  = WalkingDistance.findBlankRow(counts);
+
+            // For each row next to the empty space.
+            for (int from = blank - 1; from <= blank + 1; from += 2) {
+
+                // Check if the row exists.
+                if (from < 0 || from >= size) {
+                    continue;
+                }
+
+                // For each goal row, move one of its tiles if there is one.
+                for (int tile = 0; tile < size; tile++) {
+
+                    // Check if the row holds such a tile.
+                    if (counts[from][tile] > 0) {
+                        int[][] child = new int[size][];
+
+                        // For each row, copy the counts.
+                        for (int row = 0; row < size; row++) {
+                            child[row] = counts[row].clone();
+                        }
+                        child[from][tile]--;
+                        child[blank][tile]++;
+
+                        // Check if the description is new.
+                        if (reached.putIfAbsent(WalkingDistance.encode(child), depth + 1) == null) {
+                            frontier.add(child);
+                        }
+                    }
+                }
+            }
+        }
+        long[] codes     = new long[reached.size()];
+        byte[] distances = new byte[codes.length];
+        int    index     = 0;
+
+        // For each reached description, store its code.
+        for (long code : reached.keySet()) {
+            codes[index++] = code;
+        }
+        Arrays.sort(codes);
+
+        // For each code, store its move count.
+        for (int i = 0; i < codes.length; i++) {
+            distances[i] = (byte) (int) reached.get(codes[i]);
+        }
+        return new WalkingDistance(size, codes, distances);
+    }
+
+    /**
+     * Finds the row holding the empty space, the only one short of a tile.
+     *
+     * @param  counts tiles of each goal row in each row.
+     * @return row of the empty space.
+     */
+    private static int findBlankRow(int[][] counts) {
+
+        // For each row, add up its tiles.
+        for (int row = 0; row < counts.length; row++) {
+            int sum = 0;
+
+            // For each goal row.
+            for (int count : counts[row]) {
+                sum += count;
+            }
+
+            // Check if the row is short of a tile.
+            if (sum < counts.length) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Packs the description into a long, three bits per count, in the same
+     * layout findHeuristic() builds from a puzzle.
+     *
+     * @param  counts tiles of each goal row in each row.
+     * @return packed description.
+     */
+    private static long encode(int[][] counts) {
+        int  size = counts.length;
+        long code = 0L;
+
+        // For each row.
+        for (int row = 0; row < size; row++) {
+
+            // For each goal row, append the count.
+            for (int tile = 0; tile < size; tile++) {
+                code += (long) counts[row][tile] << (3 * (row * size + tile));
+            }
+        }
+        return code;
+    }
+}
@@ -0,0 +1,113 @@
+package main;
+
+/**
+ * This class implements the packed representation of puzzles too large for
+ * the single long of Board, up to the 24-puzzle. Tiles take five bits each,
+ * twelve positions to a long: positions 0 to 11 in the low long and 12 to 23
+ * in the high long. The tile at the last position is the one missing from
+ * the others, so it is not stored, and a 5x5 puzzle fits in 120 bits. The
+ * pack() method stores half of a flat tile array, unpack() reads both halves
+ * back, and tileAt() reads a single position. The isReachable() method
+ * checks the parity of a flat tile array like Board.isReachable().
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public final class WideBoard {
+    public  static final int MAX_SIZE = 5;
+
+    private static final int BITS     = 5;
+    private static final int PER_LONG = 12;
+    private static final int MASK     = (1 << BITS) - 1;
+
+    /**
+     * Private constructor, the class only holds static helpers.
+     */
+    private WideBoard() {
+    }
+
+    /**
+     * Packs the low or high half of the flat tile array.
+     *
+     * @param  tiles flat puzzle, tile at position row * size + col.
+     * @param  high  true for positions 12 to 23, false for 0 to 11.
+     * @return packed half of the puzzle.
+     */
+    public static long pack(int[] tiles, boolean high) {
+        int  first = high ? PER_LONG : 0;
+        int  last  = Math.min(first + PER_LONG, tiles.length - 1);
+        long half  = 0L;
+
+        // Check if the puzzle fits into two longs.
+        if (tiles.length > MAX_SIZE * MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported puzzle of " + tiles.length + " tiles");
+        }
+
+        // For each position of the half, store the tile.
+        for (int pos = first; pos < last; pos++) {
+            half |= (long) tiles[pos] << ((pos - first) * BITS);
+        }
+        return half;
+    }
+
+    /**
+     * Unpacks both halves into the flat tile array, working out the tile at
+     * the last position.
+     *
+     * @param high  packed positions 12 to 23.
+     * @param low   packed positions 0 to 11.
+     * @param tiles flat puzzle to store the tiles to.
+     */
+    public static void unpack(long high, long low, int[] tiles) {
+        int cells = tiles.length;
+        int sum   = cells * (cells - 1) / 2;
+
+        // For each stored position, read the tile.
+        for (int pos = 0; pos < cells - 1; pos++) {
+            tiles[pos] = WideBoard.tileAt(high, low, pos);
+            sum       -= tiles[pos];
+        }
+        tiles[cells - 1] = sum;
+    }
+
+    /**
+     * Checks if a flat puzzle can reach the goal, by the same parity as
+     * Board.isReachable().
+     *
+     * @param  tiles flat puzzle, tile at position row * size + col.
+     * @param  size  of the puzzle.
+     * @return true if the goal can be reached.
+     */
+    public static boolean isReachable(int[] tiles, int size) {
+        int inversions = 0;
+        int blank      = 0;
+
+        // For each position, count the later tiles that come before its tile.
+        for (int i = 0; i < tiles.length; i++) {
+
+            // Check if the position holds the empty tile.
+            if (tiles[i] == 0) {
+                blank = i;
+            }
+
+            // For each later position.
+            for (int j = i + 1; j < tiles.length; j++) {
+                inversions += tiles[j] < tiles[i] ? 1 : 0;
+            }
+        }
+        return (inversions & 1) == ((blank / size + blank % size) & 1);
+    }
+
+    /**
+     * Reads the tile at a stored position, any position but the last.
+     *
+     * @param  high packed positions 12 to 23.
+     * @param  low  packed positions 0 to 11.
+     * @param  pos  position of the tile, row * size + col.
+     * @return tile value.
+     */
+    public static int tileAt(long high, long low, int pos) {
+        return pos < PER_LONG ? (int) (low >>> (pos * BITS)) & MASK
+                              : (int) (high >>> ((pos - PER_LONG) * BITS)) & MASK;
+    }
+}
@@ -0,0 +1,353 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * This class searches puzzles too large for the packed form of Board, up to
+ * WideBoard.MAX_SIZE, using iterative deepening A* like IdaSearcher. The
+ * search works in place on a flat tile array, applying each move before
+ * descending and undoing it after returning, and only the positions of the
+ * empty tile along the current path are remembered. A puzzle that can not
+ * reach the goal is told apart by its parity before searching, like in
+ * IdaSearcher. The distance and neighbor tables are derived from the size of
+ * the puzzle. The "nMisplaced" and "manhattanDist" types count the empty
+ * space like their Heuristic counterparts, and "linearConflict" adds the
+ * conflicts of each row and column to the Manhattan distance of the tiles. A
+ * move changes the order of the tiles in two lines only, the columns for a
+ * horizontal move and the rows for a vertical one, so the conflicts of just
+ * those two are found again, counted by TileDistance like in Heuristic. The
+ * "walkingDist" and "patternDb" types have no tables for these sizes, so they
+ * are rejected like any other type. The search state belongs to a Search made
+ * for each call, so a single WideIdaSearcher can be shared between threads.
+ *
+ * @author  Maksym Turkot
+ * @version 10/17/22
+ */
+public class WideIdaSearcher implements Solver {
+    private static final int FOUND = -1;
+
+    /**
+     * Runs depth-first searches of increasing evaluation function bound from
+     * the initial state until the goal state is reached. The peak frontier
+     * of the result is the longest path held at once.
+     *
+     * @param  initial     initial state to search.
+     * @param  heuristicTp heuristic type to use.
+     * @return the result of the search, without a solution if the goal can
+     *         not be reached.
+     * @throws IllegalArgumentException if the heuristic type is not supported.
+     */
+    @Override
+    public SearchResult solve(State initial, String heuristicTp) {
+        long   startTime = System.nanoTime();
+        Search search    = new Search(initial, heuristicTp);
+        int    heuristic = search.findHeuristic();
+        int    bound     = heuristic;
+        State  solution  = null;
+
+        // Check if the goal can not be reached at all.
+        if (!WideBoard.isReachable(search.tiles, search.size)) {
+            return new SearchResult(null, 0, 0, 0, System.nanoTime() - startTime);
+        }
+
+        // Raise the bound until the goal state is found.
+        while (true) {
+            int next = search.search(0, heuristic, bound, -1);
+
+            // Check if the goal state was found.
+            if (next == FOUND) {
+                solution = search.makeSolution(initial);
+                break;
+            }
+
+            // Check if no state exceeded the bound.
+            if (next == Integer.MAX_VALUE) {
+                break;
+            }
+            bound = next;
+        }
+        return new SearchResult(solution, search.expanded, search.generated, search.peakDepth,
+                                System.nanoTime() - startTime);
+    }
+
+    /**
+     * Maps the heuristic string to the type number the search switches on.
+     *
+     * @param  heuristicTp heuristic type to use.
+     * @return 0 for "nMisplaced", 1 for "manhattanDist", 2 for "linearConflict".
+     * @throws IllegalArgumentException for any other type.
+     */
+    private static int findType(String heuristicTp) {
+
+        // Check and return respective type number.
+        if (heuristicTp.equals("nMisplaced")) {
+            return 0;
+        } else if (heuristicTp.equals("manhattanDist")) {
+            return 1;
+        } else if (heuristicTp.equals("linearConflict")) {
+            return 2;
+        }
+        throw new IllegalArgumentException("Unsupported heuristic \"" + heuristicTp + "\"");
+    }
+
+    /**
+     * Holds the puzzle, path and counters of a single search.
+     *
+     * @author  Maksym Turkot
+     * @version 10/17/22
+     */
+    private static class Search {
+        private int       type;
+        private int[]     tiles;
+        private int       blank;
+        private int       size;
+        private int       cells;
+        private int[]     distance;
+        private int[][]   neighbors;
+        private int[]     conflicts;
+        private int[]     order;
+        private int[]     longest;
+        private int[]     path;
+        private int       depth;
+        private long      expanded;
+        private long      generated;
+        private int       peakDepth;
+
+        /**
+         * Constructor method.
+         *
+         * @param initial     initial state to search.
+         * @param heuristicTp heuristic type to use.
+         */
+        Search(State initial, String heuristicTp) {
+            this.size      = initial.getSize();
+            this.cells     = this.size * this.size;
+            this.tiles     = new int[this.cells];
+            this.blank     = initial.getBlank();
+            this.distance  = TileDistance.manhattan(this.size);
+            this.neighbors = Board.neighbors(this.size);
+            this.conflicts = new int[2 * this.size];
+            this.order     = new int[this.size];
+            this.longest   = new int[this.size];
+            this.path      = new int[64];
+            this.type      = WideIdaSearcher.findType(heuristicTp);
+
+            // Check if the puzzle is packed in two halves.
+            if (this.size > Board.MAX_SIZE) {
+                WideBoard.unpack(initial.getBoardHigh(), initial.getBoard(), this.tiles);
+            } else {
+                int[][] puzzle = Board.unpack(initial.getBoard(), this.size);
+
+                // For each position of the puzzle, copy its tile.
+                for (int i = 0; i < this.cells; i++) {
+                    this.tiles[i] = puzzle[i / this.size][i % this.size];
+                }
+            }
+        }
+
+        /**
+         * Computes the heuristic of the current puzzle from scratch, also
+         * storing the conflicts of each line for "linearConflict".
+         *
+         * @return heuristic value.
+         */
+        private int findHeuristic() {
+            int total = 0;
+
+            // For each position of the puzzle.
+            for (int pos = 0; pos < this.cells; pos++) {
+                int tile = this.tiles[pos];
+
+                // Check and add the respective term of the tile.
+                if (this.type == 0) {
+                    total += tile != pos ? 1 : 0;
+                } else if (this.type == 1 || tile != 0) {
+                    total += this.distance[tile * this.cells + pos];
+                }
+            }
+
+            // Check if the conflicts of the lines are added.
+            if (this.type == 2) {
+
+                // For each row and column.
+                for (int line = 0; line < 2 * this.size; line++) {
+                    this.conflicts[line] = this.findConflicts(line);
+                    total               += this.conflicts[line];
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Computes the heuristic after the tile at from moved into the empty
+         * space at to, from the heuristic before the move.
+         *
+         * @param  heuristic heuristic value before the move.
+         * @param  from      position the tile moved from, now empty.
+         * @param  to        position the tile moved to, empty before the move.
+         * @return heuristic value.
+         */
+        private int updateHeuristic(int heuristic, int from, int to) {
+            int tile = this.tiles[to];
+
+            // Check and update respective heuristic value.
+            if (this.type == 0) {
+                return heuristic - (tile != from ? 1 : 0) + (tile != to ? 1 : 0)
+                                 - (to   != 0    ? 1 : 0) + (from != 0 ? 1 : 0);
+            } else if (this.type == 1) {
+                return heuristic - this.distance[tile * this.cells + from]
+                                 + this.distance[tile * this.cells + to]
+                                 - this.distance[to] + this.distance[from];
+            }
+            int first  = from % this.size == to % this.size ? from / this.size
+                                                            : this.size + from % this.size;
+            int second = from % this.size == to % this.size ? to / this.size
+                                                            : this.size + to % this.size;
+            int total  = heuristic - this.distance[tile * this.cells + from]
+                                   + this.distance[tile * this.cells + to]
+                                   - this.conflicts[first] - this.conflicts[second];
+
+            this.conflicts[first]  = this.findConflicts(first);
+            this.conflicts[second] = this.findConflicts(second);
+            return total + this.conflicts[first] + this.conflicts[second];
+        }
+
+        /**
+         * Counts the linear conflict moves of a row or column with
+         * TileDistance.findConflicts().
+         *
+         * @param  line rows first, then columns.
+         * @return moves added by the line.
+         */
+        private int findConflicts(int line) {
+            int count = 0;
+
+            // For each position of the line, keep the tiles that belong.
+            for (int i = 0; i < this.size; i++) {
+                int pos  = line < this.size ? line * this.size + i
+                                            : i * this.size + line - this.size;
+                int tile = this.tiles[pos];
+
+                // Check if the tile belongs to the line.
+                if (tile != 0 && (line < this.size ? tile / this.size == line
+                                                   : tile % this.size == line - this.size)) {
+                    this.order[count++] = line < this.size ? tile % this.size
+                                                           : tile / this.size;
+                }
+            }
+            return TileDistance.findConflicts(this.order, count, this.longest);
+        }
+
+        /**
+         * Searches depth-first below the current puzzle, skipping states whose
+         * evaluation function exceeds the bound.
+         *
+         * @param  pathCost  cost of the path to the current puzzle.
+         * @param  heuristic heuristic value of the current puzzle.
+         * @param  bound     largest evaluation function to expand.
+         * @param  previous  position of the empty tile before the last move.
+         * @return FOUND, or the smallest evaluation function over the bound.
+         */
+        private int search(int pathCost, int heuristic, int bound, int previous) {
+            int evalFunc = pathCost + heuristic;
+
+            // Check if the state is over the bound.
+            if (evalFunc > bound) {
+                return evalFunc;
+            }
+
+            // Check if current state is the goal state.
+            if (this.isGoal()) {
+                this.depth = pathCost;
+                return FOUND;
+            }
+            this.expanded++;
+
+            // Check if the path has to grow.
+            if (pathCost == this.path.length) {
+                this.path = Arrays.copyOf(this.path, pathCost << 1);
+            }
+            this.peakDepth = Math.max(this.peakDepth, pathCost + 1);
+
+            int min  = Integer.MAX_VALUE;
+            int from = this.blank;
+
+            // For each tile that can be moved into the empty space.
+            for (int target : this.neighbors[from]) {
+
+                // Skip the move that undoes the last one.
+                if (target == previous) {
+                    continue;
+                }
+                this.tiles[from]    = this.tiles[target];
+                this.tiles[target]  = 0;
+                this.blank          = target;
+                this.path[pathCost] = target;
+                this.generated++;
+
+                int childHeuristic = this.updateHeuristic(heuristic, target, from);
+                int result         = this.search(pathCost + 1, childHeuristic, bound, from);
+
+                // Check if the goal state was found below.
+                if (result == FOUND) {
+                    return FOUND;
+                }
+                min = Math.min(min, result);
+
+                // Undo the move, along with the conflicts it changed.
+                this.tiles[target] = this.tiles[from];
+                this.tiles[from]   = 0;
+                this.blank         = from;
+                this.updateHeuristic(childHeuristic, from, target);
+            }
+            return min;
+        }
+
+        /**
+         * Checks if every tile is at its goal position, tile i at position i.
+         *
+         * @return true if the puzzle is the goal.
+         */
+        private boolean isGoal() {
+
+            // Check if the empty tile is home before comparing the rest.
+            if (this.blank != 0) {
+                return false;
+            }
+
+            // For each position, compare its tile.
+            for (int pos = 1; pos < this.cells; pos++) {
+
+                // Check if the tile is misplaced.
+                if (this.tiles[pos] != pos) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Replays the moves of the found path from the initial state, linking
+         * each new state to its parent.
+         *
+         * @param  initial initial state of the search.
+         * @return the result state.
+         */
+        private State makeSolution(State initial) {
+            State curr = initial;
+
+            // For each move of the path, derive the next state.
+            for (int i = 0; i < this.depth; i++) {
+                State next = curr.getBlank() - 1 == this.path[i] ? curr.moveLeft()
+                           : curr.getBlank() + 1 == this.path[i] ? curr.moveRight()
+                           : curr.getBlank() > this.path[i]      ? curr.moveUp()
+                                                                 : curr.moveDown();
+
+                next.setPathCost(i + 1);
+                next.updateEvalFunc();
+                curr = next;
+            }
+            return curr;
+        }
+    }
+}
@@ -1,21 +1,46 @@
 package main;
 
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Arrays;
+import java.time.Instant;
+import java.util.Locale;
 
 /**
  * This class implements the reading functionality of the program. The method 
  * createFile() creates a new file, overwriting the existing ones with the 
  * same name. Method writePuzzleFile() creates and writes a file containing 
- * initial states of the puzzle. Method writeLogFile() writes program 
- * execution results data to the log.txt file.
+ * initial states of the puzzle, streaming them through a PuzzleSetWriter. 
+ * Method writeLogFile() writes program execution results data to the 
+ * log.txt file, and the same results, with the percentiles of each 
+ * heuristic, to the log.csv and log.jsonl files next to it, a row or an 
+ * object per heuristic and puzzle set, tagged with the start of the run. 
+ * Method writeStatsLog() writes the instrumentation totals of the A* 
+ * searches of a puzzle set to the log.txt file. Each log file is opened 
+ * once, on its first write, through a buffered writer kept until close() is 
+ * called at the end of the run.
  * 
  * @author  Maksym Turkot
- * @version 10/03/22
+ * @version 10/17/22
  */
-public class Writer {
+public class Writer implements Closeable {
+    private static final String CSV_HEADER = "run,solver,size,seed,swaps,number,heuristic,"
+            + "count,depthMean,expandedMean,expandedP50,expandedP90,expandedP99,expandedMax,"
+            + "timeMeanMs,timeP50Ms,timeP90Ms,timeP99Ms,timeMaxMs";
+
+    private String         run;
+    private BufferedWriter log;
+    private BufferedWriter csv;
+    private BufferedWriter json;
+
+    /**
+     * Constructor method, marking the start of the run.
+     */
+    public Writer() {
+        this.run = Instant.now().toString();
+    }
 
     /**
      * Creates a new file with a specified path. If the file already exists, 
@@ -52,73 +77,294 @@ public class Writer {
      * @param number  of puzzles generated.
      */
     public void writePuzzleFile(int[][][] puzzles, int size, int seed, int swaps, int number) {
-        try {
-            File file = this.createFile("data/puzzleSet/puzzleSet-" + size + "-" + seed + "-" + swaps + "-" + number + ".txt");
-            FileWriter myWriter = new FileWriter(file.getPath());
-            String puzzleSet = "";
+        String filename = "data/puzzleSet/puzzleSet-" + size + "-" + seed + "-" + swaps + "-" 
+                          + number + ".txt";
+        File   file     = this.createFile(filename);
+
+        try (PuzzleSetWriter writer = new PuzzleSetWriter(file, size, seed, swaps, false)) {
 
             // For each puzzle in the puzzle array.
             for (int[][] puzzle : puzzles) {
-                puzzleSet+= Arrays.deepToString(puzzle) + "\n";
+                writer.add(puzzle);
             }
-            myWriter.write(puzzleSet);
-
-            myWriter.close();
-
-          } catch (IOException ioe) {
-            System.out.println("Error writing file \"log\"");
+        } catch (IOException ioe) {
+            System.out.println("Error writing file \"" + filename + "\"");
             ioe.printStackTrace();
-          }
+        }
     }
   
     /**
      * Writes program execution data to the log file, appending to the 
-     * existing log file additional.
+     * existing log file additional. Below the means of each heuristic, the 
+     * 50th, 90th and 99th percentiles and the largest value are written 
+     * for the expanded states and the execution time. The same data goes 
+     * to the CSV and JSON logs, keyed by the heuristic types.
      * 
-     * @param seed        used to generate the puzzles.
-     * @param size        of the puzzles.
-     * @param swaps       used to generate each puzzle.
-     * @param number      of upzzles generated.
-     * @param nExpandedH1 avg number of states expanded for H1 heuristic.
-     * @param depthH1     avg depth of the solution tree for the H1 heuristic.
-     * @param timeH1      avg execution time for the H1 heuristic.
-     * @param nExpandedH2 avg number of states expanded for H2 heuristic.
-     * @param depthH2     avg depth of the solution tree for the H2 heuristic.
-     * @param timeH2      avg execution time for the H2 heuristic.
+     * @param seed      used to generate the puzzles.
+     * @param size      of the puzzles.
+     * @param swaps     used to generate each puzzle.
+     * @param number    of upzzles generated.
+     * @param solver    name of the searching algorithm used.
+     * @param names     of the heuristics used.
+     * @param types     of the heuristics used, as passed to the solver.
+     * @param depth     avg depth of the solution tree for each heuristic.
+     * @param expanded  states expanded per puzzle, for each heuristic.
+     * @param time      execution time per puzzle in nanoseconds, for each 
+     *                  heuristic.
      */
-    public void writeLogFile(int seed, int size, int swaps, int number, 
-            double nExpandedH1, double depthH1, double timeH1, double nExpandedH2, 
-            double depthH2, double timeH2) {
+    public void writeLogFile(int seed, int size, int swaps, int number, String solver, 
+            String[] names, String[] types, double[] depth, LatencyHistogram[] expanded, 
+            LatencyHistogram[] time) {
         try {
-            File file = this.createFile("data/log.txt");
-
-            FileWriter myWriter = new FileWriter(file.getPath(), true);
+            BufferedWriter myWriter = this.openLog();
 
             myWriter.write( "************************"      + "\n" +
                             "size:          " + size        + "\n" +
                             "seed:          " + seed        + "\n" +
                             "swaps:         " + swaps       + "\n" +
                             "number:        " + number      + "\n" +
-                            "========================"      + "\n" + 
-                            "H1: Number Misplaced"          + "\n" + 
-                            "------------------------"      + "\n" + 
-                            "expanded:      " + nExpandedH1 + "\n" + 
-                            "treeDepth:     " + depthH1     + "\n" +
-                            "execTime (ms): " + timeH1      + "\n" +
-                            "------------------------"      + "\n" +
-                            "H2: Manhattan Distance"        + "\n" + 
-                            "------------------------"      + "\n" + 
-                            "expanded:      " + nExpandedH2 + "\n" + 
-                            "treeDepth:     " + depthH2     + "\n" +
-                            "execTime (ms): " + timeH2      + "\n" +
-                            "************************"      + "\n" +
+                            "solver:        " + solver      + "\n" +
+                            "========================"      + "\n");
+
+            // For each heuristic, write its statistics.
+            for (int h = 0; h < names.length; h++) {
+
+                // Separate from the previous heuristic.
+                if (h > 0) {
+                    myWriter.write("------------------------"  + "\n");
+                }
+                myWriter.write( names[h]                        + "\n" + 
+                                "------------------------"      + "\n" + 
+                                "expanded:      " + expanded[h].getMean() + "\n" + 
+                                "treeDepth:     " + depth[h]    + "\n" +
+                                "execTime (ms): " + time[h].getMean() / 1000000.0 + "\n" +
+                                "expanded p50/p90/p99/max:      " 
+                                        + Writer.formatTail(expanded[h]) + "\n" +
+                                "execTime p50/p90/p99/max (ms): " 
+                                        + Writer.formatTail(time[h], 1000000.0) + "\n");
+            }
+            myWriter.write( "************************"      + "\n" +
                             ""                              + "\n");
+            myWriter.flush();
+
+            this.writeStats(seed, size, swaps, number, solver, types, depth, expanded, time);
+
+            } catch (IOException ioe) {
+            System.out.println("Error writing file \"log\"");
+            ioe.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the cache counts of the last puzzle set to the log file, 
+     * appending to the existing log file.
+     * 
+     * @param names     of the heuristics used.
+     * @param hits      puzzles found in memory, for each heuristic.
+     * @param fileHits  puzzles found on the disk, for each heuristic.
+     * @param misses    puzzles solved, for each heuristic.
+     * @param evictions solutions dropped, for each heuristic.
+     */
+    public void writeCacheLog(String[] names, long[] hits, long[] fileHits, long[] misses, 
+            long[] evictions) {
+        try {
+            BufferedWriter myWriter = this.openLog();
 
-            myWriter.close();
+            myWriter.write( "cache"                         + "\n" +
+                            "========================"      + "\n");
+
+            // For each heuristic, write its counts.
+            for (int h = 0; h < names.length; h++) {
+                myWriter.write( names[h]                        + "\n" + 
+                                "hits:          " + hits[h]      + "\n" + 
+                                "fileHits:      " + fileHits[h]  + "\n" + 
+                                "misses:        " + misses[h]    + "\n" +
+                                "evictions:     " + evictions[h] + "\n");
+            }
+            myWriter.write( "************************"      + "\n" +
+                            ""                              + "\n");
+            myWriter.flush();
 
             } catch (IOException ioe) {
             System.out.println("Error writing file \"log\"");
             ioe.printStackTrace();
         }
     }
+
+    /**
+     * Writes the instrumentation totals of the last puzzle set to the log 
+     * file, appending to the existing log file. The times are only written 
+     * if the phases were timed.
+     * 
+     * @param stats totals of the searches of the set, for all heuristics.
+     */
+    public void writeStatsLog(SearchStats stats) {
+        try {
+            BufferedWriter myWriter = this.openLog();
+
+            myWriter.write( "instrumentation"               + "\n" +
+                            "========================"      + "\n" +
+                            "searches:      " + stats.getSearches()       + "\n" +
+                            "expanded:      " + stats.getExpanded()       + "\n" +
+                            "generated:     " + stats.getGenerated()      + "\n" +
+                            "stale:         " + stats.getStale()          + "\n" +
+                            "closedHits:    " + stats.getClosedHits()     + "\n" +
+                            "dominated:     " + stats.getDominated()      + "\n" +
+                            "heuristics:    " + stats.getHeuristicCalls() + "\n" +
+                            "peakFrontier:  " + stats.getPeakFrontier()   + "\n");
+
+            // Check if the phases were timed.
+            if (SearchStats.TIMERS) {
+                myWriter.write( "select (ms):   " + stats.getSelectNanos() / 1000000.0 + "\n" +
+                                "closed (ms):   " + stats.getClosedNanos() / 1000000.0 + "\n" +
+                                "expand (ms):   " + stats.getExpandNanos() / 1000000.0 + "\n");
+            }
+            myWriter.write( "************************"      + "\n" +
+                            ""                              + "\n");
+            myWriter.flush();
+
+            } catch (IOException ioe) {
+            System.out.println("Error writing file \"log\"");
+            ioe.printStackTrace();
+        }
+    }
+
+    /**
+     * Closes the log files opened during the run.
+     * 
+     * @throws IOException if a log file can not be written.
+     */
+    @Override
+    public void close() throws IOException {
+
+        // For each log file of the run.
+        for (BufferedWriter file : new BufferedWriter[] {this.log, this.csv, this.json}) {
+
+            // Check if the log file was opened.
+            if (file != null) {
+                file.close();
+            }
+        }
+        this.log  = null;
+        this.csv  = null;
+        this.json = null;
+    }
+
+    /**
+     * Appends a CSV row and a JSON object for each heuristic of a puzzle set.
+     * 
+     * @param  seed     used to generate the puzzles.
+     * @param  size     of the puzzles.
+     * @param  swaps    used to generate each puzzle.
+     * @param  number   of puzzles generated.
+     * @param  solver   name of the searching algorithm used.
+     * @param  types    of the heuristics used.
+     * @param  depth    avg depth of the solution tree for each heuristic.
+     * @param  expanded states expanded per puzzle, for each heuristic.
+     * @param  time     execution time per puzzle in nanoseconds.
+     * @throws IOException if a log file can not be written.
+     */
+    private void writeStats(int seed, int size, int swaps, int number, String solver, 
+            String[] types, double[] depth, LatencyHistogram[] expanded, 
+            LatencyHistogram[] time) throws IOException {
+
+        // Check if the CSV and JSON logs have to be opened.
+        if (this.csv == null) {
+            this.csv  = Writer.open("data/log.csv", CSV_HEADER);
+            this.json = Writer.open("data/log.jsonl", null);
+        }
+
+        // For each heuristic, write its row and object.
+        for (int h = 0; h < types.length; h++) {
+            LatencyHistogram e = expanded[h];
+            LatencyHistogram t = time[h];
+
+            this.csv.write(String.format(Locale.ROOT, 
+                    "%s,%s,%d,%d,%d,%d,%s,%d,%.4f,%.4f,%d,%d,%d,%d,%.6f,%.6f,%.6f,%.6f,%.6f%n", 
+                    this.run, solver, size, seed, swaps, number, types[h], e.getCount(), 
+                    depth[h], e.getMean(), e.getPercentile(50), e.getPercentile(90), 
+                    e.getPercentile(99), e.getMax(), t.getMean() / 1e6, 
+                    t.getPercentile(50) / 1e6, t.getPercentile(90) / 1e6, 
+                    t.getPercentile(99) / 1e6, t.getMax() / 1e6));
+            this.json.write(String.format(Locale.ROOT, 
+                    "{\"run\":\"%s\",\"solver\":\"%s\",\"size\":%d,\"seed\":%d,"
+                    + "\"swaps\":%d,\"number\":%d,\"heuristic\":\"%s\",\"count\":%d,"
+                    + "\"depthMean\":%.4f,\"expanded\":{\"mean\":%.4f,\"p50\":%d,"
+                    + "\"p90\":%d,\"p99\":%d,\"max\":%d},\"timeMs\":{\"mean\":%.6f,"
+                    + "\"p50\":%.6f,\"p90\":%.6f,\"p99\":%.6f,\"max\":%.6f}}%n", 
+                    this.run, solver, size, seed, swaps, number, types[h], e.getCount(), 
+                    depth[h], e.getMean(), e.getPercentile(50), e.getPercentile(90), 
+                    e.getPercentile(99), e.getMax(), t.getMean() / 1e6, 
+                    t.getPercentile(50) / 1e6, t.getPercentile(90) / 1e6, 
+                    t.getPercentile(99) / 1e6, t.getMax() / 1e6));
+        }
+        this.csv.flush();
+        this.json.flush();
+    }
+
+    /**
+     * Opens the text log on its first write.
+     * 
+     * @return writer of the text log.
+     * @throws IOException if the log can not be opened.
+     */
+    private BufferedWriter openLog() throws IOException {
+
+        // Check if the log has to be opened.
+        if (this.log == null) {
+            this.log = Writer.open("data/log.txt", null);
+        }
+        return this.log;
+    }
+
+    /**
+     * Opens a log file for appending, writing the header line first if the 
+     * file is new or empty.
+     * 
+     * @param  filename name of the log file.
+     * @param  header   first line of a new file, or null for none.
+     * @return buffered writer appending to the file.
+     * @throws IOException if the file can not be opened.
+     */
+    private static BufferedWriter open(String filename, String header) throws IOException {
+        File           file   = new File(filename);
+        boolean        empty  = file.length() == 0;
+        BufferedWriter writer = new BufferedWriter(new FileWriter(file, true));
+
+        // Check if the file was just created.
+        if (empty) {
+            System.out.println("File \"" + filename + "\" created successfully");
+
+            // Check if the new file starts with a header.
+            if (header != null) {
+                writer.write(header);
+                writer.newLine();
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Formats the 50th, 90th and 99th percentiles and the largest value.
+     * 
+     * @param  histogram of the values.
+     * @return the values separated by slashes.
+     */
+    private static String formatTail(LatencyHistogram histogram) {
+        return histogram.getPercentile(50) + " / " + histogram.getPercentile(90) + " / " 
+               + histogram.getPercentile(99) + " / " + histogram.getMax();
+    }
+
+    /**
+     * Formats the 50th, 90th and 99th percentiles and the largest value, in 
+     * the given unit.
+     * 
+     * @param  histogram of the values.
+     * @param  unit      to divide the values by.
+     * @return the values separated by slashes.
+     */
+    private static String formatTail(LatencyHistogram histogram, double unit) {
+        return histogram.getPercentile(50) / unit + " / " + histogram.getPercentile(90) / unit 
+               + " / " + histogram.getPercentile(99) / unit + " / " + histogram.getMax() / unit;
+    }
 }
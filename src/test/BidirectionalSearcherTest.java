@@ -0,0 +1,44 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import main.BidirectionalSearcher;
+import main.State;
+
+public class BidirectionalSearcherTest {
+    BidirectionalSearcher searcher = new BidirectionalSearcher();
+
+    @Test
+    public void optimalCostTest() throws IOException {
+        OracleCheck.assertOptimal(searcher, "linearConflict");
+        OracleCheck.assertOptimal(searcher, "walkingDist");
+    }
+
+    @Test
+    public void meetTest() {
+        Random random = new Random(2424);
+
+        // For each walk length, from puzzles where the sides meet at either end on.
+        for (int moves = 0; moves < 40; moves++) {
+
+            // For each puzzle size the oracle knows.
+            for (int size = 2; size <= 3; size++) {
+                State initial = OracleCheck.walk(random, size, moves);
+
+                OracleCheck.assertOptimal(initial, searcher.solve(initial, "linearConflict"));
+            }
+        }
+    }
+
+    @Test
+    public void unreachableTest() {
+        int[][] puzzle = {{0, 2, 1}, {3, 4, 5}, {6, 7, 8}};
+
+        assertFalse(searcher.solve(new State(puzzle, null), "linearConflict").isSolved());
+    }
+}
@@ -0,0 +1,38 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import main.BinaryPuzzleSet;
+import main.PuzzleSetWriter;
+
+public class BinaryPuzzleSetTest {
+
+    @Test
+    public void randomAccessTest() throws IOException {
+        int[][] puzzle1 = {{5, 3, 4}, {0, 6, 1}, {7, 8, 2}};
+        int[][] puzzle2 = {{0, 1, 2}, {3, 4, 5}, {6, 7, 8}};
+        File    file    = File.createTempFile("puzzleSet", ".bin");
+
+        file.deleteOnExit();
+
+        try (PuzzleSetWriter writer = new PuzzleSetWriter(file, 3, 2424, 80, true)) {
+            writer.add(puzzle1);
+            writer.add(puzzle2);
+        }
+        BinaryPuzzleSet set = new BinaryPuzzleSet(file);
+
+        assertEquals(2,    set.getCount());
+        assertEquals(3,    set.getSize());
+        assertEquals(2424, set.getSeed());
+        assertEquals(80,   set.getSwaps());
+        assertEquals(0x876543210L, set.getBoard(1));
+        assertTrue(Arrays.deepEquals(puzzle1, set.makeState(0).getPuzzle()));
+    }
+}
@@ -0,0 +1,43 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import main.Board;
+
+public class BoardTest {
+
+    @Test
+    public void packTest() {
+        int[][] puzzle1 = {{5, 3, 4}, {0, 6, 1}, {7, 8, 2}};
+        int[][] puzzle2 = {{0, 1, 2, 3}, {4, 5, 6, 7}, {8, 9, 10, 11}, 
+                           {12, 13, 14, 15}};
+
+        assertTrue(Arrays.deepEquals(puzzle1, Board.unpack(Board.pack(puzzle1), 3)));
+        assertTrue(Arrays.deepEquals(puzzle2, Board.unpack(Board.pack(puzzle2), 4)));
+        assertEquals(0xFEDCBA9876543210L, Board.pack(puzzle2));
+    }
+
+    @Test
+    public void findBlankTest() {
+        int[][] puzzle1 = {{5, 3, 4}, {0, 6, 1}, {7, 8, 2}};
+        int[][] puzzle2 = {{2, 3, 5}, {1, 8, 4}, {7, 6, 0}};
+
+        assertEquals(3, Board.findBlank(Board.pack(puzzle1), 3));
+        assertEquals(8, Board.findBlank(Board.pack(puzzle2), 3));
+    }
+
+    @Test
+    public void moveTest() {
+        int[][] puzzle1 = {{5, 3, 4}, {0, 6, 1}, {7, 8, 2}};
+        int[][] pMoveR1 = {{5, 3, 4}, {6, 0, 1}, {7, 8, 2}};
+        int[][] pMoveU1 = {{0, 3, 4}, {5, 6, 1}, {7, 8, 2}};
+
+        assertEquals(Board.pack(pMoveR1), Board.move(Board.pack(puzzle1), 3, 4));
+        assertEquals(Board.pack(pMoveU1), Board.move(Board.pack(puzzle1), 3, 0));
+    }
+}
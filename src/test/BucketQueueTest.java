@@ -0,0 +1,48 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import main.BucketQueue;
+
+public class BucketQueueTest {
+    BucketQueue frontier;
+
+    @BeforeEach
+    public void setUp() {
+        frontier = new BucketQueue();
+    }
+
+    @Test
+    public void pollTest() {
+        frontier.add(12, 3, 1L);
+        frontier.add(10, 2, 2L);
+        frontier.add(10, 7, 3L);
+        frontier.add(11, 0, 4L);
+
+        assertEquals(4, frontier.size());
+        assertEquals(10, frontier.peekEvalFunc());
+        assertEquals(3L, frontier.poll());
+        assertEquals(2L, frontier.poll());
+        assertEquals(4L, frontier.poll());
+
+        frontier.add(9, 9, 5L);
+
+        assertEquals(5L, frontier.poll());
+        assertEquals(1L, frontier.poll());
+        assertTrue(frontier.isEmpty());
+    }
+
+    @Test
+    public void clearTest() {
+        frontier.add(40, 20, 1L);
+        frontier.clear();
+        frontier.add(3, 1, 2L);
+
+        assertEquals(1, frontier.size());
+        assertEquals(2L, frontier.poll());
+    }
+}
@@ -0,0 +1,86 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import main.CachingSolver;
+import main.SearchResult;
+import main.Searcher;
+import main.SolutionFile;
+import main.Solver;
+import main.State;
+
+public class CachingSolverTest {
+    Searcher      aStar  = new Searcher();
+    AtomicInteger calls  = new AtomicInteger(0);
+    Solver        solver = (initial, heuristicTp) -> {
+        calls.incrementAndGet();
+        return aStar.solve(initial, heuristicTp);
+    };
+    State state1 = new State(new int[][] {{2, 6, 1}, {8, 0, 5}, {3, 7, 4}}, null);
+    State state2 = new State(new int[][] {{7, 3, 4}, {2, 0, 5}, {6, 8, 1}}, null);
+    State state3 = new State(new int[][] {{1, 2, 0}, {3, 4, 5}, {6, 7, 8}}, null);
+
+    @Test
+    public void hitTest() {
+        CachingSolver cache  = new CachingSolver(solver, 2, null);
+        SearchResult  solved = cache.solve(state1, "linearConflict");
+        SearchResult  cached = cache.solve(state1, "linearConflict");
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cached.getExpanded());
+        assertEquals(solved.getCost(), cached.getCost());
+        OracleCheck.assertOptimal(state1, cached);
+    }
+
+    @Test
+    public void evictionTest() {
+        CachingSolver cache = new CachingSolver(solver, 2, null);
+
+        cache.solve(state1, "linearConflict");
+        cache.solve(state2, "linearConflict");
+        cache.solve(state1, "linearConflict");
+
+        // The least recently used solution, of the second puzzle, makes room.
+        cache.solve(state3, "linearConflict");
+        cache.solve(state1, "linearConflict");
+        cache.solve(state2, "linearConflict");
+
+        assertEquals(4, calls.get());
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    public void fileTest(@TempDir Path directory) throws IOException {
+        File          file  = new File(directory.toFile(), "cache.bin");
+        CachingSolver first = new CachingSolver(solver, 2, new SolutionFile(file, 64));
+
+        first.solve(state1, "linearConflict");
+        first.flush();
+
+        // A new cache over the same file finds the solution without solving it.
+        CachingSolver second = new CachingSolver(solver, 2, new SolutionFile(file, 64));
+        SearchResult  result = second.solve(state1, "linearConflict");
+
+        assertEquals(1, calls.get());
+        assertEquals(1, second.getFileHits());
+        assertEquals(0, second.getMisses());
+        OracleCheck.assertOptimal(state1, result);
+
+        second.solve(state1, "linearConflict");
+
+        assertEquals(1, second.getHits());
+        assertEquals(1, second.getFileHits());
+    }
+}
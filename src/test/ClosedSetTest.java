@@ -0,0 +1,50 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import main.ClosedSet;
+
+public class ClosedSetTest {
+    ClosedSet reached;
+
+    @BeforeEach
+    public void setUp() {
+        reached = new ClosedSet(4, 0.5f);
+    }
+
+    @Test
+    public void addTest() {
+        assertTrue(reached.add(0x012345678L));
+        assertFalse(reached.add(0x012345678L));
+        assertTrue(reached.add(0L));
+        assertFalse(reached.add(0L));
+        assertEquals(2, reached.size());
+    }
+
+    @Test
+    public void resizeTest() {
+        for (long key = 1; key <= 10000; key++) {
+            assertTrue(reached.add(key * 0x10001L));
+        }
+
+        assertEquals(10000, reached.size());
+        assertTrue(reached.contains(0x10001L));
+        assertTrue(reached.contains(10000 * 0x10001L));
+        assertFalse(reached.contains(0x10000L));
+        assertFalse(reached.contains(0L));
+    }
+
+    @Test
+    public void clearTest() {
+        reached.add(42L);
+        reached.clear();
+
+        assertFalse(reached.contains(42L));
+        assertEquals(0, reached.size());
+    }
+}
@@ -0,0 +1,82 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import main.Controller;
+import main.IdaSearcher;
+import main.PuzzleSetReader;
+import main.SearchResult;
+import main.Searcher;
+import main.Solver;
+import main.State;
+
+public class ControllerTest {
+    String[] heuristics = {"manhattanDist", "linearConflict"};
+    Solver[] solvers    = {new Searcher(), new IdaSearcher()};
+
+    @Test
+    public void solvePuzzlesTest() throws IOException {
+        File        file    = new File("../../data/puzzleSet/puzzleSet-3-2424-80-100.txt");
+        List<State> puzzles = new ArrayList<>();
+
+        try (PuzzleSetReader reader = new PuzzleSetReader(file, 3)) {
+
+            // For each puzzle of the set, keep its initial state.
+            while (reader.next()) {
+                puzzles.add(reader.makeState());
+            }
+        }
+        SearchResult[][] expected = solveOn(1, puzzles);
+
+        // For each number of threads, check the results are stored as one thread stores them.
+        for (int threads : new int[] {2, 4}) {
+            SearchResult[][] results = solveOn(threads, puzzles);
+
+            // For each heuristic, compare the results of its puzzles.
+            for (int h = 0; h < heuristics.length; h++) {
+
+                // For each puzzle, compare its result.
+                for (int p = 0; p < puzzles.size(); p++) {
+                    OracleCheck.assertOptimal(puzzles.get(p), results[h][p]);
+                    assertEquals(expected[h][p].getExpanded(), results[h][p].getExpanded());
+                    assertEquals(expected[h][p].getGenerated(), results[h][p].getGenerated());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void unsolvedTest() {
+        int[][]     puzzle1 = {{0, 2, 1}, {3, 4, 5}, {6, 7, 8}};
+        int[][]     puzzle2 = {{1, 0, 2}, {3, 4, 5}, {6, 7, 8}};
+        List<State> puzzles = List.of(new State(puzzle1, null), new State(puzzle2, null));
+
+        SearchResult[][] results = solveOn(2, puzzles);
+
+        // For each heuristic, check the unreachable puzzle is kept as unsolved.
+        for (int h = 0; h < heuristics.length; h++) {
+            assertFalse(results[h][0].isSolved());
+            assertEquals(-1, results[h][0].getCost());
+            assertEquals(1, results[h][1].getCost());
+        }
+    }
+
+    SearchResult[][] solveOn(int threads, List<State> puzzles) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try {
+            return Controller.solvePuzzles(pool, puzzles, heuristics, solvers);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import main.CostTable;
+
+public class CostTableTest {
+    CostTable bestCost;
+
+    @BeforeEach
+    public void setUp() {
+        bestCost = new CostTable(4, 0.5f);
+    }
+
+    @Test
+    public void putIfLowerTest() {
+        assertEquals(CostTable.MISSING, bestCost.putIfLower(0x012345678L, 7));
+        assertEquals(7, bestCost.putIfLower(0x012345678L, 9));
+        assertEquals(7, bestCost.get(0x012345678L));
+        assertEquals(7, bestCost.putIfLower(0x012345678L, 7));
+        assertEquals(7, bestCost.putIfLower(0x012345678L, 3));
+        assertEquals(3, bestCost.get(0x012345678L));
+        assertEquals(CostTable.MISSING, bestCost.putIfLower(0L, 5));
+        assertEquals(5, bestCost.putIfLower(0L, 6));
+        assertEquals(5, bestCost.putIfLower(0L, 1));
+        assertEquals(1, bestCost.get(0L));
+        assertEquals(2, bestCost.size());
+    }
+
+    @Test
+    public void resizeTest() {
+        for (long key = 1; key <= 10000; key++) {
+            assertEquals(CostTable.MISSING, bestCost.putIfLower(key * 0x10001L, (int) key));
+        }
+
+        assertEquals(10000, bestCost.size());
+        assertEquals(1, bestCost.get(0x10001L));
+        assertEquals(10000, bestCost.get(10000 * 0x10001L));
+        assertEquals(CostTable.MISSING, bestCost.get(0x10000L));
+        assertEquals(CostTable.MISSING, bestCost.get(0L));
+    }
+}
@@ -0,0 +1,70 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import main.ExternalSearcher;
+import main.SearchResult;
+import main.State;
+
+public class ExternalSearcherTest {
+
+    @Test
+    public void optimalCostTest(@TempDir Path directory) throws IOException {
+        OracleCheck.assertOptimal(new ExternalSearcher(directory.toFile(), 1 << 16),
+                                  "linearConflict");
+    }
+
+    @Test
+    public void smallMemoryTest(@TempDir Path directory) {
+        ExternalSearcher roomy  = new ExternalSearcher(directory.toFile(), 1 << 16);
+        ExternalSearcher tight  = new ExternalSearcher(directory.toFile(), 4);
+        Random           random = new Random(2424);
+        boolean          merged = false;
+
+        // For each puzzle, sort in runs of four records and merge them.
+        for (int i = 0; i < 100; i++) {
+            State        initial  = OracleCheck.walk(random, 3, 80);
+            SearchResult expected = roomy.solve(initial, "linearConflict");
+            SearchResult result   = tight.solve(initial, "linearConflict");
+
+            OracleCheck.assertOptimal(initial, result);
+            assertEquals(expected.getExpanded(), result.getExpanded());
+            assertEquals(expected.getGenerated(), result.getGenerated());
+            merged |= result.getPeakFrontier() > tight.getMemory();
+        }
+        assertTrue(merged);
+        assertEquals(0, directory.toFile().list().length);
+        assertThrows(IllegalArgumentException.class,
+                     () -> new ExternalSearcher(directory.toFile(), 1));
+    }
+
+    @Test
+    public void closeFilesTest(@TempDir Path directory) {
+        OperatingSystemMXBean system   = ManagementFactory.getOperatingSystemMXBean();
+        ExternalSearcher      searcher = new ExternalSearcher(directory.toFile(), 16);
+        int[][]               puzzle   = {{2, 6, 1}, {8, 0, 5}, {3, 7, 4}};
+
+        assumeTrue(system instanceof UnixOperatingSystemMXBean);
+
+        // The goal is found while other buckets are still being written.
+        long open = ((UnixOperatingSystemMXBean) system).getOpenFileDescriptorCount();
+
+        assertTrue(searcher.solve(new State(puzzle, null), "linearConflict").isSolved());
+        assertEquals(open, ((UnixOperatingSystemMXBean) system).getOpenFileDescriptorCount());
+        assertEquals(0, directory.toFile().list().length);
+    }
+}
@@ -0,0 +1,84 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import main.HdaSearcher;
+import main.State;
+
+public class HdaSearcherTest {
+    HdaSearcher searcher = new HdaSearcher(4);
+
+    @Test
+    public void optimalCostTest() throws IOException {
+        OracleCheck.assertOptimal(searcher, "linearConflict");
+    }
+
+    @Test
+    public void workersTest() throws IOException {
+
+        // For each number of workers, from one alone to more than the puzzles need.
+        for (int workers : new int[] {1, 2, 3, 16}) {
+            try (HdaSearcher solver = new HdaSearcher(workers)) {
+                OracleCheck.assertOptimal(solver, "linearConflict");
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new HdaSearcher(0));
+        assertThrows(IllegalArgumentException.class, () -> new HdaSearcher(257));
+    }
+
+    @Test
+    public void distributionTest() {
+        Random random = new Random(2424);
+        int[]  owned  = new int[4];
+
+        // For each puzzle, count it for its owner.
+        for (int i = 0; i < 20000; i++) {
+            owned[HdaSearcher.findOwner(OracleCheck.walk(random, 4, 80).getBoard(), 4)]++;
+        }
+
+        // For each worker, check it owns about a quarter of the puzzles.
+        for (int count : owned) {
+            assertTrue(count > 4500 && count < 5500);
+        }
+    }
+
+    @Test
+    public void unreachableTest() {
+        int[][] puzzle = {{0, 2, 1}, {3, 4, 5}, {6, 7, 8}};
+
+        // The workers have to agree the search is over once every puzzle is expanded.
+        assertFalse(searcher.solve(new State(puzzle, null), "linearConflict").isSolved());
+    }
+
+    @Test
+    public void interruptTest() {
+        int[][] puzzle = {{15, 14, 13, 12}, {11, 10, 9, 8}, {7, 6, 5, 4}, {3, 2, 1, 0}};
+
+        Thread.currentThread().interrupt();
+
+        assertFalse(searcher.solve(new State(puzzle, null), "manhattanDist").isSolved());
+        assertTrue(Thread.interrupted());
+        assertEquals(1, searcher.solve(new State(new int[][] {{1, 0, 2}, {3, 4, 5}, {6, 7, 8}},
+                                                 null), "linearConflict").getCost());
+    }
+
+    @Test
+    public void closeTest() {
+        int[][]     puzzle = {{1, 0, 2}, {3, 4, 5}, {6, 7, 8}};
+        HdaSearcher closed = new HdaSearcher(2);
+
+        assertTrue(closed.solve(new State(puzzle, null), "linearConflict").isSolved());
+        closed.close();
+        assertThrows(RejectedExecutionException.class,
+                     () -> closed.solve(new State(puzzle, null), "linearConflict"));
+    }
+}
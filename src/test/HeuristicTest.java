@@ -57,6 +57,27 @@ public class HeuristicTest {
         assertEquals(heuristicFinder.findManhattanDist(state6), 8);
     }
 
+    @Test
+    public void updateHeuristicTest() {
+        state5.setHeuristic(heuristicFinder.findNumberMisplaced(state5));
+        State moveR5 = state5.moveRight();
+        State moveD5 = state5.moveDown();
+
+        assertEquals(heuristicFinder.updateHeuristic(state5, moveR5, "nMisplaced"), 
+                     heuristicFinder.findNumberMisplaced(moveR5));
+        assertEquals(heuristicFinder.updateHeuristic(state5, moveD5, "nMisplaced"), 
+                     heuristicFinder.findNumberMisplaced(moveD5));
+
+        state6.setHeuristic(heuristicFinder.findManhattanDist(state6));
+        State moveL6 = state6.moveLeft();
+        State moveD6 = state6.moveDown();
+
+        assertEquals(heuristicFinder.updateHeuristic(state6, moveL6, "manhattanDist"), 
+                     heuristicFinder.findManhattanDist(moveL6));
+        assertEquals(heuristicFinder.updateHeuristic(state6, moveD6, "manhattanDist"), 
+                     heuristicFinder.findManhattanDist(moveD6));
+    }
+
     @AfterEach
     public void tearDown() {
         state1 = null;
@@ -0,0 +1,56 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import main.IdaSearcher;
+import main.PuzzleSetReader;
+import main.SearchResult;
+import main.Searcher;
+import main.State;
+import main.Validator;
+
+public class IdaSearcherTest {
+    IdaSearcher searcher = new IdaSearcher();
+    Searcher    aStar    = new Searcher();
+
+    @Test
+    public void optimalCostTest() throws IOException {
+        String[] names = {"puzzleSet-2-2424-50-100.txt", "puzzleSet-3-2424-80-100.txt"};
+
+        // For each committed set, compare each puzzle with the cost A* finds.
+        for (int i = 0; i < names.length; i++) {
+            File file = new File("../../data/puzzleSet/" + names[i]);
+
+            try (PuzzleSetReader reader = new PuzzleSetReader(file, i + 2)) {
+
+                // For each puzzle of the set.
+                while (reader.next()) {
+                    State        initial  = reader.makeState();
+                    SearchResult result   = searcher.solve(initial, "linearConflict");
+                    SearchResult expected = aStar.solve(initial, "linearConflict");
+
+                    assertTrue(result.isSolved());
+                    assertEquals(expected.getCost(), result.getCost());
+                    assertEquals(initial, new Validator().testSolution(result.getState()));
+                }
+                assertEquals(100, reader.getCount());
+            }
+        }
+    }
+
+    @Test
+    public void unreachableTest() {
+        int[][] puzzle = {{0, 2, 1}, {3, 4, 5}, {6, 7, 8}};
+
+        assertFalse(searcher.solve(new State(puzzle, null), "linearConflict").isSolved());
+        assertNull(searcher.idaStarSearch(new State(puzzle, null), "manhattanDist"));
+    }
+}
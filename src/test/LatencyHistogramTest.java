@@ -0,0 +1,46 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import main.LatencyHistogram;
+
+public class LatencyHistogramTest {
+    LatencyHistogram histogram;
+
+    @BeforeEach
+    public void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void smallValuesTest() {
+        histogram.record(3);
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(5);
+        histogram.record(4);
+
+        assertEquals(5,   histogram.getCount());
+        assertEquals(1,   histogram.getMin());
+        assertEquals(5,   histogram.getMax());
+        assertEquals(3.0, histogram.getMean());
+        assertEquals(3,   histogram.getPercentile(50));
+        assertEquals(5,   histogram.getPercentile(99));
+    }
+
+    @Test
+    public void largeValuesTest() {
+
+        for (long value = 1; value <= 1000000; value++) {
+            histogram.record(value);
+        }
+        long p90 = histogram.getPercentile(90);
+
+        assertTrue(p90 >= 900000 && p90 <= 900000 * 1.04);
+        assertEquals(1000000, histogram.getPercentile(100));
+    }
+}
@@ -0,0 +1,49 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import main.Board;
+import main.NodeStore;
+import main.State;
+
+public class NodeStoreTest {
+
+    @Test
+    public void growTest() {
+        NodeStore nodes  = new NodeStore();
+        long      board  = Board.goal(3);
+        int       blank  = 0;
+        int       parent = -1;
+
+        // Add a chain of moves longer than the initial capacity.
+        for (int i = 0; i < 5000; i++) {
+            int target = Board.neighbors(3)[blank][0];
+
+            parent = nodes.add(board, blank, parent, i, 5000 - i);
+            board  = Board.move(board, blank, target);
+            blank  = target;
+        }
+        assertEquals(5000, nodes.size());
+        assertEquals(4998, nodes.getParent(4999));
+        assertEquals(4999, nodes.getPathCost(4999));
+        assertEquals(1,    nodes.getHeuristic(4999));
+
+        State state = nodes.makeState(4999, 3);
+        int   depth = 0;
+
+        // Walk up the rebuilt chain, checking each state.
+        for (; state.getParent() != null; state = state.getParent(), depth++) {
+            assertEquals(4999 - depth, state.getPathCost());
+            assertEquals(nodes.getBoard(4999 - depth), state.getBoard());
+        }
+        assertEquals(4999, depth);
+        assertNull(state.getParent());
+        assertEquals(Board.goal(3), state.getBoard());
+
+        nodes.clear();
+        assertEquals(0, nodes.size());
+    }
+}
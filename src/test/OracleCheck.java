@@ -0,0 +1,73 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import main.Board;
+import main.Oracle;
+import main.PuzzleSetReader;
+import main.SearchResult;
+import main.Solver;
+import main.State;
+import main.Validator;
+
+public class OracleCheck {
+    static final String[] NAMES = {"puzzleSet-2-2424-50-100.txt", "puzzleSet-3-2424-80-100.txt"};
+
+    public static void assertOptimal(Solver solver, String heuristicTp) throws IOException {
+
+        // For each committed set small enough for the oracle.
+        for (int i = 0; i < NAMES.length; i++) {
+            File file = new File("../../data/puzzleSet/" + NAMES[i]);
+
+            try (PuzzleSetReader reader = new PuzzleSetReader(file, i + 2)) {
+
+                // For each puzzle of the set.
+                while (reader.next()) {
+                    State initial = reader.makeState();
+
+                    OracleCheck.assertOptimal(initial, solver.solve(initial, heuristicTp));
+                }
+                assertEquals(100, reader.getCount());
+            }
+        }
+    }
+
+    public static void assertOptimal(State initial, SearchResult result) {
+        int size = initial.getSize();
+
+        assertTrue(result.isSolved());
+        assertEquals(Oracle.forSize(size).findDistance(initial.getBoard()), result.getCost());
+        assertEquals(initial, new Validator().testSolution(result.getState()));
+        assertEquals(Board.goal(size), result.getState().getBoard());
+
+        // For each state of the path, check it is one move from its parent.
+        for (State state = result.getState(); state.getParent() != null;
+                state = state.getParent()) {
+            State parent = state.getParent();
+
+            assertEquals(parent.getPathCost() + 1, state.getPathCost());
+            assertEquals(state.getBoard(), Board.move(parent.getBoard(),
+                         parent.getBlank(), state.getBlank()));
+        }
+    }
+
+    public static State walk(Random random, int size, int moves) {
+        long board = Board.goal(size);
+        int  blank = 0;
+
+        // For each move, swap the empty tile with a random neighbor.
+        for (int i = 0; i < moves; i++) {
+            int[] targets = Board.neighbors(size)[blank];
+            int   target  = targets[random.nextInt(targets.length)];
+
+            board = Board.move(board, blank, target);
+            blank = target;
+        }
+        return new State(board, blank, size, null);
+    }
+}
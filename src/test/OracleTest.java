@@ -0,0 +1,83 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import main.Board;
+import main.IdaSearcher;
+import main.Oracle;
+import main.OracleSolver;
+import main.State;
+
+public class OracleTest {
+    OracleSolver solver = new OracleSolver(new IdaSearcher());
+
+    @Test
+    public void knownDistanceTest() {
+        int[][] puzzle1 = {{0, 1, 2}, {3, 4, 5}, {6, 7, 8}};
+        int[][] puzzle2 = {{1, 0, 2}, {3, 4, 5}, {6, 7, 8}};
+        int[][] puzzle3 = {{2, 6, 1}, {8, 0, 5}, {3, 7, 4}};
+        int[][] puzzle4 = {{7, 3, 4}, {2, 0, 5}, {6, 8, 1}};
+        int[][] puzzle5 = {{0, 2, 1}, {3, 4, 5}, {6, 7, 8}};
+        int[][] puzzle6 = {{3, 2}, {1, 0}};
+
+        assertEquals(0, Oracle.forSize(3).findDistance(Board.pack(puzzle1)));
+        assertEquals(1, Oracle.forSize(3).findDistance(Board.pack(puzzle2)));
+        assertEquals(22, Oracle.forSize(3).findDistance(Board.pack(puzzle3)));
+        assertEquals(20, Oracle.forSize(3).findDistance(Board.pack(puzzle4)));
+        assertEquals(-1, Oracle.forSize(3).findDistance(Board.pack(puzzle5)));
+        assertEquals(6, Oracle.forSize(2).findDistance(Board.pack(puzzle6)));
+        assertSame(Oracle.forSize(3), Oracle.forSize(3));
+        assertThrows(IllegalArgumentException.class, () -> Oracle.forSize(4));
+    }
+
+    @Test
+    public void fileTest() throws IOException {
+        Oracle.forSize(3);
+
+        File  file   = new File(System.getProperty("oracleDir", "data/oracle"), "oracle-3.bin");
+        int[] counts = new int[256];
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            assertEquals(0x4F524331, in.readInt());
+            assertEquals(3, in.readInt());
+
+            // For each rank of the table, count its move count.
+            for (int i = 0; i < 9 * 8 * 7 * 6 * 5 * 4 * 3; i++) {
+                counts[in.readUnsignedByte()]++;
+            }
+            assertEquals(-1, in.read());
+        }
+
+        // The 8-puzzle has a single goal and two puzzles 31 moves from it.
+        assertEquals(1, counts[0]);
+        assertEquals(2, counts[31]);
+        assertEquals(0, counts[32]);
+        assertEquals(0, counts[255]);
+    }
+
+    @Test
+    public void solverTest() throws IOException {
+        OracleCheck.assertOptimal(solver, "linearConflict");
+
+        // Puzzles too large for a table go to the fallback solver.
+        assertEquals(1, solver.solve(new State(Board.move(Board.goal(4), 0, 4), 4, 4, null),
+                                     "linearConflict").getCost());
+    }
+
+    @Test
+    public void unreachableTest() {
+        int[][] puzzle = {{0, 2, 1}, {3, 4, 5}, {6, 7, 8}};
+
+        assertFalse(solver.solve(new State(puzzle, null), "linearConflict").isSolved());
+    }
+}
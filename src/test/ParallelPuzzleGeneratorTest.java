@@ -0,0 +1,75 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import main.BinaryPuzzleSet;
+import main.Oracle;
+import main.ParallelPuzzleGenerator;
+import main.PuzzleSetWriter;
+
+public class ParallelPuzzleGeneratorTest {
+    static final int NUMBER = 3 * ParallelPuzzleGenerator.CHUNK_SIZE + 5;
+
+    @TempDir
+    Path directory;
+
+    private byte[] generate(int seed, int threads) throws Exception {
+        File         file = new File(directory.toFile(), seed + "-" + threads + ".bin");
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try (PuzzleSetWriter writer = new PuzzleSetWriter(file, 3, seed, 21, true)) {
+
+            // The parallel streams of the generator run on the pool they are started from.
+            pool.submit(() -> {
+                new ParallelPuzzleGenerator(seed).generate(3, 21, NUMBER, writer);
+                return null;
+            }).get();
+        } finally {
+            pool.shutdown();
+        }
+        return Files.readAllBytes(file.toPath());
+    }
+
+    @Test
+    public void threadsTest() throws Exception {
+        byte[] expected = generate(2424, 1);
+
+        // For each number of threads, check the set comes out the same.
+        for (int threads : new int[] {2, 3, 8}) {
+            assertArrayEquals(expected, generate(2424, threads));
+        }
+        assertFalse(Arrays.equals(expected, generate(2425, 1)));
+    }
+
+    @Test
+    public void walkTest() throws IOException {
+        File file = new File(directory.toFile(), "walk.bin");
+
+        try (PuzzleSetWriter writer = new PuzzleSetWriter(file, 3, 2424, 21, true)) {
+            new ParallelPuzzleGenerator(2424).generate(3, 21, NUMBER, writer);
+        }
+        BinaryPuzzleSet set = new BinaryPuzzleSet(file);
+
+        assertEquals(NUMBER, set.getCount());
+
+        // For each puzzle, check it is an odd number of moves, at most 21, from the goal.
+        for (int i = 0; i < set.getCount(); i++) {
+            int distance = Oracle.forSize(3).findDistance(set.getBoard(i));
+
+            assertTrue(distance >= 1 && distance <= 21 && distance % 2 == 1);
+        }
+    }
+}
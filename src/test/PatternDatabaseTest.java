@@ -0,0 +1,79 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import main.BidirectionalSearcher;
+import main.Board;
+import main.IdaSearcher;
+import main.PatternDatabase;
+import main.PuzzleSetReader;
+import main.SearchResult;
+import main.Searcher;
+import main.State;
+import main.TileDistance;
+import main.Validator;
+
+public class PatternDatabaseTest {
+    Searcher aStar = new Searcher();
+
+    @Test
+    public void optimalCostTest() throws IOException {
+        OracleCheck.assertOptimal(aStar, "patternDb");
+        OracleCheck.assertOptimal(new Searcher(4), "patternDb");
+    }
+
+    @Test
+    public void inconsistentTest() {
+        int[][] puzzle1 = {{2, 6, 1}, {8, 0, 5}, {3, 7, 4}};
+        int[][] puzzle2 = {{7, 3, 4}, {2, 0, 5}, {6, 8, 1}};
+
+        // For each puzzle whose first path to some state is not its cheapest.
+        for (int[][] puzzle : new int[][][] {puzzle1, puzzle2}) {
+            State initial = new State(puzzle, null);
+
+            OracleCheck.assertOptimal(initial, aStar.solve(initial, "patternDb"));
+            OracleCheck.assertOptimal(initial, new Searcher(4).solve(initial, "patternDb"));
+            OracleCheck.assertOptimal(initial,
+                    new BidirectionalSearcher().solve(initial, "patternDb"));
+        }
+    }
+
+    @Test
+    public void fifteenPuzzleTest() throws IOException {
+        File            file      = new File("../../data/puzzleSet/puzzleSet-4-2424-40-100.txt");
+        PatternDatabase database  = PatternDatabase.forSize(4);
+        int[]           manhattan = TileDistance.manhattan(4);
+
+        assertEquals(0, database.findHeuristic(Board.goal(4)));
+
+        try (PuzzleSetReader reader = new PuzzleSetReader(file, 4)) {
+
+            // For each puzzle, check the 6-6-3 tables against Manhattan distance and IDA*.
+            while (reader.next()) {
+                State        initial   = reader.makeState();
+                SearchResult result    = aStar.solve(initial, "patternDb");
+                SearchResult expected  = new IdaSearcher().solve(initial, "linearConflict");
+                int          heuristic = database.findHeuristic(initial.getBoard());
+                int          distance  = 0;
+
+                // For each position, add the distance of its tile, skipping the empty one.
+                for (int pos = 0; pos < 16; pos++) {
+                    int tile = Board.tileAt(initial.getBoard(), pos);
+
+                    distance += tile == 0 ? 0 : manhattan[tile * 16 + pos];
+                }
+                assertTrue(heuristic >= distance);
+                assertTrue(heuristic <= expected.getCost());
+                assertEquals(expected.getCost(), result.getCost());
+                assertEquals(initial, new Validator().testSolution(result.getState()));
+            }
+            assertEquals(100, reader.getCount());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import main.PuzzleSetReader;
+
+public class PuzzleSetReaderTest {
+
+    private File write(String contents) throws IOException {
+        File file = File.createTempFile("puzzleSet", ".txt");
+
+        file.deleteOnExit();
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void nextTest() throws IOException {
+        File file = write("[[5, 3, 4], [0, 6, 1], [7, 8, 2]]\n[[0, 1, 2], [3, 4, 5], [6, 7, 8]]");
+
+        try (PuzzleSetReader reader = new PuzzleSetReader(file, 3)) {
+            int[][] puzzle1 = {{5, 3, 4}, {0, 6, 1}, {7, 8, 2}};
+
+            assertTrue(reader.next());
+            assertEquals(3, reader.getBlank());
+            assertTrue(Arrays.deepEquals(puzzle1, reader.makeState().getPuzzle()));
+
+            assertTrue(reader.next());
+            assertEquals(0, reader.getBlank());
+            assertEquals(0x876543210L, reader.getBoard());
+
+            assertFalse(reader.next());
+            assertEquals(2, reader.getCount());
+        }
+    }
+
+    @Test
+    public void wideTest() throws IOException {
+        int[][] puzzle = {{1, 6, 2, 3, 4}, {11, 7, 12, 8, 9}, {5, 10, 17, 13, 14},
+                          {0, 15, 16, 18, 19}, {20, 21, 22, 23, 24}};
+        File    file   = write(Arrays.deepToString(puzzle) + "\n");
+
+        try (PuzzleSetReader reader = new PuzzleSetReader(file, 5)) {
+            assertTrue(reader.next());
+            assertEquals(15, reader.getBlank());
+            assertTrue(Arrays.deepEquals(puzzle, reader.makeState().getPuzzle()));
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void truncatedTest() throws IOException {
+        File file = write("[[1, 0], [2, 3]]\n[[1, 0], [2");
+
+        try (PuzzleSetReader reader = new PuzzleSetReader(file, 2)) {
+            assertTrue(reader.next());
+            assertThrows(EOFException.class, reader::next);
+        }
+    }
+
+    @Test
+    public void repeatedTileTest() throws IOException {
+        File file = write("[[1, 0], [2, 3]]\n[[1, 1], [2, 3]]\n");
+
+        try (PuzzleSetReader reader = new PuzzleSetReader(file, 2)) {
+            assertTrue(reader.next());
+
+            IOException ioe = assertThrows(IOException.class, reader::next);
+
+            assertTrue(ioe.getMessage().contains("line 2"));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+import main.RecordReader;
+import main.RecordWriter;
+
+public class RecordReaderTest {
+
+    @Test
+    public void roundTripTest() throws IOException {
+        File file = File.createTempFile("records", ".bin");
+
+        file.deleteOnExit();
+
+        try (RecordWriter writer = new RecordWriter(file.toPath())) {
+
+            // Write more records than fit in a buffer.
+            for (long i = 0; i < 20000; i++) {
+                writer.add(i * 0x9E3779B97F4A7C15L);
+            }
+            assertEquals(20000, writer.getCount());
+        }
+
+        try (RecordReader reader = new RecordReader(file.toPath())) {
+
+            // Read every record back in order.
+            for (long i = 0; i < 20000; i++) {
+                assertTrue(reader.next());
+                assertEquals(i * 0x9E3779B97F4A7C15L, reader.get());
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void truncatedTest() throws IOException {
+        File file = File.createTempFile("records", ".bin");
+
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[12]);
+
+        try (RecordReader reader = new RecordReader(file.toPath())) {
+            assertTrue(reader.next());
+            assertThrows(EOFException.class, reader::next);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import main.BidirectionalSearcher;
+import main.Board;
+import main.IdaSearcher;
+import main.PuzzleSetReader;
+import main.SearchResult;
+import main.Searcher;
+import main.Solver;
+import main.State;
+
+public class SearchResultTest {
+
+    @Test
+    public void pathTest() {
+        int[][]      puzzle = {{3, 1, 2}, {4, 0, 5}, {6, 7, 8}};
+        State        first  = new State(puzzle, null);
+        State        second = new State(Board.move(first.getBoard(), 4, 3), 3, 3, first);
+        State        third  = new State(Board.move(second.getBoard(), 3, 0), 0, 3, second);
+        SearchResult result = new SearchResult(third, 5, 12, 7, 100);
+        long[]       path   = result.getPath();
+
+        assertTrue(result.isSolved());
+        assertEquals(2, result.getCost());
+        assertEquals(third, result.getState());
+        assertArrayEquals(new long[] {first.getBoard(), second.getBoard(), Board.goal(3)}, path);
+        assertEquals(5, result.getExpanded());
+        assertEquals(12, result.getGenerated());
+        assertEquals(7, result.getPeakFrontier());
+        assertEquals(100, result.getElapsedTime());
+
+        // The path handed out is a copy, so changing it leaves the result alone.
+        path[0] = 0;
+        assertNotSame(path, result.getPath());
+        assertEquals(first.getBoard(), result.getPath()[0]);
+    }
+
+    @Test
+    public void unsolvedTest() {
+        SearchResult result = new SearchResult(null, 181440, 483840, 24048, 100);
+
+        assertFalse(result.isSolved());
+        assertNull(result.getState());
+        assertEquals(-1, result.getCost());
+        assertEquals(0, result.getPath().length);
+        assertEquals(181440, result.getExpanded());
+    }
+
+    @Test
+    public void sharedSolverTest() throws Exception {
+        File            file     = new File("../../data/puzzleSet/puzzleSet-3-2424-80-100.txt");
+        Solver[]        solvers  = {new Searcher(), new Searcher(4), new IdaSearcher(),
+                                    new BidirectionalSearcher()};
+        List<State>     initials = new ArrayList<>();
+        ExecutorService pool     = Executors.newFixedThreadPool(4);
+
+        try (PuzzleSetReader reader = new PuzzleSetReader(file, 3)) {
+
+            // For each puzzle of the set, keep its initial state.
+            while (reader.next()) {
+                initials.add(reader.makeState());
+            }
+        }
+
+        try {
+
+            // For each solver, solve every puzzle on four threads at once.
+            for (Solver solver : solvers) {
+                List<Future<SearchResult>> futures = new ArrayList<>();
+
+                // For each puzzle, hand it to the pool.
+                for (State initial : initials) {
+                    futures.add(pool.submit(() -> solver.solve(initial, "linearConflict")));
+                }
+
+                // For each puzzle, check the shared solver found what it finds alone.
+                for (int i = 0; i < initials.size(); i++) {
+                    SearchResult result   = futures.get(i).get();
+                    SearchResult expected = solver.solve(initials.get(i), "linearConflict");
+
+                    OracleCheck.assertOptimal(initials.get(i), result);
+                    assertEquals(expected.getExpanded(), result.getExpanded());
+                    assertEquals(expected.getGenerated(), result.getGenerated());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.jupiter.api.Test;
+
+import main.SearchStats;
+import main.Searcher;
+import main.State;
+
+public class SearchStatsTest {
+    int[][] puzzle = {{2, 6, 1}, {8, 0, 5}, {3, 7, 4}};
+
+    @Test
+    public void offTest() {
+        SearchStats.collect();
+
+        assertFalse(SearchStats.COUNTERS);
+        assertFalse(SearchStats.TIMERS);
+        assertEquals(22, new Searcher().solve(new State(puzzle, null), "linearConflict").getCost());
+
+        SearchStats stats = SearchStats.collect();
+
+        assertEquals(0, stats.getSearches());
+        assertEquals(0, stats.getExpanded());
+        assertEquals(0, stats.getGenerated());
+        assertEquals(0, stats.getHeuristicCalls());
+        assertEquals(0, stats.getPeakFrontier());
+        assertEquals(0, stats.getSelectNanos());
+    }
+
+    @Test
+    public void countersTest() throws Exception {
+        Object stats = solveAt("counters");
+
+        assertEquals(1L, get(stats, "getSearches"));
+        assertTrue((long) get(stats, "getExpanded") > 0);
+        assertTrue((long) get(stats, "getGenerated") >= (long) get(stats, "getExpanded"));
+        assertTrue((long) get(stats, "getHeuristicCalls") > 0);
+        assertTrue((long) get(stats, "getPeakFrontier") > 0);
+        assertEquals(0L, get(stats, "getSelectNanos"));
+
+        stats = solveAt("timers");
+
+        assertEquals(1L, get(stats, "getSearches"));
+        assertTrue((long) get(stats, "getSelectNanos") > 0);
+        assertTrue((long) get(stats, "getExpandNanos") > 0);
+        assertTrue(assertThrows(InvocationTargetException.class, () -> solveAt("count"))
+                   .getCause() instanceof ExceptionInInitializerError);
+    }
+
+    // The level is read once when SearchStats loads, so each level loads the classes again.
+    Object solveAt(String level) throws Exception {
+        URL    classes = Searcher.class.getProtectionDomain().getCodeSource().getLocation();
+        String before  = System.getProperty("instrument");
+
+        System.setProperty("instrument", level);
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {classes},
+                                                        ClassLoader.getPlatformClassLoader())) {
+            Class<?> stateClass    = loader.loadClass("main.State");
+            Class<?> searcherClass = loader.loadClass("main.Searcher");
+            Object   initial       = stateClass.getConstructor(int[][].class, stateClass)
+                                               .newInstance(puzzle, null);
+            Object   searcher      = searcherClass.getConstructor().newInstance();
+
+            searcherClass.getMethod("solve", stateClass, String.class)
+                         .invoke(searcher, initial, "linearConflict");
+            return loader.loadClass("main.SearchStats").getMethod("collect").invoke(null);
+        } finally {
+            // Check if the property was set before the test.
+            if (before == null) {
+                System.clearProperty("instrument");
+            } else {
+                System.setProperty("instrument", before);
+            }
+        }
+    }
+
+    Object get(Object stats, String getter) throws Exception {
+        return stats.getClass().getMethod(getter).invoke(stats);
+    }
+}
@@ -1,16 +1,23 @@
 package test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import main.PuzzleSetReader;
+import main.SearchResult;
 import main.Searcher;
 import main.State;
+import main.Validator;
 
 public class SearcherTest {
     Searcher searcher = new Searcher();
@@ -92,6 +99,39 @@ public class SearcherTest {
         assertTrue(Arrays.equals(emptyXY2, emptyXY2Exp));
     }
 
+    @Test
+    public void batchCostTest() throws IOException {
+
+        // For each batch size, from a few states to more than any f layer holds.
+        for (int batchSize : new int[] {2, 4, 64}) {
+            OracleCheck.assertOptimal(new Searcher(batchSize), "linearConflict");
+        }
+        assertThrows(IllegalArgumentException.class, () -> new Searcher(0));
+    }
+
+    @Test
+    public void batchOrderTest() throws IOException {
+        Searcher batch = new Searcher(4);
+        File     file  = new File("../../data/puzzleSet/puzzleSet-4-2424-40-100.txt");
+
+        try (PuzzleSetReader reader = new PuzzleSetReader(file, 4)) {
+
+            // For each puzzle, check the children evaluated in parallel are added in order.
+            while (reader.next()) {
+                State        initial  = reader.makeState();
+                SearchResult result   = batch.solve(initial, "linearConflict");
+                SearchResult repeated = batch.solve(initial, "linearConflict");
+
+                assertTrue(result.isSolved());
+                assertEquals(result.getCost(), repeated.getCost());
+                assertEquals(result.getExpanded(), repeated.getExpanded());
+                assertEquals(result.getGenerated(), repeated.getGenerated());
+                assertEquals(initial, new Validator().testSolution(result.getState()));
+            }
+            assertEquals(100, reader.getCount());
+        }
+    }
+
     @AfterEach
     public void tearDown() {
         state1 = null;
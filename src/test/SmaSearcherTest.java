@@ -0,0 +1,61 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import main.SearchResult;
+import main.SmaSearcher;
+import main.State;
+
+public class SmaSearcherTest {
+    SmaSearcher roomy = new SmaSearcher(1 << 16);
+    SmaSearcher tight = new SmaSearcher(64);
+
+    @Test
+    public void optimalCostTest() throws IOException {
+        OracleCheck.assertOptimal(roomy, "linearConflict");
+    }
+
+    @Test
+    public void memoryBoundTest() {
+        Random random = new Random(2424);
+
+        // For each puzzle, check the solution stays exact within the budget.
+        for (int i = 0; i < 100; i++) {
+            State        initial = OracleCheck.walk(random, 3, 80);
+            SearchResult result  = tight.solve(initial, "linearConflict");
+
+            OracleCheck.assertOptimal(initial, result);
+            assertTrue(result.getPeakFrontier() <= tight.getBudget());
+        }
+    }
+
+    @Test
+    public void forgetTest() {
+        State        initial  = new State(new int[][] {{2, 6, 1}, {8, 0, 5}, {3, 7, 4}}, null);
+        SearchResult expected = roomy.solve(initial, "linearConflict");
+        SearchResult result   = tight.solve(initial, "linearConflict");
+
+        // Forgotten states have to be generated again once their parent is chosen.
+        assertTrue(expected.getPeakFrontier() > tight.getBudget());
+        assertTrue(result.getExpanded() > expected.getExpanded());
+        assertEquals(expected.getCost(), result.getCost());
+    }
+
+    @Test
+    public void budgetTest() {
+        State initial = new State(new int[][] {{2, 6, 1}, {8, 0, 5}, {3, 7, 4}}, null);
+
+        // The 22 moves of the solution need more states than the budget holds.
+        assertFalse(new SmaSearcher(16).solve(initial, "linearConflict").isSolved());
+        assertThrows(IllegalArgumentException.class, () -> new SmaSearcher(1));
+        assertEquals(1000, SmaSearcher.budgetOf(1000L * SmaSearcher.BYTES_PER_NODE));
+    }
+}
@@ -0,0 +1,67 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import main.Board;
+import main.Oracle;
+import main.Searcher;
+import main.State;
+import main.TileDistance;
+import main.WalkingDistance;
+
+public class WalkingDistanceTest {
+    Searcher aStar = new Searcher();
+
+    @Test
+    public void optimalCostTest() throws IOException {
+        OracleCheck.assertOptimal(aStar, "walkingDist");
+    }
+
+    @Test
+    public void valueTest() {
+        Random random = new Random(2424);
+
+        // For each puzzle size, compare random puzzles with Manhattan distance and the oracle.
+        for (int size = 2; size <= 4; size++) {
+            WalkingDistance table     = WalkingDistance.forSize(size);
+            int[]           manhattan = TileDistance.manhattan(size);
+            int             cells     = size * size;
+
+            assertEquals(0, table.findHeuristic(Board.goal(size)));
+            assertEquals(1, table.findHeuristic(Board.move(Board.goal(size), 0, 1)));
+            assertSame(table, WalkingDistance.forSize(size));
+
+            // For each random puzzle of the size.
+            for (int i = 0; i < 1000; i++) {
+                State state     = OracleCheck.walk(random, size, 100);
+                long  board     = state.getBoard();
+                int   heuristic = table.findHeuristic(board);
+                int   distance  = 0;
+
+                // For each position, add the distance of its tile, skipping the empty one.
+                for (int pos = 0; pos < cells; pos++) {
+                    int tile = Board.tileAt(board, pos);
+
+                    distance += tile == 0 ? 0 : manhattan[tile * cells + pos];
+                }
+                assertTrue(heuristic >= distance);
+                assertTrue(size > Oracle.MAX_SIZE
+                           || heuristic <= Oracle.forSize(size).findDistance(board));
+
+                // For each move, check the value changes by one move at most.
+                for (int target : Board.neighbors(size)[state.getBlank()]) {
+                    long child = Board.move(board, state.getBlank(), target);
+
+                    assertTrue(Math.abs(table.findHeuristic(child) - heuristic) <= 1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import main.PuzzleSetReader;
+import main.SearchResult;
+import main.Searcher;
+import main.State;
+import main.Validator;
+import main.WideIdaSearcher;
+
+public class WideIdaSearcherTest {
+    WideIdaSearcher searcher = new WideIdaSearcher();
+    Searcher        aStar    = new Searcher();
+
+    @Test
+    public void optimalCostTest() throws IOException {
+        File file = new File("../../data/puzzleSet/puzzleSet-3-2424-80-100.txt");
+
+        try (PuzzleSetReader reader = new PuzzleSetReader(file, 3)) {
+
+            // Compare each puzzle with the cost A* finds.
+            while (reader.next()) {
+                State        initial  = reader.makeState();
+                SearchResult result   = searcher.solve(initial, "linearConflict");
+                SearchResult expected = aStar.solve(initial, "linearConflict");
+
+                assertTrue(result.isSolved());
+                assertEquals(expected.getCost(), result.getCost());
+                assertEquals(initial, new Validator().testSolution(result.getState()));
+            }
+            assertEquals(100, reader.getCount());
+        }
+    }
+
+    @Test
+    public void unknownTypeTest() {
+        int[][] puzzle = {{1, 2, 5}, {3, 4, 0}, {6, 7, 8}};
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> searcher.solve(new State(puzzle, null), "walkingDist"));
+        assertThrows(IllegalArgumentException.class,
+                     () -> searcher.solve(new State(puzzle, null), "linearConflicts"));
+    }
+
+    @Test
+    public void unreachableTest() {
+        int[][] puzzle = {{0, 2, 1, 3, 4}, {5, 6, 7, 8, 9}, {10, 11, 12, 13, 14},
+                          {15, 16, 17, 18, 19}, {20, 21, 22, 23, 24}};
+
+        assertFalse(searcher.solve(new State(puzzle, null), "linearConflict").isSolved());
+    }
+}